@@ -0,0 +1,197 @@
+package com.humanrsc.benchmarks;
+
+import com.humanrsc.datamodel.abstraction.ExtendedAttribute;
+import com.humanrsc.datamodel.abstraction.ObjectID;
+import com.humanrsc.datamodel.entities.CurrencyExchangeRate;
+import com.humanrsc.datamodel.entities.Employee;
+import com.humanrsc.datamodel.entities.EmployeeAssignment;
+import com.humanrsc.datamodel.entities.JobPosition;
+import com.humanrsc.datamodel.entities.Notification;
+import com.humanrsc.datamodel.entities.OrganizationalUnit;
+import com.humanrsc.datamodel.entities.PositionCategory;
+import com.humanrsc.datamodel.entities.SalaryHistory;
+import com.humanrsc.datamodel.entities.TemporaryReplacement;
+import com.humanrsc.datamodel.entities.Tenant;
+import com.humanrsc.datamodel.entities.User;
+import jakarta.persistence.EntityManager;
+import org.hibernate.SessionFactory;
+import org.hibernate.cfg.Configuration;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.List;
+import java.util.UUID;
+import java.util.function.Consumer;
+
+/**
+ * Base de datos local para los benchmarks: H2 en modo PostgreSQL con el esquema generado
+ * desde las entidades de la aplicación (SessionFactory de Hibernate, sin Quarkus ni Flyway).
+ *
+ * Las migraciones usan RLS y funciones de PostgreSQL que H2 no soporta, así que el
+ * aislamiento por tenant no se mide aquí: todo el dataset pertenece a {@link #TENANT}.
+ */
+public final class BenchmarkDatabase implements AutoCloseable {
+
+    public static final String TENANT = "bench-tenant";
+
+    private static final String[] CURRENCIES = {"EUR", "USD", "GBP", "CHF"};
+    private static final String[] STATUSES = {
+        Employee.STATUS_ACTIVE, Employee.STATUS_ACTIVE, Employee.STATUS_ACTIVE, Employee.STATUS_INACTIVE
+    };
+
+    private final SessionFactory sessionFactory;
+
+    private BenchmarkDatabase(SessionFactory sessionFactory) {
+        this.sessionFactory = sessionFactory;
+    }
+
+    /**
+     * Arranca una base en memoria nueva; el nombre la aísla de otros benchmarks del mismo fork.
+     */
+    public static BenchmarkDatabase start(String name) {
+        Configuration configuration = new Configuration()
+            .setProperty("hibernate.connection.url", "jdbc:h2:mem:" + name
+                + ";MODE=PostgreSQL;DATABASE_TO_LOWER=TRUE;DEFAULT_NULL_ORDERING=HIGH;DB_CLOSE_DELAY=-1"
+                + ";INIT=CREATE SCHEMA IF NOT EXISTS hr_app")
+            .setProperty("hibernate.connection.username", "sa")
+            .setProperty("hibernate.connection.password", "")
+            .setProperty("hibernate.hbm2ddl.auto", "create-drop")
+            .setProperty("hibernate.integration.envers.enabled", "false")
+            .setProperty("hibernate.jdbc.batch_size", "50")
+            .setProperty("hibernate.show_sql", "false");
+
+        for (Class<?> type : List.of(ObjectID.class, ExtendedAttribute.class, Tenant.class, User.class,
+                PositionCategory.class, OrganizationalUnit.class, JobPosition.class, Employee.class,
+                EmployeeAssignment.class, TemporaryReplacement.class, SalaryHistory.class,
+                CurrencyExchangeRate.class, Notification.class)) {
+            configuration.addAnnotatedClass(type);
+        }
+        return new BenchmarkDatabase(configuration.buildSessionFactory());
+    }
+
+    public EntityManager openEntityManager() {
+        return sessionFactory.createEntityManager();
+    }
+
+    public void inTransaction(Consumer<EntityManager> work) {
+        EntityManager em = openEntityManager();
+        try {
+            em.getTransaction().begin();
+            work.accept(em);
+            em.getTransaction().commit();
+        } finally {
+            if (em.getTransaction().isActive()) {
+                em.getTransaction().rollback();
+            }
+            em.close();
+        }
+    }
+
+    /**
+     * Dataset sintético: árbol de unidades de 3 niveles, posiciones por unidad, empleados
+     * con asignación vigente (y una histórica cada cinco) y tasas de cambio a EUR.
+     */
+    public void seed(int units, int positionsPerUnit, int employees) {
+        inTransaction(em -> {
+            PositionCategory category = new PositionCategory();
+            category.setObjectID(newId());
+            category.setName("Engineering");
+            em.persist(category);
+
+            OrganizationalUnit[] unitRows = new OrganizationalUnit[units];
+            JobPosition[] positionRows = new JobPosition[units * positionsPerUnit];
+            for (int u = 0; u < units; u++) {
+                OrganizationalUnit unit = new OrganizationalUnit();
+                unit.setObjectID(newId());
+                unit.setName("Unit " + u);
+                unit.setCostCenter("CC-" + u);
+                // Nivel 1 la raíz, nivel 2 sus hijos directos, nivel 3 el resto
+                if (u > 0) {
+                    OrganizationalUnit parent = unitRows[u <= 4 ? 0 : 1 + (u % 4)];
+                    unit.setParentUnit(parent);
+                    unit.setOrganizationalLevel(parent.getOrganizationalLevel() + 1);
+                }
+                em.persist(unit);
+                unitRows[u] = unit;
+
+                for (int p = 0; p < positionsPerUnit; p++) {
+                    JobPosition position = new JobPosition();
+                    position.setObjectID(newId());
+                    position.setTitle("Position " + u + "-" + p);
+                    position.setUnit(unit);
+                    position.setCategory(category);
+                    position.setHierarchicalLevel(1 + p % 5);
+                    em.persist(position);
+                    positionRows[u * positionsPerUnit + p] = position;
+                }
+            }
+
+            for (int e = 0; e < employees; e++) {
+                Employee employee = newEmployee("EMP-" + e);
+                employee.setStatus(STATUSES[e % STATUSES.length]);
+                employee.setCurrency(CURRENCIES[e % CURRENCIES.length]);
+                employee.setCurrentSalary(BigDecimal.valueOf(30_000 + (e * 37L) % 90_000));
+                em.persist(employee);
+
+                JobPosition position = positionRows[e % positionRows.length];
+                if (e % 5 == 0) {
+                    em.persist(newAssignment(employee, position, LocalDate.now().minusYears(3), LocalDate.now().minusYears(1)));
+                }
+                em.persist(newAssignment(employee, position, LocalDate.now().minusYears(1), null));
+
+                if (e % 50 == 0) {
+                    // Unidades y posiciones quedan detached; como asociación sólo se usa su id
+                    em.flush();
+                    em.clear();
+                }
+            }
+
+            for (String currency : CURRENCIES) {
+                if ("EUR".equals(currency)) {
+                    continue;
+                }
+                CurrencyExchangeRate rate = new CurrencyExchangeRate();
+                rate.setObjectID(newId());
+                rate.setFromCurrency(currency);
+                rate.setToCurrency("EUR");
+                rate.setExchangeRate(new BigDecimal("0.9"));
+                rate.setEffectiveDate(LocalDate.now().minusMonths(1));
+                em.persist(rate);
+            }
+        });
+    }
+
+    public static Employee newEmployee(String employeeId) {
+        Employee employee = new Employee();
+        employee.setObjectID(newId());
+        employee.setEmployeeId(employeeId);
+        employee.setFirstName("First" + employeeId);
+        employee.setLastName("Last" + employeeId);
+        employee.setEmail(employeeId.toLowerCase() + "@bench.example");
+        employee.setHireDate(LocalDate.now().minusYears(2));
+        employee.setDateOfBirth(LocalDate.of(1990, 1, 1));
+        employee.setCurrency("EUR");
+        employee.setCurrentSalary(new BigDecimal("45000"));
+        return employee;
+    }
+
+    private static EmployeeAssignment newAssignment(Employee employee, JobPosition position, LocalDate start, LocalDate end) {
+        EmployeeAssignment assignment = new EmployeeAssignment();
+        assignment.setObjectID(newId());
+        assignment.setEmployee(employee);
+        assignment.setPosition(position);
+        assignment.setUnit(position.getUnit());
+        assignment.setStartDate(start);
+        assignment.setEndDate(end);
+        return assignment;
+    }
+
+    public static ObjectID newId() {
+        return ObjectID.of(UUID.randomUUID().toString(), TENANT);
+    }
+
+    @Override
+    public void close() {
+        sessionFactory.close();
+    }
+}
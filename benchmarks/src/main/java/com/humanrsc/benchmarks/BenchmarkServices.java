@@ -0,0 +1,146 @@
+package com.humanrsc.benchmarks;
+
+import com.humanrsc.datamodel.entities.CurrencyExchangeRate;
+import com.humanrsc.datamodel.entities.Employee;
+import com.humanrsc.datamodel.repo.CurrencyExchangeRateRepository;
+import com.humanrsc.datamodel.repo.EmployeeAssignmentRepository;
+import com.humanrsc.datamodel.repo.EmployeeRepository;
+import com.humanrsc.datamodel.repo.OrganizationalUnitRepository;
+import com.humanrsc.services.ExchangeRateCache;
+import com.humanrsc.services.OrganizationService;
+import com.humanrsc.services.PayrollCostRollupService;
+import jakarta.persistence.EntityManager;
+
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
+import java.lang.reflect.Field;
+import java.time.LocalDate;
+import java.util.List;
+import java.util.Optional;
+
+/**
+ * Cableado manual de repositorios y servicios fuera de CDI.
+ *
+ * Fuera de Quarkus los métodos de Panache no están instrumentados, así que sólo se
+ * benchmarkean caminos que llegan a la base vía getEntityManager(), que aquí se sobreescribe,
+ * y los pocos finders de Panache de esos caminos se sobreescriben con la misma JPQL.
+ */
+final class BenchmarkServices {
+
+    private BenchmarkServices() {
+    }
+
+    static EmployeeRepository employeeRepository(EntityManager em) {
+        return new EmployeeRepository() {
+            @Override
+            public EntityManager getEntityManager() {
+                return em;
+            }
+
+            @Override
+            public void persist(Employee employee) {
+                em.persist(employee);
+            }
+
+            // Chequeos de unicidad de createEmployee, con la misma JPQL que los finders de Panache
+            @Override
+            public Optional<Employee> findByEmployeeId(String employeeId) {
+                return em.createQuery("from Employee where employeeId = ?1", Employee.class)
+                        .setParameter(1, employeeId)
+                        .setMaxResults(1)
+                        .getResultStream()
+                        .findFirst();
+            }
+
+            @Override
+            public boolean existsByEmail(String email) {
+                return em.createQuery("select count(*) from Employee where email = ?1", Long.class)
+                        .setParameter(1, email)
+                        .getSingleResult() > 0;
+            }
+        };
+    }
+
+    static EmployeeAssignmentRepository employeeAssignmentRepository(EntityManager em) {
+        return new EmployeeAssignmentRepository() {
+            @Override
+            public EntityManager getEntityManager() {
+                return em;
+            }
+        };
+    }
+
+    static OrganizationalUnitRepository organizationalUnitRepository(EntityManager em) {
+        return new OrganizationalUnitRepository() {
+            @Override
+            public EntityManager getEntityManager() {
+                return em;
+            }
+        };
+    }
+
+    static CurrencyExchangeRateRepository currencyExchangeRateRepository(EntityManager em) {
+        return new CurrencyExchangeRateRepository() {
+            @Override
+            public EntityManager getEntityManager() {
+                return em;
+            }
+
+            @Override
+            public List<CurrencyExchangeRate> findActiveRates() {
+                return em.createQuery("from CurrencyExchangeRate where status = ?1", CurrencyExchangeRate.class)
+                        .setParameter(1, CurrencyExchangeRate.STATUS_ACTIVE)
+                        .getResultList();
+            }
+        };
+    }
+
+    // Sin tenant en contexto la caché carga la tabla de tasas en cada llamada, como un miss
+    static ExchangeRateCache exchangeRateCache(EntityManager em) {
+        ExchangeRateCache cache = new ExchangeRateCache();
+        inject(cache, "currencyExchangeRateRepository", currencyExchangeRateRepository(em));
+        return cache;
+    }
+
+    static OrganizationService organizationService(EntityManager em) {
+        OrganizationService service = new OrganizationService();
+        inject(service, "employeeRepository", employeeRepository(em));
+        inject(service, "organizationalUnitRepository", organizationalUnitRepository(em));
+        inject(service, "employeeAssignmentRepository", employeeAssignmentRepository(em));
+        inject(service, "exchangeRateCache", exchangeRateCache(em));
+        inject(service, "payrollCostRollup", noPayrollCostRollup());
+        return service;
+    }
+
+    // La cola de recálculo es una tabla nativa de Postgres que el esquema H2 no tiene
+    static PayrollCostRollupService noPayrollCostRollup() {
+        return new PayrollCostRollupService() {
+            @Override
+            public void markChanged(LocalDate... dates) {
+            }
+        };
+    }
+
+    static void inject(Object target, String fieldName, Object value) {
+        try {
+            Field field = target.getClass().getDeclaredField(fieldName);
+            field.setAccessible(true);
+            field.set(target, value);
+        } catch (ReflectiveOperationException e) {
+            throw new IllegalStateException("Cannot inject " + fieldName + " into " + target.getClass().getName(), e);
+        }
+    }
+
+    /**
+     * Handle a un método privado, para medir el cálculo sin la caché ni el interceptor que lo envuelven.
+     */
+    static MethodHandle privateMethod(Class<?> owner, String name, Class<?> returnType, Class<?>... parameterTypes) {
+        try {
+            return MethodHandles.privateLookupIn(owner, MethodHandles.lookup())
+                    .findVirtual(owner, name, MethodType.methodType(returnType, parameterTypes));
+        } catch (ReflectiveOperationException e) {
+            throw new IllegalStateException("Cannot access " + owner.getSimpleName() + "." + name, e);
+        }
+    }
+}
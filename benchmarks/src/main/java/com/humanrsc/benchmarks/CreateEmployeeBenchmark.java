@@ -0,0 +1,74 @@
+package com.humanrsc.benchmarks;
+
+import com.humanrsc.datamodel.entities.Employee;
+import com.humanrsc.services.OrganizationService;
+import jakarta.persistence.EntityManager;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Alta de un empleado con OrganizationService.createEmployee hasta el commit: chequeo de unicidad
+ * de employeeId y de email, reglas de negocio, INSERT del empleado y de sus atributos
+ * extendidos y búsqueda del manager a notificar (el empleado nuevo no tiene asignación).
+ *
+ * La transacción la abre el benchmark en lugar del interceptor, y el encolado del recálculo de
+ * coste de nómina queda anulado (ver BenchmarkServices.noPayrollCostRollup).
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class CreateEmployeeBenchmark {
+
+    private BenchmarkDatabase database;
+    private EntityManager em;
+    private OrganizationService service;
+    private long sequence;
+
+    @Setup(Level.Trial)
+    public void setup() {
+        database = BenchmarkDatabase.start("create_employee");
+        database.seed(20, 4, 5000);
+        em = database.openEntityManager();
+        service = BenchmarkServices.organizationService(em);
+    }
+
+    @Benchmark
+    public Employee createEmployee() {
+        Employee employee = BenchmarkDatabase.newEmployee("NEW-" + sequence++);
+        employee.setAttribute("badge", "B-" + sequence);
+        employee.setAttribute("shift", "morning");
+
+        em.getTransaction().begin();
+        try {
+            service.createEmployee(employee);
+            em.getTransaction().commit();
+        } finally {
+            if (em.getTransaction().isActive()) {
+                em.getTransaction().rollback();
+            }
+            em.clear();
+        }
+        return employee;
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        em.close();
+        database.close();
+    }
+}
@@ -0,0 +1,71 @@
+package com.humanrsc.benchmarks;
+
+import com.humanrsc.datamodel.repo.EmployeeRepository;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.lang.invoke.MethodHandle;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Construcción del JPQL dinámico del listado de empleados (EmployeeRepository.buildFilterQuery).
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class FilterQueryBenchmark {
+
+    /** none: sin filtros; simple: status; full: todos los filtros del endpoint, con arrays y nivel. */
+    @Param({"none", "simple", "full"})
+    public String filterSet;
+
+    private MethodHandle buildFilterQuery;
+    private EmployeeRepository repository;
+    private Map<String, Object> filters;
+
+    @Setup
+    public void setup() {
+        repository = new EmployeeRepository();
+        buildFilterQuery = BenchmarkServices.privateMethod(EmployeeRepository.class, "buildFilterQuery",
+                String.class, Map.class, List.class);
+
+        filters = new LinkedHashMap<>();
+        switch (filterSet) {
+            case "simple" -> filters.put("status", "active");
+            case "full" -> {
+                filters.put("organizationalLevel", 2);
+                filters.put("status", new String[] {"active", "inactive"});
+                filters.put("employeeType", "employee");
+                filters.put("contractType", "full_time");
+                filters.put("currency", "EUR");
+                filters.put("firstName", "ana");
+                filters.put("lastName", "garc");
+                filters.put("email", new String[] {"a@x.com", "b@x.com", "c@x.com"});
+                filters.put("employeeId", "EMP-1");
+            }
+            default -> { }
+        }
+    }
+
+    @Benchmark
+    public String buildFilterQuery() throws Throwable {
+        List<Object> parameters = new ArrayList<>();
+        return (String) buildFilterQuery.invoke(repository, filters, parameters);
+    }
+}
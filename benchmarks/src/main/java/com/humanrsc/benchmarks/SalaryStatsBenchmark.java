@@ -0,0 +1,62 @@
+package com.humanrsc.benchmarks;
+
+import com.humanrsc.services.OrganizationService;
+import jakarta.persistence.EntityManager;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.lang.invoke.MethodHandle;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Estadísticas salariales en EUR (OrganizationService.getSalaryStats) sin pasar por StatsCache,
+ * es decir, el coste de cada miss: agregado por moneda + tasas vigentes + conversión.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class SalaryStatsBenchmark {
+
+    @Param({"1000", "10000"})
+    public int employees;
+
+    private BenchmarkDatabase database;
+    private EntityManager em;
+    private OrganizationService service;
+    private MethodHandle computeSalaryStats;
+
+    @Setup(Level.Trial)
+    public void setup() {
+        database = BenchmarkDatabase.start("salary_stats_" + employees);
+        database.seed(40, 5, employees);
+        em = database.openEntityManager();
+        service = BenchmarkServices.organizationService(em);
+        computeSalaryStats = BenchmarkServices.privateMethod(OrganizationService.class, "computeSalaryStats",
+                OrganizationService.SalaryStats.class);
+    }
+
+    @Benchmark
+    public OrganizationService.SalaryStats salaryStats() throws Throwable {
+        return (OrganizationService.SalaryStats) computeSalaryStats.invoke(service);
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        em.close();
+        database.close();
+    }
+}
@@ -0,0 +1,63 @@
+package com.humanrsc.benchmarks;
+
+import com.humanrsc.config.ThreadLocalStorage;
+import com.humanrsc.security.JwtTokenUtils;
+import io.smallrye.jwt.auth.principal.DefaultJWTCallerPrincipal;
+import org.jose4j.jwt.JwtClaims;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Resolución del tenant por request tal como la hace JWTSecurityInterceptor:
+ * JwtTokenUtils.extractTenantFromJWT sobre un token ya verificado y alta/baja en ThreadLocalStorage.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class TenantExtractionBenchmark {
+
+    /** namespaced: claim del Action de Auth0; email: sin claim de tenant, se deriva del dominio del email. */
+    @Param({"namespaced", "email"})
+    public String claimSource;
+
+    private JwtTokenUtils jwtTokenUtils;
+
+    @Setup
+    public void setup() throws Exception {
+        JwtClaims claims = new JwtClaims();
+        claims.setSubject("auth0|bench-user");
+        claims.setExpirationTimeMinutesInTheFuture(60);
+        claims.setClaim("email", "bench.user@Acme-Corp.example.com");
+        if ("namespaced".equals(claimSource)) {
+            claims.setClaim("https://hr-platform.api/tenant", "Acme Corp.");
+        }
+
+        jwtTokenUtils = new JwtTokenUtils();
+        BenchmarkServices.inject(jwtTokenUtils, "jwt", new DefaultJWTCallerPrincipal(claims));
+    }
+
+    @Benchmark
+    public String extractTenant() {
+        String tenantID = jwtTokenUtils.extractTenantFromJWT();
+        ThreadLocalStorage.setTenantID(tenantID);
+        try {
+            return ThreadLocalStorage.getTenantID();
+        } finally {
+            ThreadLocalStorage.clear();
+        }
+    }
+}
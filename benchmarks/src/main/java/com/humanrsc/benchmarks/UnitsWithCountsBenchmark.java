@@ -0,0 +1,75 @@
+package com.humanrsc.benchmarks;
+
+import com.humanrsc.datamodel.repo.OrganizationalUnitRepository;
+import com.humanrsc.services.OrganizationService;
+import jakarta.persistence.EntityManager;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.lang.invoke.MethodHandle;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Unidades activas con sus contadores para el organigrama
+ * (OrganizationalUnitRepository.getUnitsWithCounts + el mapeo que hace getOrganizationChart).
+ * Los rollups por subárbol usan la tabla de cierre (migración Flyway), que no existe en H2:
+ * el mapeo recibe un mapa vacío.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class UnitsWithCountsBenchmark {
+
+    @Param({"50", "500"})
+    public int units;
+
+    private BenchmarkDatabase database;
+    private EntityManager em;
+    private OrganizationalUnitRepository repository;
+    private OrganizationService service;
+    private MethodHandle mapToUnitWithCounts;
+
+    @Setup(Level.Trial)
+    public void setup() {
+        database = BenchmarkDatabase.start("units_with_counts_" + units);
+        database.seed(units, 4, units * 20);
+        em = database.openEntityManager();
+        repository = BenchmarkServices.organizationalUnitRepository(em);
+        service = BenchmarkServices.organizationService(em);
+        mapToUnitWithCounts = BenchmarkServices.privateMethod(OrganizationService.class, "mapToUnitWithCounts",
+                OrganizationService.UnitWithCounts.class, Object[].class, Map.class);
+    }
+
+    @Benchmark
+    public List<OrganizationService.UnitWithCounts> unitsWithCounts() throws Throwable {
+        List<Object[]> rows = repository.getUnitsWithCounts();
+        List<OrganizationService.UnitWithCounts> result = new ArrayList<>(rows.size());
+        for (Object[] row : rows) {
+            result.add((OrganizationService.UnitWithCounts) mapToUnitWithCounts.invoke(service, row, Map.of()));
+        }
+        return result;
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        em.close();
+        database.close();
+    }
+}
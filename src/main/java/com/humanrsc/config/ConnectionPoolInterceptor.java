@@ -5,45 +5,64 @@ import jakarta.inject.Inject;
 import jakarta.interceptor.AroundInvoke;
 import jakarta.interceptor.Interceptor;
 import jakarta.interceptor.InvocationContext;
-import org.hibernate.Session;
+import jakarta.transaction.Status;
+import jakarta.transaction.TransactionManager;
 import io.quarkus.logging.Log;
 
-import jakarta.persistence.EntityManager;
-import java.sql.PreparedStatement;
-
 /**
- * Interceptor para establecer el contexto del tenant en cada conexión de base de datos (misma conexión JPA)
+ * Interceptor que ejecuta cada llamada dentro de una única transacción (misma conexión JPA),
+ * de modo que el tenant se vincula una sola vez por request a través de TenantConnectionBinder.
+ * Si ya hay una transacción activa, se une a ella y solo comprueba el tenant vinculado.
  */
 @Interceptor
 @Priority(Interceptor.Priority.APPLICATION)
 @ConnectionPoolIntercepted
 public class ConnectionPoolInterceptor {
 
-    
+    @Inject
+    TransactionManager transactionManager;
 
     @Inject
-    EntityManager entityManager;
+    TenantConnectionBinder tenantConnectionBinder;
 
     @AroundInvoke
     public Object intercept(InvocationContext context) throws Exception {
         String tenantID = ThreadLocalStorage.getTenantID();
 
-        if (tenantID != null && !tenantID.trim().isEmpty()) {
-            try {
-                Session session = entityManager.unwrap(Session.class);
-                session.doWork(connection -> {
-                    try (PreparedStatement stmt = connection.prepareStatement(
-                        "SELECT set_config('app.current_tenant', ?, false)")) {
-                        stmt.setString(1, tenantID);
-                        stmt.execute();
-                        // LOG.debugf("Tenant context set in JPA connection: %s", tenantID);
-                    }
-                });
-            } catch (Exception e) {
-                Log.warnf("Could not set tenant context in JPA connection: %s", e.getMessage());
+        if (transactionManager.getStatus() != Status.STATUS_NO_TRANSACTION) {
+            if (tenantID != null && !tenantID.trim().isEmpty()) {
+                tenantConnectionBinder.bind(tenantID);
             }
+            return context.proceed();
         }
 
-        return context.proceed();
+        // El begin dispara TenantConnectionBinder, que hace el set_config de esta transacción
+        transactionManager.begin();
+        Object result;
+        try {
+            result = context.proceed();
+        } catch (Exception | Error e) {
+            rollbackQuietly();
+            throw e;
+        }
+
+        // Los servicios marcan rollback-only cuando fallan (y el reaper si vence el timeout en
+        // operaciones largas); el recurso ya habrá respondido, así que solo se confirma si sigue activa
+        if (transactionManager.getStatus() == Status.STATUS_ACTIVE) {
+            transactionManager.commit();
+        } else {
+            rollbackQuietly();
+        }
+        return result;
+    }
+
+    private void rollbackQuietly() {
+        try {
+            if (transactionManager.getStatus() != Status.STATUS_NO_TRANSACTION) {
+                transactionManager.rollback();
+            }
+        } catch (Exception e) {
+            Log.warnf("Could not roll back request transaction: %s", e.getMessage());
+        }
     }
 }
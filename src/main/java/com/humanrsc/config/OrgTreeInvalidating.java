@@ -0,0 +1,27 @@
+package com.humanrsc.config;
+
+import jakarta.enterprise.util.Nonbinding;
+import jakarta.interceptor.InterceptorBinding;
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+/**
+ * Anotación para marcar métodos que modifican datos del organigrama; OrgTreeInvalidationInterceptor
+ * marca como obsoleto el snapshot del tenant al terminar la transacción.
+ * STRUCTURE reconstruye el árbol entero, COUNTS sólo recalcula contadores y rollups sobre el árbol existente.
+ */
+@InterceptorBinding
+@Target({ElementType.TYPE, ElementType.METHOD})
+@Retention(RetentionPolicy.RUNTIME)
+public @interface OrgTreeInvalidating {
+
+    @Nonbinding
+    Scope value() default Scope.STRUCTURE;
+
+    enum Scope {
+        COUNTS,
+        STRUCTURE
+    }
+}
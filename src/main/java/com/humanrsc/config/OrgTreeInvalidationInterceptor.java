@@ -0,0 +1,88 @@
+package com.humanrsc.config;
+
+import com.humanrsc.services.OrgTreeCache;
+import jakarta.annotation.Priority;
+import jakarta.inject.Inject;
+import jakarta.interceptor.AroundInvoke;
+import jakarta.interceptor.Interceptor;
+import jakarta.interceptor.InvocationContext;
+import jakarta.transaction.Status;
+import jakarta.transaction.Synchronization;
+import jakarta.transaction.TransactionSynchronizationRegistry;
+
+/**
+ * Interceptor que marca el snapshot del organigrama del tenant como obsoleto cuando termina la
+ * transacción, con el alcance más amplio de los métodos llamados en ella.
+ * Sin transacción activa invalida inmediatamente.
+ */
+@Interceptor
+@Priority(Interceptor.Priority.APPLICATION)
+@OrgTreeInvalidating
+public class OrgTreeInvalidationInterceptor {
+
+    @Inject
+    OrgTreeCache orgTreeCache;
+
+    @Inject
+    TransactionSynchronizationRegistry synchronizationRegistry;
+
+    @AroundInvoke
+    public Object intercept(InvocationContext context) throws Exception {
+        String tenantID = ThreadLocalStorage.getTenantID();
+        try {
+            return context.proceed();
+        } finally {
+            if (tenantID != null) {
+                invalidate(tenantID, scopeOf(context));
+            }
+        }
+    }
+
+    private OrgTreeInvalidating.Scope scopeOf(InvocationContext context) {
+        OrgTreeInvalidating binding = context.getMethod().getAnnotation(OrgTreeInvalidating.class);
+        if (binding == null) {
+            binding = context.getMethod().getDeclaringClass().getAnnotation(OrgTreeInvalidating.class);
+        }
+        return binding != null ? binding.value() : OrgTreeInvalidating.Scope.STRUCTURE;
+    }
+
+    private void invalidate(String tenantID, OrgTreeInvalidating.Scope scope) {
+        if (synchronizationRegistry.getTransactionStatus() != Status.STATUS_ACTIVE
+                && synchronizationRegistry.getTransactionStatus() != Status.STATUS_MARKED_ROLLBACK) {
+            orgTreeCache.invalidate(tenantID, scope);
+            return;
+        }
+        // Una sola invalidación por transacción, con el alcance más amplio pedido
+        PendingInvalidation pending = (PendingInvalidation) synchronizationRegistry.getResource(OrgTreeInvalidationInterceptor.class);
+        if (pending != null) {
+            pending.widen(scope);
+            return;
+        }
+        PendingInvalidation created = new PendingInvalidation(scope);
+        synchronizationRegistry.putResource(OrgTreeInvalidationInterceptor.class, created);
+        synchronizationRegistry.registerInterposedSynchronization(new Synchronization() {
+            @Override
+            public void beforeCompletion() {
+            }
+
+            @Override
+            public void afterCompletion(int status) {
+                orgTreeCache.invalidate(tenantID, created.scope);
+            }
+        });
+    }
+
+    private static final class PendingInvalidation {
+        private OrgTreeInvalidating.Scope scope;
+
+        PendingInvalidation(OrgTreeInvalidating.Scope scope) {
+            this.scope = scope;
+        }
+
+        void widen(OrgTreeInvalidating.Scope other) {
+            if (other.compareTo(scope) > 0) {
+                scope = other;
+            }
+        }
+    }
+}
@@ -0,0 +1,17 @@
+package com.humanrsc.config;
+
+import jakarta.interceptor.InterceptorBinding;
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+/**
+ * Anotación para marcar métodos que modifican datos de los que dependen las estadísticas
+ * del dashboard; StatsInvalidationInterceptor invalida la caché del tenant al terminar la transacción
+ */
+@InterceptorBinding
+@Target({ElementType.TYPE, ElementType.METHOD})
+@Retention(RetentionPolicy.RUNTIME)
+public @interface StatsInvalidating {
+}
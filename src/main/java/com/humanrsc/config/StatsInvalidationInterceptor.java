@@ -0,0 +1,63 @@
+package com.humanrsc.config;
+
+import com.humanrsc.services.StatsCache;
+import jakarta.annotation.Priority;
+import jakarta.inject.Inject;
+import jakarta.interceptor.AroundInvoke;
+import jakarta.interceptor.Interceptor;
+import jakarta.interceptor.InvocationContext;
+import jakarta.transaction.Status;
+import jakarta.transaction.Synchronization;
+import jakarta.transaction.TransactionSynchronizationRegistry;
+
+/**
+ * Interceptor que invalida la caché de estadísticas del tenant cuando termina la transacción
+ * (commit o rollback), para que ninguna lectura concurrente vuelva a cachear datos anteriores.
+ * Sin transacción activa invalida inmediatamente.
+ */
+@Interceptor
+@Priority(Interceptor.Priority.APPLICATION)
+@StatsInvalidating
+public class StatsInvalidationInterceptor {
+
+    @Inject
+    StatsCache statsCache;
+
+    @Inject
+    TransactionSynchronizationRegistry synchronizationRegistry;
+
+    @AroundInvoke
+    public Object intercept(InvocationContext context) throws Exception {
+        String tenantID = ThreadLocalStorage.getTenantID();
+        try {
+            return context.proceed();
+        } finally {
+            if (tenantID != null) {
+                invalidate(tenantID);
+            }
+        }
+    }
+
+    private void invalidate(String tenantID) {
+        if (synchronizationRegistry.getTransactionStatus() != Status.STATUS_ACTIVE
+                && synchronizationRegistry.getTransactionStatus() != Status.STATUS_MARKED_ROLLBACK) {
+            statsCache.invalidateTenant(tenantID);
+            return;
+        }
+        // Una sola invalidación por transacción, aunque se llamen varios métodos de escritura
+        if (synchronizationRegistry.getResource(StatsInvalidationInterceptor.class) != null) {
+            return;
+        }
+        synchronizationRegistry.putResource(StatsInvalidationInterceptor.class, tenantID);
+        synchronizationRegistry.registerInterposedSynchronization(new Synchronization() {
+            @Override
+            public void beforeCompletion() {
+            }
+
+            @Override
+            public void afterCompletion(int status) {
+                statsCache.invalidateTenant(tenantID);
+            }
+        });
+    }
+}
@@ -0,0 +1,23 @@
+package com.humanrsc.config;
+
+import jakarta.transaction.TransactionScoped;
+
+import java.io.Serializable;
+
+/**
+ * Tenant ya vinculado a la conexión de la transacción en curso.
+ * Al ser @TransactionScoped, cada transacción (incluidas las REQUIRES_NEW) tiene su propia instancia.
+ */
+@TransactionScoped
+public class TenantBinding implements Serializable {
+
+    private String boundTenantID;
+
+    public String getBoundTenantID() {
+        return boundTenantID;
+    }
+
+    public void setBoundTenantID(String boundTenantID) {
+        this.boundTenantID = boundTenantID;
+    }
+}
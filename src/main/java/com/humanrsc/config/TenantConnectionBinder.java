@@ -0,0 +1,115 @@
+package com.humanrsc.config;
+
+import io.quarkus.logging.Log;
+import jakarta.enterprise.context.ApplicationScoped;
+import jakarta.enterprise.context.Initialized;
+import jakarta.enterprise.event.Observes;
+import jakarta.inject.Inject;
+import jakarta.persistence.EntityManager;
+import jakarta.transaction.Status;
+import jakarta.transaction.SystemException;
+import jakarta.transaction.TransactionManager;
+import jakarta.transaction.TransactionScoped;
+import org.eclipse.microprofile.metrics.MetricRegistry;
+import org.hibernate.Session;
+
+import java.sql.PreparedStatement;
+
+/**
+ * Vincula el tenant a la conexión JDBC una sola vez por transacción.
+ *
+ * Usa set_config(..., true): el valor es local a la transacción y PostgreSQL lo descarta en el
+ * commit/rollback, por lo que nunca queda pegado a una conexión devuelta al pool de Agroal.
+ */
+@ApplicationScoped
+public class TenantConnectionBinder {
+
+    static final String SET_CONFIG_CALLS = "tenant.set_config.calls";
+    static final String SET_CONFIG_SKIPPED = "tenant.set_config.skipped";
+    static final String SET_CONFIG_PER_REQUEST = "tenant.set_config.per_request";
+
+    private static final ThreadLocal<int[]> requestCalls = new ThreadLocal<>();
+
+    @Inject
+    EntityManager entityManager;
+
+    @Inject
+    TransactionManager transactionManager;
+
+    @Inject
+    TenantBinding tenantBinding;
+
+    @Inject
+    MetricRegistry metricRegistry;
+
+    /**
+     * Al comenzar cualquier transacción JTA se vincula el tenant del hilo actual
+     */
+    void onTransactionBegin(@Observes @Initialized(TransactionScoped.class) Object event) {
+        String tenantID = ThreadLocalStorage.getTenantID();
+        if (tenantID != null && !tenantID.trim().isEmpty()) {
+            bind(tenantID);
+        }
+    }
+
+    /**
+     * Vincula el tenant a la transacción activa; no hace nada si no hay transacción
+     * o si la conexión ya tiene ese tenant.
+     */
+    public void bind(String tenantID) {
+        if (!isTransactionActive()) {
+            return;
+        }
+        if (tenantID.equals(tenantBinding.getBoundTenantID())) {
+            metricRegistry.counter(SET_CONFIG_SKIPPED).inc();
+            return;
+        }
+
+        try {
+            Session session = entityManager.unwrap(Session.class);
+            session.doWork(connection -> {
+                try (PreparedStatement stmt = connection.prepareStatement(
+                    "SELECT set_config('app.current_tenant', ?, true)")) {
+                    stmt.setString(1, tenantID);
+                    stmt.execute();
+                }
+            });
+            tenantBinding.setBoundTenantID(tenantID);
+            metricRegistry.counter(SET_CONFIG_CALLS).inc();
+            int[] calls = requestCalls.get();
+            if (calls != null) {
+                calls[0]++;
+            }
+        } catch (Exception e) {
+            Log.warnf("Could not bind tenant %s to JPA connection: %s", tenantID, e.getMessage());
+        }
+    }
+
+    /**
+     * Empieza a contar las llamadas a set_config del request en curso
+     */
+    public void beginRequest() {
+        requestCalls.set(new int[1]);
+    }
+
+    /**
+     * Termina el conteo del request y lo publica en el histograma de métricas
+     */
+    public int endRequest() {
+        int[] calls = requestCalls.get();
+        requestCalls.remove();
+        if (calls == null) {
+            return 0;
+        }
+        metricRegistry.histogram(SET_CONFIG_PER_REQUEST).update(calls[0]);
+        return calls[0];
+    }
+
+    private boolean isTransactionActive() {
+        try {
+            return transactionManager.getStatus() == Status.STATUS_ACTIVE;
+        } catch (SystemException e) {
+            return false;
+        }
+    }
+}
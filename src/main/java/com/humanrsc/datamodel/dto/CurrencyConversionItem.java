@@ -0,0 +1,10 @@
+package com.humanrsc.datamodel.dto;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+
+/**
+ * One amount to convert in a batch conversion; {@code date} defaults to today.
+ */
+public record CurrencyConversionItem(BigDecimal amount, String fromCurrency, String toCurrency, LocalDate date) {
+}
@@ -0,0 +1,29 @@
+package com.humanrsc.datamodel.dto;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+
+/**
+ * Result of one item of a batch conversion, at the same position as the item in the request.
+ * Items that could not be converted have {@code error} set and no converted amount or rate.
+ */
+public record CurrencyConversionResult(int index,
+                                       BigDecimal originalAmount,
+                                       String fromCurrency,
+                                       BigDecimal convertedAmount,
+                                       String toCurrency,
+                                       LocalDate date,
+                                       BigDecimal rate,
+                                       String error) {
+
+    public static CurrencyConversionResult converted(int index, CurrencyConversionItem item, LocalDate date, BigDecimal rate) {
+        return new CurrencyConversionResult(index, item.amount(), item.fromCurrency(), item.amount().multiply(rate),
+                item.toCurrency(), date, rate, null);
+    }
+
+    public static CurrencyConversionResult failed(int index, CurrencyConversionItem item, LocalDate date, String error) {
+        return item == null
+                ? new CurrencyConversionResult(index, null, null, null, null, date, null, error)
+                : new CurrencyConversionResult(index, item.amount(), item.fromCurrency(), null, item.toCurrency(), date, null, error);
+    }
+}
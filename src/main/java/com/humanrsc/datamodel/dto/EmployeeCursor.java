@@ -0,0 +1,40 @@
+package com.humanrsc.datamodel.dto;
+
+import com.humanrsc.datamodel.entities.Employee;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Base64;
+
+/**
+ * Opaque keyset cursor for employee listings, positioned on (lastName, firstName, id).
+ * The wire format is URL-safe Base64 so clients must treat it as an opaque token.
+ */
+public record EmployeeCursor(String lastName, String firstName, String id) {
+
+    private static final String SEPARATOR = "\u0000";
+
+    public static EmployeeCursor of(Employee employee) {
+        return new EmployeeCursor(employee.getLastName(), employee.getFirstName(), employee.getObjectID().getId());
+    }
+
+    public String encode() {
+        String raw = lastName + SEPARATOR + firstName + SEPARATOR + id;
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(raw.getBytes(StandardCharsets.UTF_8));
+    }
+
+    /**
+     * @throws IllegalArgumentException if the token was not produced by {@link #encode()}
+     */
+    public static EmployeeCursor decode(String token) {
+        try {
+            String raw = new String(Base64.getUrlDecoder().decode(token), StandardCharsets.UTF_8);
+            String[] parts = raw.split(SEPARATOR, -1);
+            if (parts.length != 3) {
+                throw new IllegalArgumentException("Malformed cursor");
+            }
+            return new EmployeeCursor(parts[0], parts[1], parts[2]);
+        } catch (IllegalArgumentException e) {
+            throw new IllegalArgumentException("Invalid cursor: " + token, e);
+        }
+    }
+}
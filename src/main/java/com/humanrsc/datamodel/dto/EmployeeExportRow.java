@@ -0,0 +1,28 @@
+package com.humanrsc.datamodel.dto;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+
+/**
+ * Flat projection of an employee for bulk export; built directly by the query so no entity
+ * (nor its extended attributes) is ever materialized.
+ */
+public record EmployeeExportRow(
+    String id,
+    String employeeId,
+    String firstName,
+    String lastName,
+    String email,
+    LocalDate dateOfBirth,
+    String gender,
+    String nationalId,
+    String taxId,
+    String employeeType,
+    String contractType,
+    LocalDate hireDate,
+    LocalDate terminationDate,
+    BigDecimal currentSalary,
+    String currency,
+    String status
+) {
+}
@@ -0,0 +1,12 @@
+package com.humanrsc.datamodel.dto;
+
+/**
+ * One ranked result of the organization-wide search.
+ * {@code type} is employee, position or unit; {@code detail} is a secondary line (email, job code, cost center).
+ */
+public record OrganizationSearchHit(String type, String id, String label, String detail, double score) {
+
+    public static final String TYPE_EMPLOYEE = "employee";
+    public static final String TYPE_POSITION = "position";
+    public static final String TYPE_UNIT = "unit";
+}
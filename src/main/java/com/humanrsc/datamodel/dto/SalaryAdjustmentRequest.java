@@ -0,0 +1,32 @@
+package com.humanrsc.datamodel.dto;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.List;
+
+/**
+ * Bulk salary adjustment: {@code value} percent ({@link #TYPE_PERCENTAGE}) or a fixed amount in each
+ * employee's own currency ({@link #TYPE_FIXED}), negative to lower salaries.
+ *
+ * Applies to {@code employeeIds} when given, otherwise to the employees matching the filters
+ * (status defaults to active). With {@code dryRun} nothing is written and a preview is returned.
+ * {@code resumeAfterId} restarts a failed job after the last employee it committed
+ * ({@code lastCommittedId} of the job).
+ */
+public record SalaryAdjustmentRequest(String type,
+                                      BigDecimal value,
+                                      List<String> employeeIds,
+                                      String status,
+                                      String employeeType,
+                                      String contractType,
+                                      String currency,
+                                      Integer organizationalLevel,
+                                      LocalDate effectiveDate,
+                                      String reason,
+                                      String approvedById,
+                                      String resumeAfterId,
+                                      boolean dryRun) {
+
+    public static final String TYPE_PERCENTAGE = "percentage";
+    public static final String TYPE_FIXED = "fixed";
+}
@@ -12,10 +12,20 @@ import java.time.LocalDateTime;
 
 @Entity
 @Table(name = "employee_assignments", schema = "hr_app")
+// Las asociaciones son LAZY y el JSON sólo lleva sus ids; cada listado elige su fetch plan:
+// SUMMARY (historial de un empleado) no carga ninguna asociación, WITH_EMPLOYEE (asignaciones
+// vigentes, por unidad o por posición) trae el empleado en la misma query para mostrar su nombre.
+@NamedEntityGraphs({
+    @NamedEntityGraph(name = EmployeeAssignment.GRAPH_SUMMARY),
+    @NamedEntityGraph(name = EmployeeAssignment.GRAPH_WITH_EMPLOYEE, attributeNodes = @NamedAttributeNode("employee"))
+})
 @Getter
 @Setter
 public class EmployeeAssignment {
 
+    public static final String GRAPH_SUMMARY = "EmployeeAssignment.summary";
+    public static final String GRAPH_WITH_EMPLOYEE = "EmployeeAssignment.withEmployee";
+
     public static final String MOVEMENT_REASON_PROMOTION = "promotion";
     public static final String MOVEMENT_REASON_LATERAL_MOVE = "lateral_move";
     public static final String MOVEMENT_REASON_DEMOTION = "demotion";
@@ -30,7 +40,7 @@ public class EmployeeAssignment {
     @NotNull
     private ObjectID objectID;
 
-    @ManyToOne(fetch = FetchType.EAGER)
+    @ManyToOne(fetch = FetchType.LAZY)
     @JoinColumns({
         @JoinColumn(name = "employee_id", referencedColumnName = "id"),
         @JoinColumn(name = "employee_tenant_id", referencedColumnName = "tenant_id")
@@ -39,7 +49,7 @@ public class EmployeeAssignment {
     @com.fasterxml.jackson.annotation.JsonIgnore
     private Employee employee;
 
-    @ManyToOne(fetch = FetchType.EAGER)
+    @ManyToOne(fetch = FetchType.LAZY)
     @JoinColumns({
         @JoinColumn(name = "position_id", referencedColumnName = "id"),
         @JoinColumn(name = "position_tenant_id", referencedColumnName = "tenant_id")
@@ -47,7 +57,7 @@ public class EmployeeAssignment {
     @com.fasterxml.jackson.annotation.JsonIgnore
     private JobPosition position;
 
-    @ManyToOne(fetch = FetchType.EAGER)
+    @ManyToOne(fetch = FetchType.LAZY)
     @JoinColumns({
         @JoinColumn(name = "unit_id", referencedColumnName = "id"),
         @JoinColumn(name = "unit_tenant_id", referencedColumnName = "tenant_id")
@@ -55,7 +65,7 @@ public class EmployeeAssignment {
     @com.fasterxml.jackson.annotation.JsonIgnore
     private OrganizationalUnit unit;
 
-    @ManyToOne(fetch = FetchType.EAGER)
+    @ManyToOne(fetch = FetchType.LAZY)
     @JoinColumns({
         @JoinColumn(name = "manager_id", referencedColumnName = "id"),
         @JoinColumn(name = "manager_tenant_id", referencedColumnName = "tenant_id")
@@ -179,6 +189,12 @@ public class EmployeeAssignment {
         return manager != null ? manager.getObjectID().getId() : null;
     }
 
+    // Sólo si el fetch plan del endpoint cargó el empleado; nunca dispara una carga lazy
+    @com.fasterxml.jackson.annotation.JsonInclude(com.fasterxml.jackson.annotation.JsonInclude.Include.NON_NULL)
+    public String getEmployeeName() {
+        return employee != null && org.hibernate.Hibernate.isInitialized(employee) ? employee.getFullName() : null;
+    }
+
     @Override
     public String toString() {
         return "EMPLOYEE_ASSIGNMENT{" + objectID + ", employee='" + 
@@ -7,6 +7,7 @@ import jakarta.validation.constraints.NotBlank;
 import jakarta.validation.constraints.NotNull;
 import lombok.Getter;
 import lombok.Setter;
+import org.hibernate.annotations.BatchSize;
 import org.hibernate.envers.Audited;
 import org.hibernate.envers.NotAudited;
 
@@ -48,7 +49,7 @@ public class JobPosition {
     @Column(columnDefinition = "text")
     private String description;
 
-    @ManyToOne(fetch = FetchType.EAGER)
+    @ManyToOne(fetch = FetchType.LAZY)
     @JoinColumns({
         @JoinColumn(name = "unit_id", referencedColumnName = "id"),
         @JoinColumn(name = "unit_tenant_id", referencedColumnName = "tenant_id")
@@ -56,7 +57,7 @@ public class JobPosition {
     @com.fasterxml.jackson.annotation.JsonIgnore
     private OrganizationalUnit unit;
 
-    @ManyToOne(fetch = FetchType.EAGER)
+    @ManyToOne(fetch = FetchType.LAZY)
     @JoinColumns({
         @JoinColumn(name = "category_id", referencedColumnName = "id"),
         @JoinColumn(name = "category_tenant_id", referencedColumnName = "tenant_id")
@@ -85,6 +86,7 @@ public class JobPosition {
 
     @NotAudited
     @ElementCollection(fetch = FetchType.EAGER)
+    @BatchSize(size = 50)
     @CollectionTable(
         name = "job_positions_extended_attributes",
         schema = "hr_app",
@@ -0,0 +1,75 @@
+package com.humanrsc.datamodel.entities;
+
+import com.humanrsc.datamodel.enums.NotificationType;
+import jakarta.persistence.*;
+import jakarta.validation.constraints.NotBlank;
+import jakarta.validation.constraints.NotNull;
+import lombok.Getter;
+import lombok.Setter;
+
+import java.time.LocalDateTime;
+
+/**
+ * Notification waiting to be delivered (transactional outbox).
+ *
+ * Rows are written in the same transaction as the business change that triggers them and moved
+ * to {@link Notification} in batches by NotificationDispatcher, which deletes them once delivered.
+ * Like notifications, outbox rows are not audited. The numeric id gives the delivery order.
+ */
+@Entity
+@Table(name = "notification_outbox", schema = "hr_app")
+@Getter
+@Setter
+public class NotificationOutbox {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @NotBlank
+    @Column(name = "tenant_id", nullable = false)
+    private String tenantId;
+
+    @NotBlank
+    @Column(name = "user_id", nullable = false)
+    private String userId;
+
+    @NotNull
+    @Enumerated(EnumType.STRING)
+    @Column(name = "type", nullable = false, length = 50)
+    private NotificationType type;
+
+    @NotBlank
+    @Column(name = "title", nullable = false)
+    private String title;
+
+    @NotBlank
+    @Column(name = "message", nullable = false, columnDefinition = "TEXT")
+    private String message;
+
+    @Column(name = "entity_type", length = 100)
+    private String entityType;
+
+    @Column(name = "entity_id")
+    private String entityId;
+
+    @NotNull
+    @Column(name = "created_at", nullable = false, updatable = false)
+    private LocalDateTime createdAt;
+
+    /**
+     * Failed delivery attempts; rows reaching app.notifications.outbox.max-attempts are no longer picked up
+     */
+    @Column(name = "attempts", nullable = false)
+    private int attempts;
+
+    @Column(name = "last_error", columnDefinition = "TEXT")
+    private String lastError;
+
+    @PrePersist
+    protected void onCreate() {
+        if (createdAt == null) {
+            createdAt = LocalDateTime.now();
+        }
+    }
+}
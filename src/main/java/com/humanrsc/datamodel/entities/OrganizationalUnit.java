@@ -7,6 +7,7 @@ import jakarta.validation.constraints.NotBlank;
 import jakarta.validation.constraints.NotNull;
 import lombok.Getter;
 import lombok.Setter;
+import org.hibernate.annotations.BatchSize;
 import org.hibernate.envers.Audited;
 import org.hibernate.envers.NotAudited;
 import java.time.LocalDateTime;
@@ -47,7 +48,7 @@ public class OrganizationalUnit {
     @Column(columnDefinition = "text")
     private String description;
 
-    @ManyToOne(fetch = FetchType.EAGER)
+    @ManyToOne(fetch = FetchType.LAZY)
     @JoinColumns({
         @JoinColumn(name = "parent_unit_id", referencedColumnName = "id"),
         @JoinColumn(name = "parent_unit_tenant_id", referencedColumnName = "tenant_id")
@@ -82,6 +83,7 @@ public class OrganizationalUnit {
 
     @NotAudited
     @ElementCollection(fetch = FetchType.EAGER)
+    @BatchSize(size = 50)
     @CollectionTable(
         name = "organizational_units_extended_attributes",
         schema = "hr_app",
@@ -21,7 +21,7 @@ public class SalaryHistory {
     @NotNull
     private ObjectID objectID;
 
-    @ManyToOne(fetch = FetchType.EAGER)
+    @ManyToOne(fetch = FetchType.LAZY)
     @JoinColumns({
         @JoinColumn(name = "employee_id", referencedColumnName = "id"),
         @JoinColumn(name = "employee_tenant_id", referencedColumnName = "tenant_id")
@@ -47,7 +47,7 @@ public class SalaryHistory {
     @Column(columnDefinition = "text")
     private String reason;
 
-    @ManyToOne(fetch = FetchType.EAGER)
+    @ManyToOne(fetch = FetchType.LAZY)
     @JoinColumns({
         @JoinColumn(name = "approved_by", referencedColumnName = "id"),
         @JoinColumn(name = "approved_by_tenant_id", referencedColumnName = "tenant_id")
@@ -58,6 +58,14 @@ public class SalaryHistory {
     @Column(name = "date_created", nullable = false)
     private LocalDateTime dateCreated;
 
+    /**
+     * new_salary - old_salary, generated by the database (V1.15.0) and indexed for rankings and
+     * analytics; only meaningful once read back from the database, use getSalaryIncrease() otherwise
+     */
+    @Column(name = "increase_amount", precision = 15, scale = 2, insertable = false, updatable = false)
+    @com.fasterxml.jackson.annotation.JsonIgnore
+    private BigDecimal increaseAmount;
+
     public SalaryHistory() {
         this.dateCreated = LocalDateTime.now();
     }
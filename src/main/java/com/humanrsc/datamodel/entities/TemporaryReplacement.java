@@ -24,7 +24,7 @@ public class TemporaryReplacement {
     @NotNull
     private ObjectID objectID;
 
-    @ManyToOne(fetch = FetchType.EAGER)
+    @ManyToOne(fetch = FetchType.LAZY)
     @JoinColumns({
         @JoinColumn(name = "original_employee_id", referencedColumnName = "id"),
         @JoinColumn(name = "original_employee_tenant_id", referencedColumnName = "tenant_id")
@@ -33,7 +33,7 @@ public class TemporaryReplacement {
     @com.fasterxml.jackson.annotation.JsonIgnore
     private Employee originalEmployee;
 
-    @ManyToOne(fetch = FetchType.EAGER)
+    @ManyToOne(fetch = FetchType.LAZY)
     @JoinColumns({
         @JoinColumn(name = "replacement_employee_id", referencedColumnName = "id"),
         @JoinColumn(name = "replacement_employee_tenant_id", referencedColumnName = "tenant_id")
@@ -42,7 +42,7 @@ public class TemporaryReplacement {
     @com.fasterxml.jackson.annotation.JsonIgnore
     private Employee replacementEmployee;
 
-    @ManyToOne(fetch = FetchType.EAGER)
+    @ManyToOne(fetch = FetchType.LAZY)
     @JoinColumns({
         @JoinColumn(name = "position_id", referencedColumnName = "id"),
         @JoinColumn(name = "position_tenant_id", referencedColumnName = "tenant_id")
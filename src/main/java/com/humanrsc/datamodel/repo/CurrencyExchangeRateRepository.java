@@ -4,7 +4,6 @@ import com.humanrsc.datamodel.abstraction.ObjectID;
 import com.humanrsc.datamodel.entities.CurrencyExchangeRate;
 import io.quarkus.hibernate.orm.panache.PanacheRepositoryBase;
 import jakarta.enterprise.context.ApplicationScoped;
-import java.math.BigDecimal;
 import java.time.LocalDate;
 import java.util.List;
 import java.util.Optional;
@@ -59,6 +58,13 @@ public class CurrencyExchangeRateRepository implements PanacheRepositoryBase<Cur
                    CurrencyExchangeRate.STATUS_ACTIVE, date, date).list();
     }
 
+    /**
+     * Every active rate of the tenant, whatever its dates (source of ExchangeRateCache)
+     */
+    public List<CurrencyExchangeRate> findActiveRates() {
+        return list("status = ?1", CurrencyExchangeRate.STATUS_ACTIVE);
+    }
+
     // Count methods - RLS filters by tenant automatically
     
     public long countByStatus(String status) {
@@ -86,32 +92,4 @@ public class CurrencyExchangeRateRepository implements PanacheRepositoryBase<Cur
         return count("fromCurrency = ?1 and toCurrency = ?2 and status = ?3 and effectiveDate <= ?4 and (expiryDate is null or expiryDate > ?5)", 
                     fromCurrency, toCurrency, CurrencyExchangeRate.STATUS_ACTIVE, today, today) > 0;
     }
-
-    // Utility methods for conversion
-    
-    public BigDecimal convertAmount(BigDecimal amount, String fromCurrency, String toCurrency) {
-        if (amount == null || fromCurrency == null || toCurrency == null) {
-            return BigDecimal.ZERO;
-        }
-        
-        if (fromCurrency.equals(toCurrency)) {
-            return amount;
-        }
-        
-        Optional<CurrencyExchangeRate> rate = findValidRate(fromCurrency, toCurrency);
-        return rate.map(r -> r.convert(amount)).orElse(BigDecimal.ZERO);
-    }
-
-    public BigDecimal convertAmount(BigDecimal amount, String fromCurrency, String toCurrency, LocalDate date) {
-        if (amount == null || fromCurrency == null || toCurrency == null) {
-            return BigDecimal.ZERO;
-        }
-        
-        if (fromCurrency.equals(toCurrency)) {
-            return amount;
-        }
-        
-        Optional<CurrencyExchangeRate> rate = findValidRate(fromCurrency, toCurrency, date);
-        return rate.map(r -> r.convert(amount)).orElse(BigDecimal.ZERO);
-    }
 }
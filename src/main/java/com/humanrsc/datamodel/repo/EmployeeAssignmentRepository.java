@@ -2,8 +2,12 @@ package com.humanrsc.datamodel.repo;
 
 import com.humanrsc.datamodel.abstraction.ObjectID;
 import com.humanrsc.datamodel.entities.EmployeeAssignment;
+import io.quarkus.hibernate.orm.panache.PanacheQuery;
 import io.quarkus.hibernate.orm.panache.PanacheRepositoryBase;
+import io.quarkus.panache.common.Page;
 import jakarta.enterprise.context.ApplicationScoped;
+import jakarta.persistence.EntityGraph;
+import org.hibernate.jpa.SpecHints;
 import java.util.List;
 import java.util.Optional;
 
@@ -23,7 +27,9 @@ public class EmployeeAssignmentRepository implements PanacheRepositoryBase<Emplo
     // Query methods used by OrganizationService - RLS filters by tenant automatically
     
     public List<EmployeeAssignment> findByEmployee(String employeeId) {
-        return find("employee.objectID.id = ?1 order by startDate desc", employeeId).list();
+        return find("employee.objectID.id = ?1 order by startDate desc", employeeId)
+                .withHint(SpecHints.HINT_SPEC_FETCH_GRAPH, graph(EmployeeAssignment.GRAPH_SUMMARY))
+                .list();
     }
 
     public Optional<EmployeeAssignment> findCurrentByEmployee(String employeeId) {
@@ -31,6 +37,30 @@ public class EmployeeAssignmentRepository implements PanacheRepositoryBase<Emplo
                 .firstResultOptional();
     }
 
+    // Manager of the employee's latest current assignment, without loading any entity
+    public Optional<String> findCurrentManagerId(String employeeId) {
+        return getEntityManager().createQuery(
+                "select a.manager.objectID.id from EmployeeAssignment a where a.employee.objectID.id = :employee"
+                + " and a.endDate is null and a.manager is not null order by a.startDate desc", String.class)
+            .setParameter("employee", employeeId)
+            .setMaxResults(1)
+            .getResultStream()
+            .findFirst();
+    }
+
+    // Same as findCurrentManagerId for several employees in one query; employees without manager are absent
+    public java.util.Map<String, String> findCurrentManagerIds(java.util.Collection<String> employeeIds) {
+        java.util.Map<String, String> managers = new java.util.HashMap<>();
+        getEntityManager().createQuery(
+                "select a.employee.objectID.id, a.manager.objectID.id from EmployeeAssignment a"
+                + " where a.employee.objectID.id in :employees and a.endDate is null and a.manager is not null"
+                + " order by a.startDate desc", Object[].class)
+            .setParameter("employees", employeeIds)
+            .getResultList()
+            .forEach(row -> managers.putIfAbsent((String) row[0], (String) row[1]));
+        return managers;
+    }
+
     public List<EmployeeAssignment> findByPosition(String positionId) {
         return find("position.objectID.id = ?1 order by startDate desc", positionId).list();
     }
@@ -43,12 +73,34 @@ public class EmployeeAssignmentRepository implements PanacheRepositoryBase<Emplo
         return find("manager.objectID.id = ?1 order by startDate desc", managerId).list();
     }
 
-    // Additional useful methods - RLS filters by tenant automatically
-    
-    public List<EmployeeAssignment> findCurrentAssignments() {
-        return find("endDate is null order by startDate desc").list();
+    // Current assignments with their employee loaded in the same query (listing endpoints)
+
+    public List<EmployeeAssignment> findCurrentAssignments(int page, int size) {
+        return withEmployee(find("endDate is null order by startDate desc, objectID.id"), page, size);
+    }
+
+    public List<EmployeeAssignment> findCurrentByUnit(String unitId, int page, int size) {
+        return withEmployee(find("unit.objectID.id = ?1 and endDate is null order by startDate desc, objectID.id",
+                unitId), page, size);
     }
 
+    public List<EmployeeAssignment> findCurrentByPosition(String positionId, int page, int size) {
+        return withEmployee(find("position.objectID.id = ?1 and endDate is null order by startDate desc, objectID.id",
+                positionId), page, size);
+    }
+
+    private List<EmployeeAssignment> withEmployee(PanacheQuery<EmployeeAssignment> query, int page, int size) {
+        return query.withHint(SpecHints.HINT_SPEC_LOAD_GRAPH, graph(EmployeeAssignment.GRAPH_WITH_EMPLOYEE))
+                .page(Page.of(page, size))
+                .list();
+    }
+
+    private EntityGraph<?> graph(String name) {
+        return getEntityManager().getEntityGraph(name);
+    }
+
+    // Additional useful methods - RLS filters by tenant automatically
+
     public List<EmployeeAssignment> findHistoricalAssignments() {
         return find("endDate is not null order by startDate desc").list();
     }
@@ -1,10 +1,16 @@
 package com.humanrsc.datamodel.repo;
 
 import com.humanrsc.datamodel.abstraction.ObjectID;
+import com.humanrsc.datamodel.dto.EmployeeCursor;
+import com.humanrsc.datamodel.dto.EmployeeExportRow;
 import com.humanrsc.datamodel.entities.Employee;
 import io.quarkus.hibernate.orm.panache.PanacheRepositoryBase;
 import jakarta.enterprise.context.ApplicationScoped;
 import jakarta.transaction.Transactional;
+import org.hibernate.ScrollMode;
+import org.hibernate.ScrollableResults;
+import org.hibernate.Session;
+import org.hibernate.query.SelectionQuery;
 
 import java.time.LocalDate;
 import java.util.List;
@@ -71,6 +77,29 @@ public class EmployeeRepository implements PanacheRepositoryBase<Employee, Objec
         return count("email = ?1", email) > 0;
     }
 
+    /**
+     * Existing employees clashing with any of the given employee IDs or emails, in one query.
+     * Used by the bulk import to check uniqueness for a whole chunk at once.
+     */
+    public List<EmployeeIdentity> findIdentityConflicts(java.util.Collection<String> employeeIds, 
+                                                        java.util.Collection<String> emails) {
+        if (employeeIds.isEmpty() && emails.isEmpty()) {
+            return List.of();
+        }
+        return getEntityManager()
+               .createQuery("select e.employeeId, e.email, e.status, e.terminationDate from Employee e " +
+                           "where e.employeeId in ?1 or e.email in ?2", Object[].class)
+               .setParameter(1, employeeIds.isEmpty() ? List.of("") : employeeIds)
+               .setParameter(2, emails.isEmpty() ? List.of("") : emails)
+               .getResultList()
+               .stream()
+               .map(row -> new EmployeeIdentity((String) row[0], (String) row[1], (String) row[2], (LocalDate) row[3]))
+               .toList();
+    }
+
+    public record EmployeeIdentity(String employeeId, String email, String status, LocalDate terminationDate) {
+    }
+
     // Business logic methods - RLS filters by tenant automatically
     
     public long countByCurrentPosition(ObjectID positionObjectID) {
@@ -83,14 +112,12 @@ public class EmployeeRepository implements PanacheRepositoryBase<Employee, Objec
     // Salary statistics - RLS filters by tenant automatically
     
     public java.math.BigDecimal getAverageSalary() {
-        return find("status = ?1 and currentSalary is not null", Employee.STATUS_ACTIVE)
-               .stream()
-               .mapToDouble(e -> e.getCurrentSalary().doubleValue())
-               .average()
-               .stream()
-               .mapToObj(avg -> java.math.BigDecimal.valueOf(avg))
-               .findFirst()
-               .orElse(java.math.BigDecimal.ZERO);
+        Double avg = getEntityManager()
+               .createQuery("select avg(e.currentSalary) from Employee e " +
+                           "where e.status = ?1 and e.currentSalary is not null", Double.class)
+               .setParameter(1, Employee.STATUS_ACTIVE)
+               .getSingleResult();
+        return avg != null ? java.math.BigDecimal.valueOf(avg) : java.math.BigDecimal.ZERO;
     }
 
     public java.math.BigDecimal getMaxSalary() {
@@ -110,21 +137,17 @@ public class EmployeeRepository implements PanacheRepositoryBase<Employee, Objec
     }
 
     public java.math.BigDecimal getTotalSalaryBudget() {
-        return find("status = ?1 and currentSalary is not null", Employee.STATUS_ACTIVE)
-               .stream()
-               .map(Employee::getCurrentSalary)
-               .reduce(java.math.BigDecimal.ZERO, java.math.BigDecimal::add);
+        java.math.BigDecimal total = getEntityManager()
+               .createQuery("select sum(e.currentSalary) from Employee e " +
+                           "where e.status = ?1 and e.currentSalary is not null", java.math.BigDecimal.class)
+               .setParameter(1, Employee.STATUS_ACTIVE)
+               .getSingleResult();
+        return total != null ? total : java.math.BigDecimal.ZERO;
     }
 
     public String getPrimaryCurrency() {
         // Get the most common currency among active employees with salary
-        return find("status = ?1 and currentSalary is not null", Employee.STATUS_ACTIVE)
-               .stream()
-               .map(Employee::getCurrency)
-               .collect(java.util.stream.Collectors.groupingBy(
-                   currency -> currency, 
-                   java.util.stream.Collectors.counting()
-               ))
+        return getCurrencyDistribution()
                .entrySet()
                .stream()
                .max(java.util.Map.Entry.comparingByValue())
@@ -134,13 +157,168 @@ public class EmployeeRepository implements PanacheRepositoryBase<Employee, Objec
 
     public java.util.Map<String, Long> getCurrencyDistribution() {
         // Get distribution of currencies among active employees with salary
-        return find("status = ?1 and currentSalary is not null", Employee.STATUS_ACTIVE)
+        java.util.Map<String, Long> distribution = new java.util.HashMap<>();
+        for (SalaryAggregate aggregate : getSalaryAggregatesByCurrency()) {
+            distribution.put(aggregate.currency(), aggregate.employeeCount());
+        }
+        return distribution;
+    }
+
+    /**
+     * Aggregates the salaries of active employees per currency in a single grouped query,
+     * so callers never have to materialize the employees themselves.
+     */
+    public List<SalaryAggregate> getSalaryAggregatesByCurrency() {
+        return getEntityManager()
+               .createQuery("select e.currency, count(e), sum(e.currentSalary), max(e.currentSalary), min(e.currentSalary) " +
+                           "from Employee e where e.status = ?1 and e.currentSalary is not null " +
+                           "group by e.currency", Object[].class)
+               .setParameter(1, Employee.STATUS_ACTIVE)
+               .getResultList()
                .stream()
-               .map(Employee::getCurrency)
-               .collect(java.util.stream.Collectors.groupingBy(
-                   currency -> currency, 
-                   java.util.stream.Collectors.counting()
-               ));
+               .map(row -> new SalaryAggregate(
+                   (String) row[0],
+                   ((Number) row[1]).longValue(),
+                   (java.math.BigDecimal) row[2],
+                   (java.math.BigDecimal) row[3],
+                   (java.math.BigDecimal) row[4]))
+               .toList();
+    }
+
+    public record SalaryAggregate(String currency, long employeeCount, java.math.BigDecimal totalSalary,
+                                  java.math.BigDecimal maxSalary, java.math.BigDecimal minSalary) {
+    }
+
+    // Empleados con asignación vigente (end_date is null) - RLS filters by tenant automatically.
+    // EXISTS evita duplicados sin DISTINCT y usa los índices parciales de V1.9.0
+
+    public List<Employee> findCurrentByManager(String managerId, int page, int size) {
+        return findWithCurrentAssignment("manager", managerId, page, size);
+    }
+
+    public List<Employee> findCurrentByUnit(String unitId, int page, int size) {
+        return findWithCurrentAssignment("unit", unitId, page, size);
+    }
+
+    public List<Employee> findCurrentByPosition(String positionId, int page, int size) {
+        return findWithCurrentAssignment("position", positionId, page, size);
+    }
+
+    private List<Employee> findWithCurrentAssignment(String association, String id, int page, int size) {
+        String query = "from Employee e where exists (select 1 from EmployeeAssignment a"
+                + " where a.employee = e and a." + association + ".objectID.id = ?1 and a.endDate is null)"
+                + " order by e.lastName, e.firstName, e.objectID.id";
+        return find(query, id)
+               .page(io.quarkus.panache.common.Page.of(page, size))
+               .list();
+    }
+
+    // Reporting graph: current manager links only (employee_assignments with end_date IS NULL).
+    // UNION deduplicates (employee, depth) pairs and the depth cap bounds any cycle in the data.
+    private static final String TRANSITIVE_REPORTS = """
+        WITH RECURSIVE reports(tenant_id, employee_id, depth) AS (
+            SELECT ea.tenant_id, ea.employee_id, 1
+              FROM hr_app.employee_assignments ea
+             WHERE ea.manager_id = :manager AND ea.end_date IS NULL
+            UNION
+            SELECT ea.tenant_id, ea.employee_id, r.depth + 1
+              FROM reports r
+              JOIN hr_app.employee_assignments ea
+                ON ea.tenant_id = r.tenant_id AND ea.manager_id = r.employee_id AND ea.end_date IS NULL
+             WHERE r.depth < :maxDepth
+        ),
+        nearest AS (
+            SELECT tenant_id, employee_id, MIN(depth) AS depth
+              FROM reports
+             WHERE employee_id <> :manager
+             GROUP BY tenant_id, employee_id
+        )
+        """;
+
+    /**
+     * Everyone who reports to the manager directly or indirectly, closest levels first
+     * (then last name, first name). {@code maxDepth} is the number of levels walked down.
+     */
+    public List<Employee> findTransitiveReports(String managerId, int maxDepth, int page, int size) {
+        @SuppressWarnings("unchecked")
+        List<Employee> result = getEntityManager().createNativeQuery(TRANSITIVE_REPORTS + """
+            SELECT e.* FROM nearest n
+              JOIN hr_app.employees e ON e.id = n.employee_id AND e.tenant_id = n.tenant_id
+             ORDER BY n.depth, e.last_name, e.first_name, e.id
+             LIMIT :limit OFFSET :offset
+            """, Employee.class)
+            .setParameter("manager", managerId)
+            .setParameter("maxDepth", maxDepth)
+            .setParameter("limit", size)
+            .setParameter("offset", page * size)
+            .getResultList();
+        return result;
+    }
+
+    public long countTransitiveReports(String managerId, int maxDepth) {
+        Number count = (Number) getEntityManager().createNativeQuery(TRANSITIVE_REPORTS + "SELECT COUNT(*) FROM nearest")
+            .setParameter("manager", managerId)
+            .setParameter("maxDepth", maxDepth)
+            .getSingleResult();
+        return count.longValue();
+    }
+
+    /**
+     * Managers above the employee, from the direct manager up to the top. With several current
+     * assignments every manager is included once, at its shortest distance.
+     */
+    public List<Employee> findManagementChain(String employeeId, int maxDepth) {
+        @SuppressWarnings("unchecked")
+        List<Employee> result = getEntityManager().createNativeQuery("""
+            WITH RECURSIVE chain(tenant_id, manager_id, depth) AS (
+                SELECT ea.tenant_id, ea.manager_id, 1
+                  FROM hr_app.employee_assignments ea
+                 WHERE ea.employee_id = :employee AND ea.end_date IS NULL AND ea.manager_id IS NOT NULL
+                UNION
+                SELECT ea.tenant_id, ea.manager_id, c.depth + 1
+                  FROM chain c
+                  JOIN hr_app.employee_assignments ea
+                    ON ea.tenant_id = c.tenant_id AND ea.employee_id = c.manager_id
+                   AND ea.end_date IS NULL AND ea.manager_id IS NOT NULL
+                 WHERE c.depth < :maxDepth
+            ),
+            nearest AS (
+                SELECT tenant_id, manager_id, MIN(depth) AS depth
+                  FROM chain
+                 WHERE manager_id <> :employee
+                 GROUP BY tenant_id, manager_id
+            )
+            SELECT e.* FROM nearest n
+              JOIN hr_app.employees e ON e.id = n.manager_id AND e.tenant_id = n.tenant_id
+             ORDER BY n.depth, e.last_name, e.first_name, e.id
+            """, Employee.class)
+            .setParameter("employee", employeeId)
+            .setParameter("maxDepth", maxDepth)
+            .getResultList();
+        return result;
+    }
+
+    /**
+     * Span of control histogram: for each number of direct reports, how many managers have it
+     */
+    public List<SpanOfControlBucket> getSpanOfControlDistribution() {
+        @SuppressWarnings("unchecked")
+        List<Object[]> rows = getEntityManager().createNativeQuery("""
+            SELECT s.reports, COUNT(*) FROM (
+                SELECT ea.manager_id, COUNT(DISTINCT ea.employee_id) AS reports
+                  FROM hr_app.employee_assignments ea
+                 WHERE ea.end_date IS NULL AND ea.manager_id IS NOT NULL
+                 GROUP BY ea.tenant_id, ea.manager_id
+            ) s
+             GROUP BY s.reports
+             ORDER BY s.reports
+            """).getResultList();
+        return rows.stream()
+            .map(row -> new SpanOfControlBucket(((Number) row[0]).intValue(), ((Number) row[1]).longValue()))
+            .toList();
+    }
+
+    public record SpanOfControlBucket(int directReports, long managers) {
     }
 
     // Dynamic filtering methods - RLS handles tenant filtering automatically
@@ -168,8 +346,128 @@ public class EmployeeRepository implements PanacheRepositoryBase<Employee, Objec
         return count(query, parameters.toArray());
     }
     
+    /**
+     * Keyset page: the next {@code size} employees strictly after the cursor in
+     * (lastName, firstName, id) order. A null cursor starts from the beginning.
+     */
+    public List<Employee> findWithFiltersAfter(java.util.Map<String, Object> filters, EmployeeCursor after, int size) {
+        java.util.List<Object> parameters = new java.util.ArrayList<>();
+        StringBuilder query = new StringBuilder(buildFilterConditions(filters, parameters));
+        
+        if (after != null) {
+            int next = parameters.size() + 1;
+            query.append(" and (lastName, firstName, objectID.id) > (?").append(next)
+                 .append(", ?").append(next + 1)
+                 .append(", ?").append(next + 2).append(")");
+            parameters.add(after.lastName());
+            parameters.add(after.firstName());
+            parameters.add(after.id());
+        }
+        query.append(" order by lastName, firstName, objectID.id");
+        
+        return find(query.toString(), parameters.toArray())
+               .range(0, size - 1)
+               .list();
+    }
+    
+    /**
+     * Forward-only cursor over the export projection, in (lastName, firstName, id) order.
+     * Must be consumed inside a transaction so the driver can stream with the given fetch size.
+     */
+    public ScrollableResults<EmployeeExportRow> scrollForExport(java.util.Map<String, Object> filters, int fetchSize) {
+        java.util.List<Object> parameters = new java.util.ArrayList<>();
+        String conditions = buildFilterConditions(filters, parameters);
+        
+        SelectionQuery<EmployeeExportRow> query = getEntityManager().unwrap(Session.class)
+               .createSelectionQuery("select new com.humanrsc.datamodel.dto.EmployeeExportRow(" +
+                                     "objectID.id, employeeId, firstName, lastName, email, dateOfBirth, gender, " +
+                                     "nationalId, taxId, employeeType, contractType, hireDate, terminationDate, " +
+                                     "currentSalary, currency, status) " +
+                                     "from Employee where " + conditions + 
+                                     " order by lastName, firstName, objectID.id", EmployeeExportRow.class);
+        for (int i = 0; i < parameters.size(); i++) {
+            query.setParameter(i + 1, parameters.get(i));
+        }
+        
+        return query.setFetchSize(fetchSize)
+                    .setReadOnly(true)
+                    .scroll(ScrollMode.FORWARD_ONLY);
+    }
+    
+    /**
+     * What a bulk salary adjustment needs of each matching employee, in id order
+     */
+    public record SalaryTarget(String id, String employeeId, String firstName, String lastName,
+                               java.math.BigDecimal currentSalary, String currency) {
+    }
+
+    /**
+     * Next {@code size} employees with a salary after {@code afterId} (keyset on id), matching the
+     * filters or, when {@code employeeIds} is given, only those employees.
+     */
+    public List<SalaryTarget> findSalaryTargetsAfter(java.util.Map<String, Object> filters,
+                                                     java.util.Collection<String> employeeIds,
+                                                     String afterId, int size) {
+        java.util.List<Object> parameters = new java.util.ArrayList<>();
+        String conditions = buildSalaryTargetConditions(filters, employeeIds, afterId, parameters);
+
+        var query = getEntityManager().createQuery(
+                "select objectID.id, employeeId, firstName, lastName, currentSalary, currency " +
+                "from Employee where " + conditions + " order by objectID.id", Object[].class);
+        for (int i = 0; i < parameters.size(); i++) {
+            query.setParameter(i + 1, parameters.get(i));
+        }
+        return query.setMaxResults(size)
+               .getResultList()
+               .stream()
+               .map(row -> new SalaryTarget(
+                   (String) row[0],
+                   (String) row[1],
+                   (String) row[2],
+                   (String) row[3],
+                   (java.math.BigDecimal) row[4],
+                   (String) row[5]))
+               .toList();
+    }
+
+    public long countSalaryTargets(java.util.Map<String, Object> filters, java.util.Collection<String> employeeIds,
+                                   String afterId) {
+        java.util.List<Object> parameters = new java.util.ArrayList<>();
+        return count(buildSalaryTargetConditions(filters, employeeIds, afterId, parameters), parameters.toArray());
+    }
+
+    /**
+     * The given employees locked for update, in id order so concurrent writers lock them in the same order
+     */
+    public List<Employee> findByIdsForUpdate(java.util.Collection<String> ids) {
+        return find("objectID.id in ?1 order by objectID.id", ids)
+               .withLock(jakarta.persistence.LockModeType.PESSIMISTIC_WRITE)
+               .list();
+    }
+
+    private String buildSalaryTargetConditions(java.util.Map<String, Object> filters,
+                                               java.util.Collection<String> employeeIds,
+                                               String afterId,
+                                               java.util.List<Object> parameters) {
+        StringBuilder conditions = new StringBuilder(buildFilterConditions(filters, parameters));
+        conditions.append(" and currentSalary is not null");
+        if (employeeIds != null) {
+            conditions.append(" and objectID.id in ?").append(parameters.size() + 1);
+            parameters.add(employeeIds);
+        }
+        if (afterId != null) {
+            conditions.append(" and objectID.id > ?").append(parameters.size() + 1);
+            parameters.add(afterId);
+        }
+        return conditions.toString();
+    }
+
     // Helper method to build filter query - no tenant filtering needed (RLS handles it)
     private String buildFilterQuery(java.util.Map<String, Object> filters, java.util.List<Object> parameters) {
+        return buildFilterConditions(filters, parameters) + " order by lastName, firstName";
+    }
+    
+    private String buildFilterConditions(java.util.Map<String, Object> filters, java.util.List<Object> parameters) {
         StringBuilder queryBuilder = new StringBuilder();
         boolean firstCondition = true;
         
@@ -250,7 +548,6 @@ public class EmployeeRepository implements PanacheRepositoryBase<Employee, Objec
             queryBuilder.append("1 = 1");
         }
         
-        queryBuilder.append(" order by lastName, firstName");
         return queryBuilder.toString();
     }
     
@@ -136,12 +136,19 @@ public class JobPositionRepository implements PanacheRepositoryBase<JobPosition,
 
     // Business logic methods - RLS filters by tenant automatically
     
-    public List<JobPosition> findVacantPositions() {
-        // Find positions that don't have current employee assignments
-        return find("status = ?1 and objectID not in " +
-                   "(select ea.position.objectID from EmployeeAssignment ea " +
-                   "where ea.endDate is null) order by title", 
-                   JobPosition.STATUS_ACTIVE).list();
+    // Vacante = posición activa sin asignación vigente. NOT EXISTS en lugar de NOT IN: una
+    // asignación vigente sin posición (position_id null) vaciaba el NOT IN entero
+    private static final String VACANT_POSITIONS = "from JobPosition p where p.status = ?1 and not exists " +
+                   "(select 1 from EmployeeAssignment ea where ea.position = p and ea.endDate is null)";
+
+    public List<JobPosition> findVacantPositions(int page, int size) {
+        return find(VACANT_POSITIONS + " order by p.title, p.objectID.id", JobPosition.STATUS_ACTIVE)
+               .page(io.quarkus.panache.common.Page.of(page, size))
+               .list();
+    }
+
+    public long countVacantPositions() {
+        return count(VACANT_POSITIONS, JobPosition.STATUS_ACTIVE);
     }
 
     public List<JobPosition> findPositionsByUnitAndCategory(String unitId, String categoryId) {
@@ -0,0 +1,96 @@
+package com.humanrsc.datamodel.repo;
+
+import com.humanrsc.datamodel.entities.NotificationOutbox;
+import io.quarkus.hibernate.orm.panache.PanacheRepositoryBase;
+import jakarta.enterprise.context.ApplicationScoped;
+
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.List;
+
+/**
+ * Repository for the notification outbox.
+ *
+ * Writes happen with the tenant bound like any other table. The dispatcher works across tenants, so
+ * its reads and deletes go through the SECURITY DEFINER functions of V1.17.0 rather than the table,
+ * which RLS limits to the bound tenant.
+ */
+@ApplicationScoped
+public class NotificationOutboxRepository implements PanacheRepositoryBase<NotificationOutbox, Long> {
+
+    /**
+     * Locks the oldest deliverable rows; rows locked by another dispatcher instance are skipped
+     */
+    public List<NotificationOutbox> claimBatch(int limit, int maxAttempts) {
+        @SuppressWarnings("unchecked")
+        List<NotificationOutbox> result = getEntityManager().createNativeQuery(
+                "SELECT * FROM hr_app.claim_notification_outbox(:limit, :maxAttempts)", NotificationOutbox.class)
+            .setParameter("limit", limit)
+            .setParameter("maxAttempts", maxAttempts)
+            .getResultList();
+        return result;
+    }
+
+    /**
+     * Ids of the oldest deliverable rows, without locking; used to retry a failed batch row by row
+     */
+    public List<Long> peekIds(int limit, int maxAttempts) {
+        @SuppressWarnings("unchecked")
+        List<Number> ids = getEntityManager().createNativeQuery(
+                "SELECT * FROM hr_app.peek_notification_outbox(:limit, :maxAttempts)")
+            .setParameter("limit", limit)
+            .setParameter("maxAttempts", maxAttempts)
+            .getResultList();
+        return ids.stream().map(Number::longValue).toList();
+    }
+
+    public List<NotificationOutbox> claimById(Long id) {
+        @SuppressWarnings("unchecked")
+        List<NotificationOutbox> result = getEntityManager().createNativeQuery(
+                "SELECT * FROM hr_app.claim_notification_outbox_row(:id)", NotificationOutbox.class)
+            .setParameter("id", id)
+            .getResultList();
+        return result;
+    }
+
+    public long deleteByIds(Collection<Long> ids) {
+        if (ids.isEmpty()) {
+            return 0;
+        }
+        Object deleted = getEntityManager().createNativeQuery(
+                "SELECT hr_app.delete_notification_outbox(CAST(ARRAY[:ids] AS bigint[]))")
+            .setParameter("ids", ids)
+            .getSingleResult();
+        return ((Number) deleted).longValue();
+    }
+
+    public void markFailed(Long id, String error) {
+        getEntityManager().createNativeQuery("SELECT hr_app.fail_notification_outbox(:id, :error)")
+            .setParameter("id", id)
+            .setParameter("error", error)
+            .getSingleResult();
+    }
+
+    /**
+     * Pending rows still deliverable, the creation time of the oldest one (null when empty) and the
+     * rows left aside after {@code maxAttempts} failures
+     */
+    public Backlog getBacklog(int maxAttempts) {
+        Object[] row = (Object[]) getEntityManager().createNativeQuery(
+                "SELECT pending, oldest_created_at, dead FROM hr_app.notification_outbox_backlog(:maxAttempts)")
+            .setParameter("maxAttempts", maxAttempts)
+            .getSingleResult();
+        return new Backlog(((Number) row[0]).longValue(), toLocalDateTime(row[1]), ((Number) row[2]).longValue());
+    }
+
+    public record Backlog(long pending, LocalDateTime oldestCreatedAt, long dead) {
+    }
+
+    // Native queries may hand TIMESTAMP columns back as java.sql.Timestamp
+    private static LocalDateTime toLocalDateTime(Object value) {
+        if (value instanceof java.sql.Timestamp timestamp) {
+            return timestamp.toLocalDateTime();
+        }
+        return (LocalDateTime) value;
+    }
+}
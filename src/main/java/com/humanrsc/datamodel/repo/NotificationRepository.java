@@ -8,8 +8,12 @@ import io.quarkus.panache.common.Sort;
 import jakarta.enterprise.context.ApplicationScoped;
 import jakarta.transaction.Transactional;
 
+import java.time.LocalDate;
 import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
 
 /**
@@ -56,6 +60,37 @@ public class NotificationRepository implements PanacheRepositoryBase<Notificatio
         return count("userId = ?1 and read = false", userId);
     }
 
+    /**
+     * Notifications of a user created at or after a point in time, oldest first (stream resume)
+     * 
+     * @param userId the user ID
+     * @param since lower bound (inclusive) on the creation date
+     * @param limit maximum number of results
+     * @return notifications in delivery order
+     */
+    public List<Notification> findByUserSince(String userId, LocalDateTime since, int limit) {
+        return find("userId = ?1 and createdAt >= ?2", Sort.by("createdAt").and("objectID.id"), userId, since)
+                .page(Page.of(0, limit))
+                .list();
+    }
+
+    /**
+     * Count unread notifications of several users with one query
+     * 
+     * @param userIds the user IDs
+     * @return unread count per user; users with no unread notifications are absent
+     */
+    public Map<String, Long> countUnreadByUsers(Collection<String> userIds) {
+        Map<String, Long> counts = new HashMap<>();
+        getEntityManager().createQuery(
+                "select n.userId, count(n) from Notification n where n.userId in :users and n.read = false group by n.userId",
+                Object[].class)
+            .setParameter("users", userIds)
+            .getResultList()
+            .forEach(row -> counts.put((String) row[0], ((Number) row[1]).longValue()));
+        return counts;
+    }
+
     /**
      * Find a notification by its ObjectID
      * 
@@ -101,6 +136,46 @@ public class NotificationRepository implements PanacheRepositoryBase<Notificatio
         return delete("createdAt < ?1", beforeDate);
     }
 
+    /**
+     * Names of the monthly partitions of hr_app.notifications (notifications_pYYYYMM)
+     */
+    @SuppressWarnings("unchecked")
+    public List<String> findPartitionNames() {
+        return getEntityManager().createNativeQuery(
+                "SELECT c.relname FROM pg_inherits i JOIN pg_class c ON c.oid = i.inhrelid " +
+                "WHERE i.inhparent = 'hr_app.notifications'::regclass ORDER BY c.relname")
+            .getResultList();
+    }
+
+    /**
+     * Creates the missing monthly partitions between two months (inclusive)
+     * 
+     * @return number of partitions created
+     */
+    public int createPartitions(LocalDate fromMonth, LocalDate toMonth) {
+        return ((Number) getEntityManager()
+            .createNativeQuery("SELECT hr_app.create_notification_partitions(:fromMonth, :toMonth)")
+            .setParameter("fromMonth", fromMonth)
+            .setParameter("toMonth", toMonth)
+            .getSingleResult()).intValue();
+    }
+
+    /**
+     * Detaches and drops a whole partition; waits at most {@code lockTimeoutMs} for the table lock
+     * 
+     * @param partitionName partition name as returned by findPartitionNames
+     */
+    public void dropPartition(String partitionName, long lockTimeoutMs) {
+        getEntityManager().createNativeQuery("SELECT set_config('lock_timeout', :timeout, true)")
+            .setParameter("timeout", lockTimeoutMs + "ms")
+            .getSingleResult();
+        getEntityManager().createNativeQuery(
+                "ALTER TABLE hr_app.notifications DETACH PARTITION hr_app.\"" + partitionName + "\"")
+            .executeUpdate();
+        getEntityManager().createNativeQuery("DROP TABLE hr_app.\"" + partitionName + "\"")
+            .executeUpdate();
+    }
+
     /**
      * Find notifications related to a specific entity
      * 
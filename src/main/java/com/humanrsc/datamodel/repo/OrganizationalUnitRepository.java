@@ -1,6 +1,7 @@
 package com.humanrsc.datamodel.repo;
 
 import com.humanrsc.datamodel.abstraction.ObjectID;
+import com.humanrsc.datamodel.dto.OrganizationSearchHit;
 import com.humanrsc.datamodel.entities.OrganizationalUnit;
 import io.quarkus.hibernate.orm.panache.PanacheRepositoryBase;
 import jakarta.enterprise.context.ApplicationScoped;
@@ -76,7 +77,82 @@ public class OrganizationalUnitRepository implements PanacheRepositoryBase<Organ
         return deleted > 0;
     }
 
-    // Native SQL query for units with counts - RLS handles tenant filtering automatically
+    // Hierarchy (closure table, V1.11.0) - RLS handles tenant filtering automatically
+
+    /**
+     * Registers a freshly persisted unit under {@code parent} (null for a root): its self row
+     * plus one row per ancestor of the parent. The unit row must already be flushed.
+     */
+    public void insertIntoHierarchy(ObjectID unit, ObjectID parent) {
+        String sql = parent == null
+            ? "INSERT INTO hr_app.organizational_unit_closure (tenant_id, ancestor_id, descendant_id, depth) " +
+              "VALUES (:tenant, :unit, :unit, 0)"
+            : """
+            INSERT INTO hr_app.organizational_unit_closure (tenant_id, ancestor_id, descendant_id, depth)
+            SELECT :tenant, c.ancestor_id, :unit, c.depth + 1
+              FROM hr_app.organizational_unit_closure c
+             WHERE c.descendant_id = :parent
+            UNION ALL
+            SELECT :tenant, :unit, :unit, 0
+            """;
+        jakarta.persistence.Query query = getEntityManager().createNativeQuery(sql)
+            .setParameter("tenant", unit.getTenantID())
+            .setParameter("unit", unit.getId());
+        if (parent != null) {
+            query.setParameter("parent", parent.getId());
+        }
+        query.executeUpdate();
+    }
+
+    /**
+     * Moves the subtree rooted at {@code unit} under {@code newParent} (null to make it a root):
+     * drops the links from the old ancestors and links every new ancestor to every subtree node.
+     * Callers must reject cycles first with {@link #isInSubtree}.
+     */
+    public void moveInHierarchy(ObjectID unit, ObjectID newParent) {
+        getEntityManager().createNativeQuery("""
+            DELETE FROM hr_app.organizational_unit_closure link
+             WHERE link.descendant_id IN (SELECT sub.descendant_id FROM hr_app.organizational_unit_closure sub
+                                           WHERE sub.ancestor_id = :unit)
+               AND link.ancestor_id NOT IN (SELECT sub.descendant_id FROM hr_app.organizational_unit_closure sub
+                                             WHERE sub.ancestor_id = :unit)
+            """)
+            .setParameter("unit", unit.getId())
+            .executeUpdate();
+
+        if (newParent == null) {
+            return;
+        }
+        getEntityManager().createNativeQuery("""
+            INSERT INTO hr_app.organizational_unit_closure (tenant_id, ancestor_id, descendant_id, depth)
+            SELECT :tenant, up.ancestor_id, sub.descendant_id, up.depth + sub.depth + 1
+              FROM hr_app.organizational_unit_closure up
+              CROSS JOIN hr_app.organizational_unit_closure sub
+             WHERE up.descendant_id = :parent
+               AND sub.ancestor_id = :unit
+            """)
+            .setParameter("tenant", unit.getTenantID())
+            .setParameter("parent", newParent.getId())
+            .setParameter("unit", unit.getId())
+            .executeUpdate();
+    }
+
+    /**
+     * True when {@code candidateId} is {@code ancestorId} itself or one of its descendants,
+     * i.e. making it the parent of {@code ancestorId} would close a cycle.
+     */
+    public boolean isInSubtree(String ancestorId, String candidateId) {
+        Object found = getEntityManager().createNativeQuery("""
+            SELECT EXISTS (SELECT 1 FROM hr_app.organizational_unit_closure
+                            WHERE ancestor_id = :ancestor AND descendant_id = :candidate)
+            """)
+            .setParameter("ancestor", ancestorId)
+            .setParameter("candidate", candidateId)
+            .getSingleResult();
+        return Boolean.TRUE.equals(found);
+    }
+
+    // Native SQL query for units with counts, deleted ones excluded (the chart keeps only the active) - RLS handles tenant filtering automatically
     public List<Object[]> getUnitsWithCounts() {
         String sql = """
             SELECT 
@@ -93,7 +169,7 @@ public class OrganizationalUnitRepository implements PanacheRepositoryBase<Organ
                 AND ea.end_date IS NULL
             LEFT JOIN hr_app.job_positions jp ON ea.position_id = jp.id 
                 AND ea.tenant_id = jp.tenant_id
-            WHERE ou.status = 'active'
+            WHERE ou.status <> 'deleted'
             GROUP BY ou.id, ou.tenant_id, ou.name, ou.description, ou.cost_center, 
                      ou.location, ou.country, ou.status, ou.date_created, ou.date_updated,
                      ou.parent_unit_id, ou.organizational_level
@@ -106,6 +182,237 @@ public class OrganizationalUnitRepository implements PanacheRepositoryBase<Organ
         return result;
     }
 
+    /**
+     * Direct counts of current assignments per unit, the counts part of getUnitsWithCounts
+     * without the unit columns. Units with no current assignment are absent.
+     */
+    public List<DirectUnitCountsRow> getDirectUnitCounts() {
+        String sql = """
+            SELECT ea.unit_id,
+                   COUNT(DISTINCT ea.id) AS employee_count,
+                   COUNT(DISTINCT ea.position_id) AS position_count,
+                   MIN(jp.hierarchical_level) AS min_level,
+                   MAX(jp.hierarchical_level) AS max_level
+              FROM hr_app.employee_assignments ea
+              LEFT JOIN hr_app.job_positions jp ON ea.position_id = jp.id AND ea.tenant_id = jp.tenant_id
+             WHERE ea.end_date IS NULL
+             GROUP BY ea.unit_id
+            """;
+
+        @SuppressWarnings("unchecked")
+        List<Object[]> rows = getEntityManager().createNativeQuery(sql).getResultList();
+        return rows.stream()
+                .map(row -> new DirectUnitCountsRow((String) row[0],
+                        ((Number) row[1]).longValue(), ((Number) row[2]).longValue(),
+                        row[3] != null ? ((Number) row[3]).intValue() : null,
+                        row[4] != null ? ((Number) row[4]).intValue() : null))
+                .toList();
+    }
+
+    public record DirectUnitCountsRow(String unitId, long employeeCount, long positionCount,
+                                      Integer minHierarchicalLevel, Integer maxHierarchicalLevel) {
+    }
+
+    /**
+     * Branch totals for every unit: employees and positions with a current assignment anywhere in
+     * the unit's subtree (itself included), plus their salaries, in one pass over the closure table.
+     * One row per (unit, salary currency) so the caller converts each currency once; positionCount
+     * is the branch total repeated on each of the unit's rows. Units with no one placed are absent.
+     */
+    public List<SubtreeRollupRow> getSubtreeRollups() {
+        String sql = """
+            WITH placed AS (
+                SELECT DISTINCT c.ancestor_id, ea.tenant_id, ea.employee_id, ea.position_id
+                  FROM hr_app.organizational_unit_closure c
+                  JOIN hr_app.employee_assignments ea
+                    ON ea.unit_id = c.descendant_id AND ea.tenant_id = c.tenant_id AND ea.end_date IS NULL
+            ),
+            positions AS (
+                SELECT ancestor_id, COUNT(DISTINCT position_id) AS position_count
+                  FROM placed
+                 GROUP BY ancestor_id
+            ),
+            people AS (
+                SELECT DISTINCT p.ancestor_id, e.id, e.currency, e.current_salary
+                  FROM placed p
+                  JOIN hr_app.employees e ON e.id = p.employee_id AND e.tenant_id = p.tenant_id
+            )
+            SELECT pe.ancestor_id, pe.currency, COUNT(*) AS employee_count,
+                   SUM(pe.current_salary) AS salary_total, MAX(po.position_count) AS position_count
+              FROM people pe
+              JOIN positions po ON po.ancestor_id = pe.ancestor_id
+             GROUP BY pe.ancestor_id, pe.currency
+            """;
+
+        @SuppressWarnings("unchecked")
+        List<Object[]> rows = getEntityManager().createNativeQuery(sql).getResultList();
+        return rows.stream()
+                .map(row -> new SubtreeRollupRow((String) row[0], (String) row[1],
+                        ((Number) row[2]).longValue(),
+                        row[3] != null ? new java.math.BigDecimal(row[3].toString()) : java.math.BigDecimal.ZERO,
+                        ((Number) row[4]).longValue()))
+                .toList();
+    }
+
+    public record SubtreeRollupRow(String unitId, String currency, long employeeCount,
+                                   java.math.BigDecimal salaryTotal, long positionCount) {
+    }
+
+    /**
+     * Ranked substring search across employees, positions and units in one round trip.
+     * Every predicate is lower(column) LIKE pattern, served by the pg_trgm GIN indexes of V1.10.0;
+     * each branch keeps its own top-K before the merge so no table dominates the scan.
+     * RLS handles tenant filtering automatically.
+     */
+    public List<OrganizationSearchHit> searchOrganization(String term, String likePattern, int limit) {
+        String sql = """
+            (SELECT 'employee' AS type, e.id, e.first_name || ' ' || e.last_name AS label, e.email AS detail,
+                    GREATEST(word_similarity(:term, lower(e.first_name || ' ' || e.last_name)),
+                             word_similarity(:term, lower(e.email)),
+                             word_similarity(:term, lower(e.employee_id)),
+                             word_similarity(:term, lower(e.national_id))) AS score
+               FROM hr_app.employees e
+              WHERE lower(e.first_name || ' ' || e.last_name) LIKE :pattern
+                 OR lower(e.email) LIKE :pattern
+                 OR lower(e.employee_id) LIKE :pattern
+                 OR lower(e.national_id) LIKE :pattern
+              ORDER BY score DESC
+              LIMIT :limit)
+            UNION ALL
+            (SELECT 'position', p.id, p.title, p.job_code,
+                    GREATEST(word_similarity(:term, lower(p.title)),
+                             word_similarity(:term, lower(p.job_code)))
+               FROM hr_app.job_positions p
+              WHERE p.status <> :deleted
+                AND (lower(p.title) LIKE :pattern OR lower(p.job_code) LIKE :pattern)
+              ORDER BY 5 DESC
+              LIMIT :limit)
+            UNION ALL
+            (SELECT 'unit', u.id, u.name, u.cost_center,
+                    GREATEST(word_similarity(:term, lower(u.name)),
+                             word_similarity(:term, lower(u.cost_center)),
+                             word_similarity(:term, lower(u.location)))
+               FROM hr_app.organizational_units u
+              WHERE u.status <> :deleted
+                AND (lower(u.name) LIKE :pattern OR lower(u.cost_center) LIKE :pattern
+                     OR lower(u.location) LIKE :pattern)
+              ORDER BY 5 DESC
+              LIMIT :limit)
+            ORDER BY score DESC, label
+            LIMIT :limit
+            """;
+
+        @SuppressWarnings("unchecked")
+        List<Object[]> rows = getEntityManager().createNativeQuery(sql)
+                .setParameter("term", term)
+                .setParameter("pattern", likePattern)
+                .setParameter("deleted", OrganizationalUnit.STATUS_DELETED)
+                .setParameter("limit", limit)
+                .getResultList();
+        return rows.stream()
+                .map(row -> new OrganizationSearchHit((String) row[0], (String) row[1], (String) row[2],
+                        (String) row[3], row[4] != null ? ((Number) row[4]).doubleValue() : 0d))
+                .toList();
+    }
+
+    /**
+     * Dashboard counters for employees, units, positions, assignments and categories in a single
+     * round trip: one aggregate per table with FILTER clauses, cross joined into one row.
+     * Column order: 
+     *   0-9   employees: total, active, inactive, terminated, resigned, indefinite, fixed_term,
+     *         project_based, contractors, interns
+     *   10-12 active salaries: avg, max, min
+     *   13-18 units: total, active, root, with_children, leaf, max organizational level
+     *   19-21 positions: total, active, max hierarchical level
+     *   22    active assignments
+     *   23-24 categories: total, active
+     */
+    public Object[] getOrganizationSnapshotCounts() {
+        String sql = """
+            SELECT
+                e.total, e.active, e.inactive, e.terminated, e.resigned,
+                e.indefinite, e.fixed_term, e.project_based, e.contractors, e.interns,
+                e.avg_salary, e.max_salary, e.min_salary,
+                u.total, u.active, u.roots, u.with_children, u.leaves, u.max_level,
+                p.total, p.active, p.max_level,
+                a.active,
+                c.total, c.active
+            FROM (
+                SELECT
+                    COUNT(*) AS total,
+                    COUNT(*) FILTER (WHERE status = 'active') AS active,
+                    COUNT(*) FILTER (WHERE status = 'inactive') AS inactive,
+                    COUNT(*) FILTER (WHERE status = 'terminated') AS terminated,
+                    COUNT(*) FILTER (WHERE status = 'resigned') AS resigned,
+                    COUNT(*) FILTER (WHERE contract_type = 'indefinite') AS indefinite,
+                    COUNT(*) FILTER (WHERE contract_type = 'fixed_term') AS fixed_term,
+                    COUNT(*) FILTER (WHERE contract_type = 'project_based') AS project_based,
+                    COUNT(*) FILTER (WHERE employee_type = 'contractor') AS contractors,
+                    COUNT(*) FILTER (WHERE employee_type = 'intern') AS interns,
+                    AVG(current_salary) FILTER (WHERE status = 'active') AS avg_salary,
+                    MAX(current_salary) FILTER (WHERE status = 'active') AS max_salary,
+                    MIN(current_salary) FILTER (WHERE status = 'active') AS min_salary
+                FROM hr_app.employees
+            ) e
+            CROSS JOIN (
+                SELECT
+                    COUNT(*) AS total,
+                    COUNT(*) FILTER (WHERE ou.status = 'active') AS active,
+                    COUNT(*) FILTER (WHERE ou.status = 'active' AND ou.parent_unit_id IS NULL) AS roots,
+                    COUNT(*) FILTER (WHERE ou.status = 'active' AND ch.has_children) AS with_children,
+                    COUNT(*) FILTER (WHERE ou.status = 'active' AND ch.has_children IS NULL) AS leaves,
+                    MAX(ou.organizational_level) FILTER (WHERE ou.status = 'active') AS max_level
+                FROM hr_app.organizational_units ou
+                LEFT JOIN (
+                    SELECT DISTINCT parent_unit_id, parent_unit_tenant_id, TRUE AS has_children
+                    FROM hr_app.organizational_units
+                    WHERE parent_unit_id IS NOT NULL
+                ) ch ON ch.parent_unit_id = ou.id AND ch.parent_unit_tenant_id = ou.tenant_id
+            ) u
+            CROSS JOIN (
+                SELECT
+                    COUNT(*) AS total,
+                    COUNT(*) FILTER (WHERE status = 'active') AS active,
+                    MAX(hierarchical_level) FILTER (WHERE status = 'active') AS max_level
+                FROM hr_app.job_positions
+            ) p
+            CROSS JOIN (
+                SELECT COUNT(*) FILTER (WHERE end_date IS NULL) AS active
+                FROM hr_app.employee_assignments
+            ) a
+            CROSS JOIN (
+                SELECT
+                    COUNT(*) AS total,
+                    COUNT(*) FILTER (WHERE status = 'active') AS active
+                FROM hr_app.position_categories
+            ) c
+            """;
+        
+        return (Object[]) getEntityManager().createNativeQuery(sql)
+                .getSingleResult();
+    }
+
+    /**
+     * Active units per organizational level (1-10), as a single grouped query
+     */
+    public java.util.Map<Integer, Long> countActiveUnitsByLevel() {
+        String sql = """
+            SELECT organizational_level, COUNT(*)
+            FROM hr_app.organizational_units
+            WHERE status = 'active' AND organizational_level BETWEEN 1 AND 10
+            GROUP BY organizational_level
+            """;
+        
+        @SuppressWarnings("unchecked")
+        List<Object[]> rows = getEntityManager().createNativeQuery(sql)
+                .getResultList();
+        java.util.Map<Integer, Long> unitsByLevel = new java.util.HashMap<>();
+        for (Object[] row : rows) {
+            unitsByLevel.put(((Number) row[0]).intValue(), ((Number) row[1]).longValue());
+        }
+        return unitsByLevel;
+    }
+
     // Dynamic filtering methods - RLS handles tenant filtering automatically
     
     public List<OrganizationalUnit> findWithFilters(java.util.Map<String, Object> filters, int page, int size) {
@@ -0,0 +1,258 @@
+package com.humanrsc.datamodel.repo;
+
+import com.humanrsc.config.ThreadLocalStorage;
+import jakarta.enterprise.context.ApplicationScoped;
+import jakarta.inject.Inject;
+import jakarta.persistence.EntityManager;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Native access to the monthly payroll cost rollup and its recompute queue (see V1.16.0); neither
+ * table is mapped as an entity, like the unit closure table.
+ *
+ * Queue writes and rollup reads run with the tenant bound. claimQueued works across tenants through
+ * the SECURITY DEFINER function of V1.18.0, since RLS limits the queue to the bound tenant.
+ */
+@ApplicationScoped
+public class PayrollCostRepository {
+
+    public static final String GROUP_TOTAL = "total";
+    public static final String GROUP_UNIT = "unit";
+    public static final String GROUP_CURRENCY = "currency";
+
+    // Salary in force and unit held by every employee employed on each month's as-of date
+    // (month end, or today for the current month), aggregated per month, unit and currency
+    private static final String RECOMPUTE = """
+        INSERT INTO hr_app.payroll_cost_monthly (tenant_id, month, unit_id, currency, headcount, total_salary)
+        SELECT :tenant, m.month, COALESCE(s.unit_id, ''), s.currency, COUNT(*), COALESCE(SUM(s.salary), 0)
+        FROM (SELECT CAST(g AS date) AS month,
+                     LEAST(CAST(g + interval '1 month' - interval '1 day' AS date), CURRENT_DATE) AS as_of
+              FROM generate_series(CAST(:fromMonth AS date), CAST(:toMonth AS date), interval '1 month') g) m
+        JOIN hr_app.employees e ON e.tenant_id = :tenant
+             AND e.hire_date <= m.as_of
+             AND (e.termination_date IS NULL OR e.termination_date > m.as_of)
+        CROSS JOIN LATERAL (
+            SELECT COALESCE(
+                       (SELECT sh.new_salary FROM hr_app.salary_history sh
+                         WHERE sh.tenant_id = e.tenant_id AND sh.employee_id = e.id AND sh.effective_date <= m.as_of
+                         ORDER BY sh.effective_date DESC, sh.date_created DESC LIMIT 1),
+                       (SELECT sh.old_salary FROM hr_app.salary_history sh
+                         WHERE sh.tenant_id = e.tenant_id AND sh.employee_id = e.id AND sh.effective_date > m.as_of
+                         ORDER BY sh.effective_date, sh.date_created LIMIT 1),
+                       e.current_salary) AS salary,
+                   COALESCE(e.currency, 'USD') AS currency,
+                   (SELECT ea.unit_id FROM hr_app.employee_assignments ea
+                     WHERE ea.tenant_id = e.tenant_id AND ea.employee_id = e.id
+                       AND ea.start_date <= m.as_of AND (ea.end_date IS NULL OR ea.end_date > m.as_of)
+                     ORDER BY ea.start_date DESC LIMIT 1) AS unit_id
+        ) s
+        GROUP BY m.month, COALESCE(s.unit_id, ''), s.currency
+        """;
+
+    @Inject
+    EntityManager entityManager;
+
+    /**
+     * Queues a recompute of the current tenant from the month of {@code fromDate} onwards
+     */
+    public void enqueue(LocalDate fromDate) {
+        entityManager.createNativeQuery(
+                "INSERT INTO hr_app.payroll_cost_rollup_queue (tenant_id, from_month) VALUES (:tenant, :fromMonth)")
+            .setParameter("tenant", getCurrentTenantID())
+            .setParameter("fromMonth", fromDate.withDayOfMonth(1))
+            .executeUpdate();
+    }
+
+    /**
+     * Queues the month of {@code month} for every tenant with employees
+     */
+    public int enqueueAllTenants(LocalDate month) {
+        Object queued = entityManager.createNativeQuery("SELECT hr_app.enqueue_payroll_cost_month(:month)")
+            .setParameter("month", month)
+            .getSingleResult();
+        return ((Number) queued).intValue();
+    }
+
+    /**
+     * Leases up to {@code limit} of the oldest unclaimed rows for {@code leaseSeconds} and returns, per
+     * tenant, the earliest month they ask for and their ids, to {@link #deleteQueued} once recomputed.
+     * Rows leased by another instance are skipped; rows whose lease expired are claimed again.
+     */
+    public List<QueuedRecompute> claimQueued(int limit, int leaseSeconds) {
+        @SuppressWarnings("unchecked")
+        List<Object[]> rows = entityManager.createNativeQuery(
+                "SELECT queued_id, queued_tenant_id, queued_from_month FROM hr_app.claim_payroll_cost_queue(:limit, :lease)")
+            .setParameter("limit", limit)
+            .setParameter("lease", leaseSeconds)
+            .getResultList();
+
+        Map<String, LocalDate> fromMonthByTenant = new LinkedHashMap<>();
+        Map<String, List<Long>> idsByTenant = new HashMap<>();
+        for (Object[] row : rows) {
+            String tenantID = (String) row[1];
+            fromMonthByTenant.merge(tenantID, toLocalDate(row[2]), (a, b) -> a.isBefore(b) ? a : b);
+            idsByTenant.computeIfAbsent(tenantID, t -> new ArrayList<>()).add(((Number) row[0]).longValue());
+        }
+        return fromMonthByTenant.entrySet().stream()
+            .map(entry -> new QueuedRecompute(entry.getKey(), entry.getValue(), idsByTenant.get(entry.getKey())))
+            .toList();
+    }
+
+    /**
+     * Deletes claimed rows of the current tenant; run it in the transaction that finishes their recompute
+     */
+    public int deleteQueued(List<Long> ids) {
+        return entityManager.createNativeQuery(
+                "DELETE FROM hr_app.payroll_cost_rollup_queue WHERE tenant_id = :tenant AND id IN (:ids)")
+            .setParameter("tenant", getCurrentTenantID())
+            .setParameter("ids", ids)
+            .executeUpdate();
+    }
+
+    /**
+     * Rebuilds the rollup rows of the current tenant for the months from {@code fromMonth} to
+     * {@code toMonth} (first days of month), leaving the EUR cost at zero; returns the rows written
+     */
+    public int recompute(LocalDate fromMonth, LocalDate toMonth) {
+        String tenantID = getCurrentTenantID();
+        entityManager.createNativeQuery(
+                "DELETE FROM hr_app.payroll_cost_monthly WHERE tenant_id = :tenant AND month BETWEEN :fromMonth AND :toMonth")
+            .setParameter("tenant", tenantID)
+            .setParameter("fromMonth", fromMonth)
+            .setParameter("toMonth", toMonth)
+            .executeUpdate();
+        return entityManager.createNativeQuery(RECOMPUTE)
+            .setParameter("tenant", tenantID)
+            .setParameter("fromMonth", fromMonth)
+            .setParameter("toMonth", toMonth)
+            .executeUpdate();
+    }
+
+    /**
+     * Distinct (month, currency) pairs of the current tenant between two months, to price in EUR
+     */
+    public List<MonthCurrency> findMonthCurrencies(LocalDate fromMonth, LocalDate toMonth) {
+        @SuppressWarnings("unchecked")
+        List<Object[]> rows = entityManager.createNativeQuery("""
+            SELECT DISTINCT month, currency FROM hr_app.payroll_cost_monthly
+             WHERE tenant_id = :tenant AND month BETWEEN :fromMonth AND :toMonth
+            """)
+            .setParameter("tenant", getCurrentTenantID())
+            .setParameter("fromMonth", fromMonth)
+            .setParameter("toMonth", toMonth)
+            .getResultList();
+        return rows.stream()
+            .map(row -> new MonthCurrency(toLocalDate(row[0]), (String) row[1]))
+            .toList();
+    }
+
+    public int updateCostEUR(LocalDate month, String currency, BigDecimal rate) {
+        return entityManager.createNativeQuery("""
+            UPDATE hr_app.payroll_cost_monthly SET total_cost_eur = ROUND(total_salary * :rate, 2)
+             WHERE tenant_id = :tenant AND month = :month AND currency = :currency
+            """)
+            .setParameter("rate", rate)
+            .setParameter("tenant", getCurrentTenantID())
+            .setParameter("month", month)
+            .setParameter("currency", currency)
+            .executeUpdate();
+    }
+
+    /**
+     * Month of the current tenant's earliest hire, where a full backfill starts (null without employees)
+     */
+    public LocalDate findEarliestHireDate() {
+        Object earliest = entityManager.createNativeQuery(
+                "SELECT MIN(hire_date) FROM hr_app.employees WHERE tenant_id = :tenant")
+            .setParameter("tenant", getCurrentTenantID())
+            .getSingleResult();
+        return toLocalDate(earliest);
+    }
+
+    /**
+     * Monthly series of the current tenant between two months, totalled per month or split by unit or
+     * currency ({@code groupBy}). With {@code unitId} only that unit and its subunits are counted.
+     * Salary totals are only returned per currency, where they share one.
+     */
+    public List<PayrollCostPoint> findMonthly(LocalDate fromMonth, LocalDate toMonth, String unitId, String groupBy) {
+        String columns;
+        String grouping;
+        String join = "";
+        switch (groupBy) {
+            case GROUP_UNIT -> {
+                columns = "p.unit_id, MAX(ou.name), NULL, SUM(p.headcount), NULL, SUM(p.total_cost_eur)";
+                grouping = "p.month, p.unit_id";
+                join = "LEFT JOIN hr_app.organizational_units ou ON ou.id = p.unit_id AND ou.tenant_id = p.tenant_id ";
+            }
+            case GROUP_CURRENCY -> {
+                columns = "NULL, NULL, p.currency, SUM(p.headcount), SUM(p.total_salary), SUM(p.total_cost_eur)";
+                grouping = "p.month, p.currency";
+            }
+            default -> {
+                columns = "NULL, NULL, NULL, SUM(p.headcount), NULL, SUM(p.total_cost_eur)";
+                grouping = "p.month";
+            }
+        }
+        String unitFilter = unitId != null
+            ? "AND p.unit_id IN (SELECT c.descendant_id FROM hr_app.organizational_unit_closure c " +
+              "WHERE c.tenant_id = :tenant AND c.ancestor_id = :unitId) "
+            : "";
+
+        var query = entityManager.createNativeQuery(
+                "SELECT p.month, " + columns + " FROM hr_app.payroll_cost_monthly p " + join +
+                "WHERE p.tenant_id = :tenant AND p.month BETWEEN :fromMonth AND :toMonth " + unitFilter +
+                "GROUP BY " + grouping + " ORDER BY " + grouping)
+            .setParameter("tenant", getCurrentTenantID())
+            .setParameter("fromMonth", fromMonth)
+            .setParameter("toMonth", toMonth);
+        if (unitId != null) {
+            query.setParameter("unitId", unitId);
+        }
+        @SuppressWarnings("unchecked")
+        List<Object[]> rows = query.getResultList();
+        return rows.stream()
+            .map(row -> new PayrollCostPoint(
+                toLocalDate(row[0]),
+                row[1] == null || ((String) row[1]).isEmpty() ? null : (String) row[1],
+                (String) row[2],
+                (String) row[3],
+                ((Number) row[4]).longValue(),
+                (BigDecimal) row[5],
+                (BigDecimal) row[6]))
+            .toList();
+    }
+
+    public record QueuedRecompute(String tenantID, LocalDate fromMonth, List<Long> ids) {
+    }
+
+    public record MonthCurrency(LocalDate month, String currency) {
+    }
+
+    /**
+     * One point of the series; unit and currency fields are null unless grouped by them, a null
+     * unitId in a unit series stands for employees without an assignment
+     */
+    public record PayrollCostPoint(LocalDate month, String unitId, String unitName, String currency,
+                                   long headcount, BigDecimal totalSalary, BigDecimal totalCostEUR) {
+    }
+
+    // Native queries may hand DATE columns back as java.sql.Date
+    private static LocalDate toLocalDate(Object value) {
+        if (value instanceof java.sql.Date date) {
+            return date.toLocalDate();
+        }
+        return (LocalDate) value;
+    }
+
+    // Utility method to get current tenant ID
+    private String getCurrentTenantID() {
+        return ThreadLocalStorage.getTenantID();
+    }
+}
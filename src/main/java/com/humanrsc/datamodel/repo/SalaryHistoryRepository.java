@@ -52,7 +52,7 @@ public class SalaryHistoryRepository implements PanacheRepositoryBase<SalaryHist
 
     public List<SalaryHistory> findIncreases() {
         String tenantID = getCurrentTenantID();
-        return find("objectID.tenantID = ?1 and newSalary > oldSalary order by effectiveDate desc", tenantID).list();
+        return find("objectID.tenantID = ?1 and increaseAmount > 0 order by effectiveDate desc", tenantID).list();
     }
 
     public List<SalaryHistory> findDecreases() {
@@ -116,7 +116,7 @@ public class SalaryHistoryRepository implements PanacheRepositoryBase<SalaryHist
 
     public long countIncreases() {
         String tenantID = getCurrentTenantID();
-        return count("objectID.tenantID = ?1 and newSalary > oldSalary", tenantID);
+        return count("objectID.tenantID = ?1 and increaseAmount > 0", tenantID);
     }
 
     public long countDecreases() {
@@ -149,60 +149,139 @@ public class SalaryHistoryRepository implements PanacheRepositoryBase<SalaryHist
                    tenantID, startDate, endDate).list();
     }
 
+    // Aggregates run in SQL over the generated increase_amount column (V1.15.0), keeping numeric precision
+
     public BigDecimal getAverageSalaryIncrease() {
-        String tenantID = getCurrentTenantID();
-        return find("objectID.tenantID = ?1 and newSalary > oldSalary", tenantID)
-               .stream()
-               .mapToDouble(sh -> sh.getSalaryIncrease().doubleValue())
-               .average()
-               .stream()
-               .mapToObj(avg -> BigDecimal.valueOf(avg))
-               .findFirst()
-               .orElse(BigDecimal.ZERO);
+        Object avg = getEntityManager()
+               .createNativeQuery("SELECT ROUND(AVG(increase_amount), 2) FROM hr_app.salary_history " +
+                                  "WHERE tenant_id = :tenant AND increase_amount > 0")
+               .setParameter("tenant", getCurrentTenantID())
+               .getSingleResult();
+        return avg != null ? (BigDecimal) avg : BigDecimal.ZERO;
     }
 
     public BigDecimal getAverageSalaryIncreasePercentage() {
-        String tenantID = getCurrentTenantID();
-        return find("objectID.tenantID = ?1 and newSalary > oldSalary and oldSalary > 0", tenantID)
-               .stream()
-               .mapToDouble(sh -> sh.getSalaryIncreasePercentage().doubleValue())
-               .average()
-               .stream()
-               .mapToObj(avg -> BigDecimal.valueOf(avg))
-               .findFirst()
-               .orElse(BigDecimal.ZERO);
+        Object avg = getEntityManager()
+               .createNativeQuery("SELECT ROUND(AVG(increase_amount * 100 / old_salary), 4) FROM hr_app.salary_history " +
+                                  "WHERE tenant_id = :tenant AND increase_amount > 0 AND old_salary > 0")
+               .setParameter("tenant", getCurrentTenantID())
+               .getSingleResult();
+        return avg != null ? (BigDecimal) avg : BigDecimal.ZERO;
     }
 
     public BigDecimal getMaxSalaryIncrease() {
-        String tenantID = getCurrentTenantID();
-        return find("objectID.tenantID = ?1 and newSalary > oldSalary order by (newSalary - oldSalary) desc", tenantID)
-               .firstResultOptional()
-               .map(SalaryHistory::getSalaryIncrease)
-               .orElse(BigDecimal.ZERO);
+        BigDecimal max = getEntityManager()
+               .createQuery("select max(increaseAmount) from SalaryHistory " +
+                            "where objectID.tenantID = ?1 and increaseAmount > 0", BigDecimal.class)
+               .setParameter(1, getCurrentTenantID())
+               .getSingleResult();
+        return max != null ? max : BigDecimal.ZERO;
     }
 
     public BigDecimal getMaxSalaryIncreasePercentage() {
-        String tenantID = getCurrentTenantID();
-        return find("objectID.tenantID = ?1 and newSalary > oldSalary and oldSalary > 0 order by ((newSalary - oldSalary) / oldSalary * 100) desc", tenantID)
-               .firstResultOptional()
-               .map(SalaryHistory::getSalaryIncreasePercentage)
-               .orElse(BigDecimal.ZERO);
+        Object max = getEntityManager()
+               .createNativeQuery("SELECT ROUND(MAX(increase_amount * 100 / old_salary), 4) FROM hr_app.salary_history " +
+                                  "WHERE tenant_id = :tenant AND increase_amount > 0 AND old_salary > 0")
+               .setParameter("tenant", getCurrentTenantID())
+               .getSingleResult();
+        return max != null ? (BigDecimal) max : BigDecimal.ZERO;
     }
 
+    // Served by salary_history_increase_amount_idx
     public List<SalaryHistory> findTopSalaryIncreases(int limit) {
         String tenantID = getCurrentTenantID();
-        return find("objectID.tenantID = ?1 and newSalary > oldSalary order by (newSalary - oldSalary) desc", tenantID)
+        return find("objectID.tenantID = ?1 and increaseAmount > 0 order by increaseAmount desc", tenantID)
                .range(0, limit - 1)
                .list();
     }
 
     public List<SalaryHistory> findTopSalaryIncreasePercentages(int limit) {
         String tenantID = getCurrentTenantID();
-        return find("objectID.tenantID = ?1 and newSalary > oldSalary and oldSalary > 0 order by ((newSalary - oldSalary) / oldSalary * 100) desc", tenantID)
+        return find("objectID.tenantID = ?1 and increaseAmount > 0 and oldSalary > 0 order by (increaseAmount / oldSalary) desc", tenantID)
                .range(0, limit - 1)
                .list();
     }
 
+    /**
+     * One row of the increase analytics. {@code dimension} is "unit", "category" or "year"; unit and
+     * category rows are also per year. Amount figures are in {@code currency}, percentages are not.
+     */
+    public record IncreaseAnalyticsRow(String dimension, int year, String groupId, String groupName, String currency,
+                                       long increases, BigDecimal avgAmount, BigDecimal medianAmount,
+                                       BigDecimal p90Amount, BigDecimal avgPercentage, BigDecimal medianPercentage,
+                                       BigDecimal p90Percentage) {
+    }
+
+    /**
+     * Average, median and 90th percentile of the salary increases effective between two dates, per
+     * year and currency, broken down by the unit and the position category of the assignment the
+     * employee held on the effective date, in a single grouped query (GROUPING SETS)
+     */
+    @SuppressWarnings("unchecked")
+    public List<IncreaseAnalyticsRow> getIncreaseAnalytics(LocalDate from, LocalDate to) {
+        List<Object[]> rows = getEntityManager().createNativeQuery("""
+                WITH increases AS (
+                    SELECT EXTRACT(YEAR FROM sh.effective_date)::int AS yr,
+                           COALESCE(e.currency, sh.currency) AS currency,
+                           sh.increase_amount AS amount,
+                           CASE WHEN sh.old_salary > 0 THEN sh.increase_amount * 100 / sh.old_salary END AS pct,
+                           a.unit_id, a.category_id
+                    FROM hr_app.salary_history sh
+                    JOIN hr_app.employees e ON e.id = sh.employee_id AND e.tenant_id = sh.employee_tenant_id
+                    LEFT JOIN LATERAL (
+                        SELECT ea.unit_id, jp.category_id
+                        FROM hr_app.employee_assignments ea
+                        LEFT JOIN hr_app.job_positions jp ON jp.id = ea.position_id AND jp.tenant_id = ea.position_tenant_id
+                        WHERE ea.employee_id = sh.employee_id AND ea.tenant_id = sh.tenant_id
+                          AND ea.start_date <= sh.effective_date
+                          AND (ea.end_date IS NULL OR ea.end_date > sh.effective_date)
+                        ORDER BY ea.start_date DESC
+                        LIMIT 1
+                    ) a ON true
+                    WHERE sh.tenant_id = :tenant AND sh.increase_amount > 0
+                      AND sh.effective_date BETWEEN :fromDate AND :toDate
+                )
+                SELECT CASE WHEN GROUPING(i.unit_id) = 0 THEN 'unit'
+                            WHEN GROUPING(i.category_id) = 0 THEN 'category'
+                            ELSE 'year' END AS dimension,
+                       i.yr, COALESCE(i.unit_id, i.category_id) AS group_id,
+                       CASE WHEN GROUPING(i.unit_id) = 0 THEN MAX(ou.name)
+                            WHEN GROUPING(i.category_id) = 0 THEN MAX(pc.name) END AS group_name,
+                       i.currency, COUNT(*),
+                       ROUND(AVG(i.amount), 2),
+                       ROUND(PERCENTILE_CONT(0.5) WITHIN GROUP (ORDER BY i.amount)::numeric, 2),
+                       ROUND(PERCENTILE_CONT(0.9) WITHIN GROUP (ORDER BY i.amount)::numeric, 2),
+                       ROUND(AVG(i.pct), 4),
+                       ROUND(PERCENTILE_CONT(0.5) WITHIN GROUP (ORDER BY i.pct)::numeric, 4),
+                       ROUND(PERCENTILE_CONT(0.9) WITHIN GROUP (ORDER BY i.pct)::numeric, 4)
+                FROM increases i
+                LEFT JOIN hr_app.organizational_units ou ON ou.id = i.unit_id AND ou.tenant_id = :tenant
+                LEFT JOIN hr_app.position_categories pc ON pc.id = i.category_id AND pc.tenant_id = :tenant
+                GROUP BY GROUPING SETS ((i.yr, i.currency, i.unit_id), (i.yr, i.currency, i.category_id), (i.yr, i.currency))
+                ORDER BY 1, 2, 5, 6 DESC
+                """)
+            .setParameter("tenant", getCurrentTenantID())
+            .setParameter("fromDate", from)
+            .setParameter("toDate", to)
+            .getResultList();
+
+        return rows.stream()
+            .map(row -> new IncreaseAnalyticsRow(
+                (String) row[0],
+                ((Number) row[1]).intValue(),
+                (String) row[2],
+                (String) row[3],
+                (String) row[4],
+                ((Number) row[5]).longValue(),
+                (BigDecimal) row[6],
+                (BigDecimal) row[7],
+                (BigDecimal) row[8],
+                (BigDecimal) row[9],
+                (BigDecimal) row[10],
+                (BigDecimal) row[11]))
+            .toList();
+    }
+
     // Utility method to get current tenant ID
     private String getCurrentTenantID() {
         return com.humanrsc.config.ThreadLocalStorage.getTenantID();
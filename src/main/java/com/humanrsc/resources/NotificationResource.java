@@ -4,13 +4,19 @@ import com.humanrsc.datamodel.entities.Notification;
 import com.humanrsc.security.JWTSecured;
 import com.humanrsc.security.JwtTokenUtils;
 import com.humanrsc.services.NotificationService;
+import com.humanrsc.services.NotificationStreamHub;
+import com.humanrsc.config.ThreadLocalStorage;
 import com.humanrsc.config.ConnectionPoolIntercepted;
 import jakarta.inject.Inject;
 import jakarta.ws.rs.*;
+import jakarta.ws.rs.core.Context;
 import jakarta.ws.rs.core.MediaType;
 import jakarta.ws.rs.core.Response;
+import jakarta.ws.rs.sse.Sse;
+import jakarta.ws.rs.sse.SseEventSink;
 import jakarta.annotation.security.RolesAllowed;
 import io.quarkus.logging.Log;
+import org.eclipse.microprofile.config.inject.ConfigProperty;
 
 import java.util.List;
 import java.util.Optional;
@@ -23,6 +29,7 @@ import static com.humanrsc.security.Permissions.*;
  * Endpoints allow users to:
  * - Retrieve their notifications (all or unread)
  * - Get unread count
+ * - Follow new notifications and the unread count live (SSE stream)
  * - Mark notifications as read (single or all)
  * 
  * All endpoints are scoped to the authenticated user (from JWT subject).
@@ -40,6 +47,12 @@ public class NotificationResource {
     @Inject
     JwtTokenUtils jwtTokenUtils;
 
+    @Inject
+    NotificationStreamHub streamHub;
+
+    @ConfigProperty(name = "app.notifications.stream.replay-limit", defaultValue = "100")
+    int streamReplayLimit;
+
     /**
      * Get all notifications for the current user (paginated)
      * 
@@ -138,6 +151,38 @@ public class NotificationResource {
         }
     }
 
+    /**
+     * Server-sent events stream for the current user, replacing unread-count polling.
+     * 
+     * Sends the unread count on connect, then a "notification" event (id = notification id) for each
+     * new notification and an "unread-count" event whenever the count changes, plus heartbeat comments.
+     * A reconnecting client sending Last-Event-ID first gets the notifications it missed.
+     * 
+     * @param lastEventId id of the last notification received, if resuming
+     */
+    @GET
+    @Path("/stream")
+    @Produces(MediaType.SERVER_SENT_EVENTS)
+    @RolesAllowed({NOTIFICATIONS_READ})
+    public void stream(@HeaderParam("Last-Event-ID") String lastEventId,
+                       @Context SseEventSink sink, @Context Sse sse) {
+        String userId = jwtTokenUtils.extractSubjectFromJWT();
+        if (userId == null || userId.isBlank()) {
+            throw new WebApplicationException(Response.status(Response.Status.UNAUTHORIZED)
+                    .entity(new ErrorResponse("Authentication error", "User ID not found in token"))
+                    .build());
+        }
+
+        // Subscribe before reading so nothing delivered meanwhile is lost (a duplicate id is possible)
+        streamHub.subscribe(ThreadLocalStorage.getTenantID(), userId, sink, sse);
+        if (lastEventId != null && !lastEventId.isBlank()) {
+            for (Notification missed : notificationService.getNotificationsAfter(userId, lastEventId, streamReplayLimit)) {
+                sink.send(streamHub.notificationEvent(sse, missed));
+            }
+        }
+        sink.send(streamHub.unreadCountEvent(sse, notificationService.getUnreadCount(userId)));
+    }
+
     /**
      * Get a specific notification by ID
      * 
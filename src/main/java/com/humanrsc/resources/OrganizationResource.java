@@ -3,22 +3,37 @@ package com.humanrsc.resources;
 import com.humanrsc.datamodel.entities.*;
 import com.humanrsc.datamodel.entities.PositionCategory;
 import com.humanrsc.datamodel.abstraction.ObjectID;
+import com.humanrsc.datamodel.dto.CurrencyConversionItem;
+import com.humanrsc.datamodel.dto.SalaryAdjustmentRequest;
 import com.humanrsc.config.ThreadLocalStorage;
 import com.humanrsc.security.JWTSecured;
 import com.humanrsc.config.ConnectionPoolIntercepted;
 import com.humanrsc.config.ConfigDefaults;
 import com.humanrsc.services.OrganizationService;
 import com.humanrsc.services.CurrencyService;
+import com.humanrsc.services.EmployeeImportService;
+import com.humanrsc.services.OrgTreeSnapshot;
+import com.humanrsc.services.PayrollCostRollupService;
+import com.humanrsc.services.SalaryAdjustmentService;
 import jakarta.inject.Inject;
 import jakarta.ws.rs.*;
+import jakarta.ws.rs.core.CacheControl;
+import jakarta.ws.rs.core.Context;
+import jakarta.ws.rs.core.EntityTag;
 import jakarta.ws.rs.core.MediaType;
+import jakarta.ws.rs.core.Request;
 import jakarta.ws.rs.core.Response;
+import jakarta.ws.rs.core.StreamingOutput;
+import com.fasterxml.jackson.databind.ObjectMapper;
 import jakarta.annotation.security.RolesAllowed;
+import org.eclipse.microprofile.config.inject.ConfigProperty;
 import static com.humanrsc.security.Permissions.*;
 
 import java.math.BigDecimal;
 import java.time.LocalDate;
+import java.time.YearMonth;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
 
 @Path("/api/organization")
@@ -34,6 +49,21 @@ public class OrganizationResource {
     @Inject
     CurrencyService currencyService;
 
+    @Inject
+    EmployeeImportService employeeImportService;
+
+    @Inject
+    SalaryAdjustmentService salaryAdjustmentService;
+
+    @Inject
+    PayrollCostRollupService payrollCostRollupService;
+
+    @Inject
+    ObjectMapper objectMapper;
+
+    @ConfigProperty(name = "app.currency.convert-batch.max-items", defaultValue = "1000")
+    int maxBatchConversions;
+
     // ========== POSITION CATEGORIES ENDPOINTS ==========
 
     @POST
@@ -216,6 +246,37 @@ public class OrganizationResource {
         return Response.ok(childUnits).build();
     }
 
+    // Whole branch under a unit (the unit first, then by depth); maxDepth=1 is the unit plus its children
+    @GET
+    @Path("/units/{id}/subtree")
+    @RolesAllowed({READ_ORG_UNITS})
+    public Response getUnitSubtree(@PathParam("id") String id, @QueryParam("maxDepth") Integer maxDepth,
+                                   @Context Request request) {
+        OrgTreeSnapshot tree = organizationService.getOrgTree();
+        EntityTag etag = new EntityTag(tree.getEtag());
+        Response.ResponseBuilder notModified = request.evaluatePreconditions(etag);
+        if (notModified != null) {
+            return notModified.cacheControl(revalidate()).build();
+        }
+        List<OrganizationService.UnitWithCounts> subtree = tree.subtree(id, maxDepth);
+        if (subtree.isEmpty()) {
+            return Response.status(Response.Status.NOT_FOUND).build();
+        }
+        return Response.ok(subtree).tag(etag).cacheControl(revalidate()).build();
+    }
+
+    // Path from the root down to the unit itself
+    @GET
+    @Path("/units/{id}/ancestors")
+    @RolesAllowed({READ_ORG_UNITS})
+    public Response getUnitAncestors(@PathParam("id") String id) {
+        List<OrganizationService.UnitWithCounts> path = organizationService.findUnitAncestorPath(id);
+        if (path.isEmpty()) {
+            return Response.status(Response.Status.NOT_FOUND).build();
+        }
+        return Response.ok(path).build();
+    }
+
     @PUT
     @Path("/units/{id}")
     @RolesAllowed({WRITE_ORG_UNITS})
@@ -454,6 +515,8 @@ public class OrganizationResource {
     @Path("/employees")
     @RolesAllowed({READ_PEOPLE})
     public Response getAllEmployees(@QueryParam("page") Integer page, @QueryParam("size") Integer size,
+                                   // Keyset pagination: opaque cursor from X-Next-Cursor (empty to start)
+                                   @QueryParam("after") String after,
                                    @QueryParam("status") String status,
                                    @QueryParam("type") String employeeType,
                                    @QueryParam("contractType") String contractType,
@@ -588,6 +651,26 @@ public class OrganizationResource {
         int pageNum = page != null ? page : ConfigDefaults.DEFAULT_PAGE;
         int pageSize = size != null ? size : ConfigDefaults.DEFAULT_SIZE;
         
+        if (after != null) {
+            // Cursor mode: seek on (lastName, firstName, id) instead of OFFSET
+            com.humanrsc.datamodel.dto.EmployeeCursor cursor;
+            try {
+                cursor = after.isBlank() ? null : com.humanrsc.datamodel.dto.EmployeeCursor.decode(after);
+            } catch (IllegalArgumentException e) {
+                return Response.status(Response.Status.BAD_REQUEST)
+                        .entity(new ErrorResponse("Invalid cursor", e.getMessage(), "INVALID_CURSOR", "after", null))
+                        .build();
+            }
+            employees = organizationService.findEmployeesWithFiltersAfter(filters, cursor, pageSize);
+            
+            Response.ResponseBuilder response = Response.ok(employees);
+            if (employees.size() == pageSize) {
+                response.header("X-Next-Cursor", 
+                    com.humanrsc.datamodel.dto.EmployeeCursor.of(employees.get(employees.size() - 1)).encode());
+            }
+            return response.build();
+        }
+        
         if (filters.isEmpty()) {
             // No filters, use default method
             employees = organizationService.findAllEmployees(pageNum, pageSize);
@@ -599,6 +682,59 @@ public class OrganizationResource {
         return Response.ok(employees).build();
     }
 
+    @GET
+    @Path("/employees/export")
+    @Produces("application/x-ndjson")
+    @RolesAllowed({EXPORT_DATA})
+    public Response exportEmployees(@QueryParam("status") String status) {
+        java.util.Map<String, Object> filters = new java.util.HashMap<>();
+        if (status != null && !status.trim().isEmpty()) {
+            filters.put("status", status);
+        }
+        
+        // The body is written after this method returns, so the tenant is carried over explicitly
+        String tenantID = ThreadLocalStorage.getTenantID();
+        StreamingOutput body = output -> {
+            ThreadLocalStorage.setTenantID(tenantID);
+            try {
+                organizationService.exportEmployees(filters, row -> {
+                    try {
+                        output.write(objectMapper.writeValueAsBytes(row));
+                        output.write('\n');
+                    } catch (java.io.IOException e) {
+                        throw new java.io.UncheckedIOException(e);
+                    }
+                });
+                output.flush();
+            } catch (java.io.UncheckedIOException e) {
+                throw e.getCause();
+            } finally {
+                ThreadLocalStorage.clear();
+            }
+        };
+        
+        return Response.ok(body)
+                .header("Content-Disposition", "attachment; filename=\"employees.ndjson\"")
+                .build();
+    }
+
+    @POST
+    @Path("/employees/import")
+    @Consumes({"text/csv", "application/x-ndjson"})
+    @RolesAllowed({IMPORT_DATA})
+    public Response importEmployees(@HeaderParam("Content-Type") String contentType, java.io.InputStream body) {
+        String format = contentType != null && contentType.toLowerCase().startsWith("text/csv") 
+            ? EmployeeImportService.FORMAT_CSV : EmployeeImportService.FORMAT_NDJSON;
+        try {
+            EmployeeImportService.ImportResult result = employeeImportService.importEmployees(body, format);
+            return Response.ok(result).build();
+        } catch (java.io.IOException e) {
+            return Response.status(Response.Status.BAD_REQUEST)
+                    .entity(new ErrorResponse("Invalid import file", e.getMessage(), "INVALID_IMPORT_FILE"))
+                    .build();
+        }
+    }
+
     @GET
     @Path("/employees/active")
     @RolesAllowed({READ_PEOPLE})
@@ -718,6 +854,36 @@ public class OrganizationResource {
         return Response.ok(assignments).build();
     }
 
+    // Current assignments with the employee's name; by unit or position for rosters
+    @GET
+    @Path("/assignments/current")
+    @RolesAllowed({READ_ASSIGNMENTS})
+    public Response getCurrentAssignments(@QueryParam("page") Integer page, @QueryParam("size") Integer size) {
+        int pageNum = page != null ? page : ConfigDefaults.DEFAULT_PAGE;
+        int pageSize = size != null ? size : ConfigDefaults.DEFAULT_SIZE;
+        return Response.ok(organizationService.findCurrentAssignments(pageNum, pageSize)).build();
+    }
+
+    @GET
+    @Path("/assignments/unit/{unitId}")
+    @RolesAllowed({READ_ASSIGNMENTS})
+    public Response getUnitAssignments(@PathParam("unitId") String unitId,
+                                       @QueryParam("page") Integer page, @QueryParam("size") Integer size) {
+        int pageNum = page != null ? page : ConfigDefaults.DEFAULT_PAGE;
+        int pageSize = size != null ? size : ConfigDefaults.DEFAULT_SIZE;
+        return Response.ok(organizationService.findUnitAssignments(unitId, pageNum, pageSize)).build();
+    }
+
+    @GET
+    @Path("/assignments/position/{positionId}")
+    @RolesAllowed({READ_ASSIGNMENTS})
+    public Response getPositionAssignments(@PathParam("positionId") String positionId,
+                                           @QueryParam("page") Integer page, @QueryParam("size") Integer size) {
+        int pageNum = page != null ? page : ConfigDefaults.DEFAULT_PAGE;
+        int pageSize = size != null ? size : ConfigDefaults.DEFAULT_SIZE;
+        return Response.ok(organizationService.findPositionAssignments(positionId, pageNum, pageSize)).build();
+    }
+
     @GET
     @Path("/assignments/employee/{employeeId}/current")
     @RolesAllowed({READ_ASSIGNMENTS})
@@ -776,6 +942,23 @@ public class OrganizationResource {
         return Response.ok(stats).build();
     }
 
+    @GET
+    @Path("/stats/span-of-control")
+    @RolesAllowed({STATS_READ})
+    public Response getSpanOfControlStats() {
+        OrganizationService.SpanOfControlStats stats = organizationService.getSpanOfControlStats();
+        return Response.ok(stats).build();
+    }
+
+    // Organization, employee and structure stats in a single call for the dashboard
+    @GET
+    @Path("/stats/snapshot")
+    @RolesAllowed({STATS_READ})
+    public Response getOrganizationSnapshot() {
+        OrganizationService.OrganizationSnapshot snapshot = organizationService.getOrganizationSnapshot();
+        return Response.ok(snapshot).build();
+    }
+
     // Assignment statistics
     @GET
     @Path("/assignments/stats")
@@ -1072,14 +1255,47 @@ public class OrganizationResource {
         }
     }
 
+    @POST
+    @Path("/currency-rates/convert/batch")
+    @RolesAllowed({READ_SALARIES})
+    public Response convertAmounts(List<CurrencyConversionItem> items) {
+        if (items == null || items.isEmpty()) {
+            return Response.status(Response.Status.BAD_REQUEST)
+                    .entity(new ErrorResponse("Validation error", "At least one conversion is required"))
+                    .build();
+        }
+        if (items.size() > maxBatchConversions) {
+            return Response.status(Response.Status.BAD_REQUEST)
+                    .entity(new ErrorResponse("Validation error",
+                            "At most " + maxBatchConversions + " conversions per request"))
+                    .build();
+        }
+        return Response.ok(currencyService.convertBatch(items)).build();
+    }
+
     // ========== ORGANIZATION CHART ENDPOINTS ==========
 
     @GET
     @Path("/chart")
     @RolesAllowed({READ_ORG_UNITS, READ_PEOPLE})
-    public Response getOrganizationChart() {
-        OrganizationService.SimpleOrganizationChart chart = organizationService.getOrganizationChart();
-        return Response.ok(chart).build();
+    public Response getOrganizationChart(@Context Request request) {
+        // Served from the tenant snapshot; the ETag changes with every write that affects the chart
+        OrgTreeSnapshot tree = organizationService.getOrgTree();
+        EntityTag etag = new EntityTag(tree.getEtag());
+        Response.ResponseBuilder notModified = request.evaluatePreconditions(etag);
+        if (notModified != null) {
+            return notModified.cacheControl(revalidate()).build();
+        }
+        return Response.ok(tree.getChart()).tag(etag).cacheControl(revalidate()).build();
+    }
+
+    // Per-user data: browsers may keep it but must revalidate with If-None-Match before reusing it
+    private static CacheControl revalidate() {
+        CacheControl cacheControl = new CacheControl();
+        cacheControl.setPrivate(true);
+        cacheControl.setNoCache(true);
+        cacheControl.setNoTransform(false);
+        return cacheControl;
     }
 
     // ========== TEMPORARY REPLACEMENTS ENDPOINTS ==========
@@ -1261,6 +1477,27 @@ public class OrganizationResource {
         return Response.ok(increases).build();
     }
 
+    @GET
+    @Path("/salary-history/analytics")
+    @RolesAllowed({READ_SALARIES})
+    public Response getSalaryIncreaseAnalytics(@QueryParam("from") String from,
+                                               @QueryParam("to") String to) {
+        try {
+            OrganizationService.SalaryIncreaseAnalytics analytics = organizationService.getSalaryIncreaseAnalytics(
+                Optional.ofNullable(from).filter(s -> !s.isBlank()).map(LocalDate::parse),
+                Optional.ofNullable(to).filter(s -> !s.isBlank()).map(LocalDate::parse));
+            return Response.ok(analytics).build();
+        } catch (java.time.format.DateTimeParseException e) {
+            return Response.status(Response.Status.BAD_REQUEST)
+                    .entity(new ErrorResponse("Invalid date format", "Use YYYY-MM-DD format"))
+                    .build();
+        } catch (IllegalArgumentException e) {
+            return Response.status(Response.Status.BAD_REQUEST)
+                    .entity(new ErrorResponse("Invalid date range", e.getMessage()))
+                    .build();
+        }
+    }
+
     @GET
     @Path("/salary-history/decreases")
     @RolesAllowed({READ_SALARIES})
@@ -1291,40 +1528,172 @@ public class OrganizationResource {
         }
     }
 
+    // Bulk raise: dryRun returns the preview, otherwise the job starts and its progress is polled
+    @POST
+    @Path("/salary-adjustments")
+    @RolesAllowed({WRITE_SALARIES})
+    public Response startSalaryAdjustment(SalaryAdjustmentRequest request) {
+        try {
+            if (request != null && request.dryRun()) {
+                return Response.ok(salaryAdjustmentService.preview(request)).build();
+            }
+            SalaryAdjustmentService.AdjustmentJob job = salaryAdjustmentService.start(request);
+            return Response.accepted(job)
+                    .location(java.net.URI.create("/api/organization/salary-adjustments/" + job.getId()))
+                    .build();
+        } catch (IllegalArgumentException e) {
+            return Response.status(Response.Status.BAD_REQUEST)
+                    .entity(new ErrorResponse("Validation error", e.getMessage()))
+                    .build();
+        }
+    }
+
+    @GET
+    @Path("/salary-adjustments/{jobId}")
+    @RolesAllowed({READ_SALARIES})
+    public Response getSalaryAdjustment(@PathParam("jobId") String jobId) {
+        return salaryAdjustmentService.findJob(jobId)
+                .map(job -> Response.ok(job).build())
+                .orElse(Response.status(Response.Status.NOT_FOUND)
+                        .entity(new ErrorResponse("Not found", "Salary adjustment job not found"))
+                        .build());
+    }
+
+    // ========== PAYROLL COST SERIES ==========
+
+    @GET
+    @Path("/payroll-costs/monthly")
+    @RolesAllowed({READ_SALARIES})
+    public Response getMonthlyPayrollCosts(@QueryParam("from") String from,
+                                           @QueryParam("to") String to,
+                                           @QueryParam("unitId") String unitId,
+                                           @QueryParam("groupBy") String groupBy) {
+        try {
+            YearMonth toMonth = to != null && !to.isBlank() ? YearMonth.parse(to) : YearMonth.now();
+            YearMonth fromMonth = from != null && !from.isBlank() ? YearMonth.parse(from) : toMonth.minusMonths(11);
+            return Response.ok(payrollCostRollupService.findMonthly(fromMonth, toMonth, unitId, groupBy)).build();
+        } catch (java.time.format.DateTimeParseException e) {
+            return Response.status(Response.Status.BAD_REQUEST)
+                    .entity(new ErrorResponse("Invalid month format", "Use YYYY-MM format"))
+                    .build();
+        } catch (IllegalArgumentException e) {
+            return Response.status(Response.Status.BAD_REQUEST)
+                    .entity(new ErrorResponse("Invalid request", e.getMessage()))
+                    .build();
+        }
+    }
+
+    @POST
+    @Path("/payroll-costs/backfill")
+    @RolesAllowed({WRITE_SALARIES})
+    public Response backfillPayrollCosts(@QueryParam("from") String from) {
+        try {
+            Optional<YearMonth> fromMonth = Optional.ofNullable(from).filter(s -> !s.isBlank()).map(YearMonth::parse);
+            return payrollCostRollupService.backfill(fromMonth)
+                    .map(month -> Response.accepted(Map.of("fromMonth", month.toString())).build())
+                    .orElse(Response.noContent().build());
+        } catch (java.time.format.DateTimeParseException e) {
+            return Response.status(Response.Status.BAD_REQUEST)
+                    .entity(new ErrorResponse("Invalid month format", "Use YYYY-MM format"))
+                    .build();
+        } catch (IllegalArgumentException e) {
+            return Response.status(Response.Status.BAD_REQUEST)
+                    .entity(new ErrorResponse("Invalid request", e.getMessage()))
+                    .build();
+        }
+    }
+
     // ========== BUSINESS LOGIC ENDPOINTS ==========
 
     @GET
     @Path("/employees/manager/{managerId}")
     @RolesAllowed({READ_PEOPLE})
-    public Response getEmployeesByManager(@PathParam("managerId") String managerId) {
-        List<Employee> employees = organizationService.findEmployeesByManager(managerId);
+    public Response getEmployeesByManager(@PathParam("managerId") String managerId,
+                                     @QueryParam("page") Integer page, @QueryParam("size") Integer size) {
+        int pageNum = page != null ? page : ConfigDefaults.DEFAULT_PAGE;
+        int pageSize = size != null ? size : ConfigDefaults.DEFAULT_SIZE;
+        List<Employee> employees = organizationService.findEmployeesByManager(managerId, pageNum, pageSize);
         return Response.ok(employees).build();
     }
 
+    // Direct and indirect reports, closest levels first; maxDepth limits the levels walked down
+    @GET
+    @Path("/employees/manager/{managerId}/all-reports")
+    @RolesAllowed({READ_PEOPLE})
+    public Response getTransitiveReports(@PathParam("managerId") String managerId,
+                                         @QueryParam("maxDepth") Integer maxDepth,
+                                         @QueryParam("page") Integer page, @QueryParam("size") Integer size) {
+        int pageNum = page != null ? page : ConfigDefaults.DEFAULT_PAGE;
+        int pageSize = size != null ? size : ConfigDefaults.DEFAULT_SIZE;
+        try {
+            List<Employee> reports = organizationService.findTransitiveReports(managerId, maxDepth, pageNum, pageSize);
+            return Response.ok(reports)
+                    .header("X-Total-Count", organizationService.countTransitiveReports(managerId, maxDepth))
+                    .build();
+        } catch (IllegalArgumentException e) {
+            return Response.status(Response.Status.BAD_REQUEST)
+                    .entity(new ErrorResponse("Validation error", e.getMessage()))
+                    .build();
+        }
+    }
+
+    // Chain of command above the employee, from the direct manager to the top
+    @GET
+    @Path("/employees/{id}/management-chain")
+    @RolesAllowed({READ_PEOPLE})
+    public Response getManagementChain(@PathParam("id") String id) {
+        List<Employee> chain = organizationService.findManagementChain(id);
+        return Response.ok(chain).build();
+    }
+
     @GET
     @Path("/employees/unit/{unitId}")
     @RolesAllowed({READ_PEOPLE})
-    public Response getEmployeesByUnit(@PathParam("unitId") String unitId) {
-        List<Employee> employees = organizationService.findEmployeesByUnit(unitId);
+    public Response getEmployeesByUnit(@PathParam("unitId") String unitId,
+                                     @QueryParam("page") Integer page, @QueryParam("size") Integer size) {
+        int pageNum = page != null ? page : ConfigDefaults.DEFAULT_PAGE;
+        int pageSize = size != null ? size : ConfigDefaults.DEFAULT_SIZE;
+        List<Employee> employees = organizationService.findEmployeesByUnit(unitId, pageNum, pageSize);
         return Response.ok(employees).build();
     }
 
     @GET
     @Path("/employees/position/{positionId}")
     @RolesAllowed({READ_PEOPLE})
-    public Response getEmployeesByPosition(@PathParam("positionId") String positionId) {
-        List<Employee> employees = organizationService.findEmployeesByPosition(positionId);
+    public Response getEmployeesByPosition(@PathParam("positionId") String positionId,
+                                     @QueryParam("page") Integer page, @QueryParam("size") Integer size) {
+        int pageNum = page != null ? page : ConfigDefaults.DEFAULT_PAGE;
+        int pageSize = size != null ? size : ConfigDefaults.DEFAULT_SIZE;
+        List<Employee> employees = organizationService.findEmployeesByPosition(positionId, pageNum, pageSize);
         return Response.ok(employees).build();
     }
 
     @GET
     @Path("/positions/vacant")
     @RolesAllowed({READ_POSITIONS})
-    public Response getVacantPositions() {
-        List<JobPosition> vacantPositions = organizationService.findAllPositions().stream()
-                .filter(position -> organizationService.findEmployeesByPosition(position.getObjectID().getId()).isEmpty())
-                .toList();
-        return Response.ok(vacantPositions).build();
+    public Response getVacantPositions(@QueryParam("page") Integer page, @QueryParam("size") Integer size) {
+        int pageNum = page != null ? page : ConfigDefaults.DEFAULT_PAGE;
+        int pageSize = size != null ? size : ConfigDefaults.DEFAULT_SIZE;
+        List<JobPosition> vacantPositions = organizationService.findVacantPositions(pageNum, pageSize);
+        return Response.ok(vacantPositions)
+                .header("X-Total-Count", organizationService.countVacantPositions())
+                .build();
+    }
+
+    // ========== SEARCH ENDPOINTS ==========
+
+    // Ranked search box across employees, positions and units (top-K, pg_trgm backed)
+    @GET
+    @Path("/search")
+    @RolesAllowed({READ_PEOPLE})
+    public Response search(@QueryParam("q") String query, @QueryParam("limit") Integer limit) {
+        try {
+            return Response.ok(organizationService.search(query, limit)).build();
+        } catch (IllegalArgumentException e) {
+            return Response.status(Response.Status.BAD_REQUEST)
+                    .entity(new ErrorResponse("Invalid search", e.getMessage()))
+                    .build();
+        }
     }
 
     // ========== ORGANIZATIONAL LEVELS ENDPOINTS ==========
@@ -1,7 +1,7 @@
 package com.humanrsc.security;
 
 import com.humanrsc.config.ThreadLocalStorage;
-import com.humanrsc.services.TenantContextService;
+import com.humanrsc.config.TenantConnectionBinder;
 import jakarta.annotation.Priority;
 import jakarta.inject.Inject;
 import jakarta.interceptor.AroundInvoke;
@@ -27,25 +27,26 @@ public class JWTSecurityInterceptor {
     JwtTokenUtils jwtTokenUtils;
 
     @Inject
-    TenantContextService tenantContextService;
+    TenantConnectionBinder tenantConnectionBinder;
 
     @AroundInvoke
     public Object intercept(InvocationContext context) throws Exception {
+        tenantConnectionBinder.beginRequest();
         try {
             String tenantID = jwtTokenUtils.extractTenantFromJWT();
             if (tenantID != null && !tenantID.trim().isEmpty()) {
                 // LOG.debugf("Setting tenant context: %s", tenantID);
+                // The connection is bound on transaction begin (TenantConnectionBinder)
                 ThreadLocalStorage.setTenantID(tenantID);
-                tenantContextService.setTenantContext(tenantID);
-                // LOG.debugf("Tenant context set successfully: %s", tenantID);
             } else {
                 Log.warn("No tenant found in JWT, using default");
                 String defaultTenant = "demo-tenant";
                 ThreadLocalStorage.setTenantID(defaultTenant);
-                tenantContextService.setTenantContext(defaultTenant);
             }
             return context.proceed();
         } finally {
+            int setConfigCalls = tenantConnectionBinder.endRequest();
+            Log.debugf("set_config calls for %s: %d", context.getMethod().getName(), setConfigCalls);
             try { ThreadLocalStorage.clear(); } catch (Exception ignored) {}
         }
     }
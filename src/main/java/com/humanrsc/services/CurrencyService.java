@@ -1,8 +1,12 @@
 package com.humanrsc.services;
 
 import com.humanrsc.datamodel.abstraction.ObjectID;
+import com.humanrsc.datamodel.dto.CurrencyConversionItem;
+import com.humanrsc.datamodel.dto.CurrencyConversionResult;
 import com.humanrsc.datamodel.entities.CurrencyExchangeRate;
 import com.humanrsc.datamodel.repo.CurrencyExchangeRateRepository;
+import com.humanrsc.config.StatsInvalidating;
+import com.humanrsc.config.OrgTreeInvalidating;
 import com.humanrsc.config.ThreadLocalStorage;
 import jakarta.enterprise.context.ApplicationScoped;
 import jakarta.inject.Inject;
@@ -10,7 +14,10 @@ import jakarta.transaction.Transactional;
 
 import java.math.BigDecimal;
 import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
 import java.util.UUID;
 
@@ -20,9 +27,17 @@ public class CurrencyService {
     @Inject
     CurrencyExchangeRateRepository currencyExchangeRateRepository;
 
+    @Inject
+    ExchangeRateCache exchangeRateCache;
+
+    @Inject
+    PayrollCostRollupService payrollCostRollup;
+
     // ========== CRUD OPERATIONS ==========
 
     @Transactional
+    @StatsInvalidating
+    @OrgTreeInvalidating(OrgTreeInvalidating.Scope.COUNTS)
     public CurrencyExchangeRate createExchangeRate(CurrencyExchangeRate rate) {
         if (rate.getObjectID() == null) {
             String id = UUID.randomUUID().toString();
@@ -44,6 +59,9 @@ public class CurrencyService {
         }
         
         currencyExchangeRateRepository.persist(rate);
+        exchangeRateCache.invalidateAfterCommit();
+        // EUR payroll costs are priced with the rates effective at each month end
+        payrollCostRollup.markChanged(rate.getEffectiveDate());
         return rate;
     }
 
@@ -76,10 +94,13 @@ public class CurrencyService {
     }
 
     @Transactional
+    @StatsInvalidating
+    @OrgTreeInvalidating(OrgTreeInvalidating.Scope.COUNTS)
     public CurrencyExchangeRate updateExchangeRate(String id, CurrencyExchangeRate updatedRate) {
         Optional<CurrencyExchangeRate> existing = currencyExchangeRateRepository.findById(id);
         if (existing.isPresent()) {
             CurrencyExchangeRate rate = existing.get();
+            payrollCostRollup.markChanged(rate.getEffectiveDate(), updatedRate.getEffectiveDate());
             
             if (updatedRate.getFromCurrency() != null) {
                 rate.setFromCurrency(updatedRate.getFromCurrency());
@@ -107,30 +128,71 @@ public class CurrencyService {
             }
             
             rate.updateTimestamp();
+            exchangeRateCache.invalidateAfterCommit();
             return currencyExchangeRateRepository.getEntityManager().merge(rate);
         }
         throw new IllegalArgumentException("Exchange rate not found with id: " + id);
     }
 
     @Transactional
+    @StatsInvalidating
+    @OrgTreeInvalidating(OrgTreeInvalidating.Scope.COUNTS)
     public boolean deleteExchangeRate(String id) {
         Optional<CurrencyExchangeRate> rate = currencyExchangeRateRepository.findById(id);
         if (rate.isPresent()) {
             rate.get().deactivate();
             currencyExchangeRateRepository.getEntityManager().merge(rate.get());
+            exchangeRateCache.invalidateAfterCommit();
+            payrollCostRollup.markChanged(rate.get().getEffectiveDate());
             return true;
         }
         return false;
     }
 
     // ========== CONVERSION METHODS ==========
+    // Served from the in-memory rate table (ExchangeRateCache), with inverse and EUR cross rates
 
     public BigDecimal convertAmount(BigDecimal amount, String fromCurrency, String toCurrency) {
-        return currencyExchangeRateRepository.convertAmount(amount, fromCurrency, toCurrency);
+        return convertAmount(amount, fromCurrency, toCurrency, LocalDate.now());
     }
 
     public BigDecimal convertAmount(BigDecimal amount, String fromCurrency, String toCurrency, LocalDate date) {
-        return currencyExchangeRateRepository.convertAmount(amount, fromCurrency, toCurrency, date);
+        return exchangeRateCache.current().convert(amount, fromCurrency, toCurrency, date);
+    }
+
+    public Optional<BigDecimal> findConversionRate(String fromCurrency, String toCurrency, LocalDate date) {
+        return exchangeRateCache.current().findRate(fromCurrency, toCurrency, date);
+    }
+
+    /**
+     * Converts every item against one rate table, resolving each distinct (from, to, date) once.
+     * Results keep the order of the items; invalid items or missing rates fail only their own result.
+     */
+    public List<CurrencyConversionResult> convertBatch(List<CurrencyConversionItem> items) {
+        ExchangeRateTable rates = exchangeRateCache.current();
+        LocalDate today = LocalDate.now();
+        Map<RateKey, Optional<BigDecimal>> resolved = new HashMap<>();
+        List<CurrencyConversionResult> results = new ArrayList<>(items.size());
+
+        for (int i = 0; i < items.size(); i++) {
+            CurrencyConversionItem item = items.get(i);
+            LocalDate date = item != null && item.date() != null ? item.date() : today;
+            if (item == null || item.amount() == null || item.fromCurrency() == null || item.toCurrency() == null) {
+                results.add(CurrencyConversionResult.failed(i, item, date, "amount, fromCurrency and toCurrency are required"));
+                continue;
+            }
+            Optional<BigDecimal> rate = resolved.computeIfAbsent(
+                    new RateKey(item.fromCurrency(), item.toCurrency(), date),
+                    key -> rates.findRate(key.fromCurrency(), key.toCurrency(), key.date()));
+            results.add(rate.isPresent()
+                    ? CurrencyConversionResult.converted(i, item, date, rate.get())
+                    : CurrencyConversionResult.failed(i, item, date,
+                        "No exchange rate from " + item.fromCurrency() + " to " + item.toCurrency() + " on " + date));
+        }
+        return results;
+    }
+
+    private record RateKey(String fromCurrency, String toCurrency, LocalDate date) {
     }
 
     // ========== UTILITY METHODS ==========
@@ -0,0 +1,517 @@
+package com.humanrsc.services;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.humanrsc.config.OrgTreeInvalidating;
+import com.humanrsc.config.ThreadLocalStorage;
+import com.humanrsc.datamodel.abstraction.ObjectID;
+import com.humanrsc.datamodel.entities.Employee;
+import com.humanrsc.datamodel.repo.EmployeeRepository;
+import io.quarkus.logging.Log;
+import io.quarkus.narayana.jta.QuarkusTransaction;
+import jakarta.enterprise.context.ApplicationScoped;
+import jakarta.inject.Inject;
+import jakarta.validation.ConstraintViolation;
+import jakarta.validation.Validator;
+import org.eclipse.microprofile.config.inject.ConfigProperty;
+import org.hibernate.Session;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.UncheckedIOException;
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+
+/**
+ * Bulk employee import from CSV (with header row) or NDJSON.
+ *
+ * Rows are read in a streaming fashion and processed in chunks of {@code app.import.chunk-size}.
+ * Each chunk checks employeeId/email uniqueness with a single query, inserts the valid rows with
+ * Hibernate JDBC batching and commits in its own transaction, so a failing chunk never undoes the
+ * previous ones. Column/property names match the Employee fields (and the export format).
+ */
+@ApplicationScoped
+public class EmployeeImportService {
+
+    public static final String FORMAT_CSV = "csv";
+    public static final String FORMAT_NDJSON = "ndjson";
+
+    @Inject
+    EmployeeRepository employeeRepository;
+
+    @Inject
+    OrganizationService organizationService;
+
+    @Inject
+    StatsCache statsCache;
+
+    @Inject
+    OrgTreeCache orgTreeCache;
+
+    @Inject
+    PayrollCostRollupService payrollCostRollup;
+
+    @Inject
+    Validator validator;
+
+    @Inject
+    ObjectMapper objectMapper;
+
+    @ConfigProperty(name = "app.import.chunk-size", defaultValue = "500")
+    int chunkSize;
+
+    @ConfigProperty(name = "app.import.jdbc-batch-size", defaultValue = "50")
+    int jdbcBatchSize;
+
+    /**
+     * Imports every row of the input; invalid rows are reported and skipped, never fatal.
+     *
+     * @param input CSV or NDJSON content, UTF-8
+     * @param format {@link #FORMAT_CSV} or {@link #FORMAT_NDJSON}
+     * @return totals plus one error per rejected row
+     * @throws IOException if the input cannot be read (or the CSV has no header)
+     */
+    public ImportResult importEmployees(InputStream input, String format) throws IOException {
+        ImportProgress progress = new ImportProgress();
+
+        try (BufferedReader reader = new BufferedReader(new InputStreamReader(input, StandardCharsets.UTF_8))) {
+            Iterator<ImportRow> rows = FORMAT_CSV.equals(format) ? new CsvRows(reader) : new NdjsonRows(reader, objectMapper);
+            List<ImportRow> chunk = new ArrayList<>(chunkSize);
+            while (rows.hasNext()) {
+                chunk.add(rows.next());
+                if (chunk.size() >= chunkSize) {
+                    processChunk(chunk, progress);
+                    chunk.clear();
+                }
+            }
+            if (!chunk.isEmpty()) {
+                processChunk(chunk, progress);
+            }
+        } catch (UncheckedIOException e) {
+            throw e.getCause();
+        }
+
+        return new ImportResult(progress.totalRows, progress.imported, progress.errors.size(), progress.chunks, progress.errors);
+    }
+
+    private void processChunk(List<ImportRow> chunk, ImportProgress progress) {
+        progress.totalRows += chunk.size();
+        progress.chunks++;
+
+        // Per-row checks that need no database access
+        List<Candidate> candidates = new ArrayList<>(chunk.size());
+        for (ImportRow row : chunk) {
+            RowError error = row.parseError();
+            Employee employee = null;
+            if (error == null) {
+                try {
+                    employee = toEmployee(row);
+                    error = validate(row.rowNumber(), employee);
+                } catch (RowErrorException e) {
+                    error = e.error;
+                }
+            }
+            if (error == null && !progress.seenEmployeeIds.add(employee.getEmployeeId())) {
+                error = new RowError(row.rowNumber(), employee.getEmployeeId(), "employeeId", "DUPLICATE_IN_FILE",
+                    "Employee ID appears more than once in the import");
+            }
+            if (error == null && !progress.seenEmails.add(employee.getEmail())) {
+                error = new RowError(row.rowNumber(), employee.getEmployeeId(), "email", "DUPLICATE_IN_FILE",
+                    "Email appears more than once in the import");
+            }
+
+            if (error != null) {
+                progress.errors.add(error);
+            } else {
+                candidates.add(new Candidate(row.rowNumber(), employee));
+            }
+        }
+
+        if (candidates.isEmpty()) {
+            return;
+        }
+
+        try {
+            List<RowError> conflicts = QuarkusTransaction.requiringNew().call(() -> persistChunk(candidates));
+            progress.errors.addAll(conflicts);
+            progress.imported += candidates.size() - conflicts.size();
+            statsCache.invalidateTenant(ThreadLocalStorage.getTenantID());
+            orgTreeCache.invalidate(ThreadLocalStorage.getTenantID(), OrgTreeInvalidating.Scope.COUNTS);
+        } catch (Exception e) {
+            Log.warnf("Employee import chunk %d failed: %s", progress.chunks, e.getMessage());
+            for (Candidate candidate : candidates) {
+                progress.errors.add(new RowError(candidate.rowNumber(), candidate.employee().getEmployeeId(), null,
+                    "CHUNK_FAILED", "The chunk containing this row could not be saved: " + e.getMessage()));
+            }
+        }
+    }
+
+    // Runs inside the chunk transaction: one uniqueness query, then batched inserts
+    private List<RowError> persistChunk(List<Candidate> candidates) {
+        Set<String> employeeIds = new HashSet<>();
+        Set<String> emails = new HashSet<>();
+        for (Candidate candidate : candidates) {
+            employeeIds.add(candidate.employee().getEmployeeId());
+            emails.add(candidate.employee().getEmail());
+        }
+
+        Map<String, EmployeeRepository.EmployeeIdentity> existingByEmployeeId = new HashMap<>();
+        Set<String> existingEmails = new HashSet<>();
+        for (EmployeeRepository.EmployeeIdentity identity : employeeRepository.findIdentityConflicts(employeeIds, emails)) {
+            existingByEmployeeId.put(identity.employeeId(), identity);
+            existingEmails.add(identity.email());
+        }
+
+        Session session = employeeRepository.getEntityManager().unwrap(Session.class);
+        session.setJdbcBatchSize(jdbcBatchSize);
+
+        List<RowError> conflicts = new ArrayList<>();
+        for (Candidate candidate : candidates) {
+            Employee employee = candidate.employee();
+            RowError conflict = checkConflict(candidate.rowNumber(), employee, 
+                existingByEmployeeId.get(employee.getEmployeeId()), existingEmails.contains(employee.getEmail()));
+            if (conflict != null) {
+                conflicts.add(conflict);
+            } else {
+                employeeRepository.persist(employee);
+                payrollCostRollup.markChanged(employee.getHireDate());
+            }
+        }
+
+        session.flush();
+        session.clear();
+        return conflicts;
+    }
+
+    // Same outcomes as OrganizationService.createEmployee, reported per row instead of thrown
+    private RowError checkConflict(int rowNumber, Employee employee, EmployeeRepository.EmployeeIdentity existing, boolean emailTaken) {
+        if (existing != null) {
+            if (Employee.STATUS_TERMINATED.equals(existing.status())) {
+                return new RowError(rowNumber, employee.getEmployeeId(), "employeeId", "EMPLOYEE_TERMINATED",
+                    String.format("Employee with ID '%s' exists but is terminated (termination date: %s)", 
+                        employee.getEmployeeId(), existing.terminationDate()));
+            }
+            if (Employee.STATUS_RESIGNED.equals(existing.status())) {
+                return new RowError(rowNumber, employee.getEmployeeId(), "employeeId", "EMPLOYEE_RESIGNED",
+                    String.format("Employee with ID '%s' exists but is resigned (resignation date: %s)", 
+                        employee.getEmployeeId(), existing.terminationDate()));
+            }
+            return new RowError(rowNumber, employee.getEmployeeId(), "employeeId", "DUPLICATE_RESOURCE",
+                String.format("Employee with employeeId '%s' already exists", employee.getEmployeeId()));
+        }
+        if (emailTaken) {
+            return new RowError(rowNumber, employee.getEmployeeId(), "email", "DUPLICATE_RESOURCE",
+                String.format("Employee with email '%s' already exists", employee.getEmail()));
+        }
+        return null;
+    }
+
+    private RowError validate(int rowNumber, Employee employee) {
+        Set<ConstraintViolation<Employee>> violations = validator.validate(employee);
+        if (!violations.isEmpty()) {
+            ConstraintViolation<Employee> violation = violations.iterator().next();
+            return new RowError(rowNumber, employee.getEmployeeId(), violation.getPropertyPath().toString(),
+                "VALIDATION_ERROR", violation.getMessage());
+        }
+        try {
+            organizationService.validateEmployeeFields(employee);
+        } catch (com.humanrsc.exceptions.EmployeeValidationException e) {
+            return new RowError(rowNumber, employee.getEmployeeId(), e.getField(), e.getErrorCode(), e.getMessage());
+        }
+        return null;
+    }
+
+    private Employee toEmployee(ImportRow row) {
+        Map<String, String> values = row.values();
+        Employee employee = new Employee();
+        employee.setObjectID(ObjectID.of(UUID.randomUUID().toString(), ThreadLocalStorage.getTenantID()));
+        employee.setEmployeeId(values.get("employeeId"));
+        employee.setFirstName(values.get("firstName"));
+        employee.setLastName(values.get("lastName"));
+        employee.setEmail(values.get("email"));
+        employee.setGender(values.get("gender"));
+        employee.setNationalId(values.get("nationalId"));
+        employee.setTaxId(values.get("taxId"));
+        employee.setContractType(values.get("contractType"));
+        employee.setDateOfBirth(parseDate(row, "dateOfBirth"));
+        employee.setHireDate(parseDate(row, "hireDate"));
+        employee.setTerminationDate(parseDate(row, "terminationDate"));
+        employee.setCurrentSalary(parseDecimal(row, "currentSalary"));
+        if (values.get("employeeType") != null) {
+            employee.setEmployeeType(values.get("employeeType"));
+        }
+        if (values.get("currency") != null) {
+            employee.setCurrency(values.get("currency"));
+        }
+        if (values.get("status") != null) {
+            employee.setStatus(values.get("status"));
+        }
+        return employee;
+    }
+
+    private LocalDate parseDate(ImportRow row, String field) {
+        String value = row.values().get(field);
+        if (value == null) {
+            return null;
+        }
+        try {
+            return LocalDate.parse(value);
+        } catch (java.time.format.DateTimeParseException e) {
+            throw new RowErrorException(new RowError(row.rowNumber(), row.values().get("employeeId"), field,
+                "INVALID_FORMAT", "Use YYYY-MM-DD format"));
+        }
+    }
+
+    private BigDecimal parseDecimal(ImportRow row, String field) {
+        String value = row.values().get(field);
+        if (value == null) {
+            return null;
+        }
+        try {
+            return new BigDecimal(value);
+        } catch (NumberFormatException e) {
+            throw new RowErrorException(new RowError(row.rowNumber(), row.values().get("employeeId"), field,
+                "INVALID_FORMAT", "Not a valid number: " + value));
+        }
+    }
+
+    // ========== ROW READERS ==========
+
+    private record ImportRow(int rowNumber, Map<String, String> values, RowError parseError) {
+    }
+
+    private record Candidate(int rowNumber, Employee employee) {
+    }
+
+    private static class RowErrorException extends RuntimeException {
+        private final RowError error;
+
+        RowErrorException(RowError error) {
+            super(error.getMessage());
+            this.error = error;
+        }
+    }
+
+    /**
+     * CSV with a header row; supports quoted fields with embedded commas, quotes ("") and newlines
+     */
+    private static class CsvRows implements Iterator<ImportRow> {
+        private final BufferedReader reader;
+        private final List<String> header;
+        private int rowNumber;
+        private List<String> next;
+
+        CsvRows(BufferedReader reader) throws IOException {
+            this.reader = reader;
+            List<String> headerFields = readRecord();
+            if (headerFields == null) {
+                throw new IOException("CSV input is empty; a header row is required");
+            }
+            if (!headerFields.isEmpty() && headerFields.get(0).startsWith("\uFEFF")) {
+                headerFields.set(0, headerFields.get(0).substring(1));
+            }
+            this.header = headerFields.stream().map(String::trim).toList();
+            this.next = readRecord();
+        }
+
+        @Override
+        public boolean hasNext() {
+            return next != null;
+        }
+
+        @Override
+        public ImportRow next() {
+            List<String> fields = next;
+            rowNumber++;
+            try {
+                next = readRecord();
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+
+            if (fields.size() != header.size()) {
+                return new ImportRow(rowNumber, Map.of(), new RowError(rowNumber, null, null, "INVALID_FORMAT",
+                    String.format("Expected %d columns but found %d", header.size(), fields.size())));
+            }
+            Map<String, String> values = new HashMap<>();
+            for (int i = 0; i < header.size(); i++) {
+                String value = fields.get(i).trim();
+                values.put(header.get(i), value.isEmpty() ? null : value);
+            }
+            return new ImportRow(rowNumber, values, null);
+        }
+
+        // Reads one logical record, skipping blank lines; null at end of input
+        private List<String> readRecord() throws IOException {
+            String line;
+            do {
+                line = reader.readLine();
+                if (line == null) {
+                    return null;
+                }
+            } while (line.isBlank());
+
+            List<String> fields = new ArrayList<>();
+            StringBuilder field = new StringBuilder();
+            boolean quoted = false;
+            while (true) {
+                for (int i = 0; i < line.length(); i++) {
+                    char c = line.charAt(i);
+                    if (quoted) {
+                        if (c == '"' && i + 1 < line.length() && line.charAt(i + 1) == '"') {
+                            field.append('"');
+                            i++;
+                        } else if (c == '"') {
+                            quoted = false;
+                        } else {
+                            field.append(c);
+                        }
+                    } else if (c == '"') {
+                        quoted = true;
+                    } else if (c == ',') {
+                        fields.add(field.toString());
+                        field.setLength(0);
+                    } else {
+                        field.append(c);
+                    }
+                }
+                if (!quoted) {
+                    break;
+                }
+                // Quoted field spanning several lines
+                line = reader.readLine();
+                if (line == null) {
+                    break;
+                }
+                field.append('\n');
+            }
+            fields.add(field.toString());
+            return fields;
+        }
+    }
+
+    /**
+     * One JSON object per line; blank lines are ignored
+     */
+    private static class NdjsonRows implements Iterator<ImportRow> {
+        private final BufferedReader reader;
+        private final ObjectMapper objectMapper;
+        private int rowNumber;
+        private String next;
+
+        NdjsonRows(BufferedReader reader, ObjectMapper objectMapper) throws IOException {
+            this.reader = reader;
+            this.objectMapper = objectMapper;
+            this.next = readLine();
+        }
+
+        @Override
+        public boolean hasNext() {
+            return next != null;
+        }
+
+        @Override
+        public ImportRow next() {
+            String line = next;
+            rowNumber++;
+            try {
+                next = readLine();
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+
+            try {
+                JsonNode node = objectMapper.readTree(line);
+                if (!node.isObject()) {
+                    return new ImportRow(rowNumber, Map.of(), new RowError(rowNumber, null, null, "INVALID_FORMAT",
+                        "Each line must be a JSON object"));
+                }
+                Map<String, String> values = new HashMap<>();
+                node.fields().forEachRemaining(entry -> {
+                    JsonNode value = entry.getValue();
+                    values.put(entry.getKey(), value.isNull() ? null : value.asText());
+                });
+                return new ImportRow(rowNumber, values, null);
+            } catch (com.fasterxml.jackson.core.JsonProcessingException e) {
+                return new ImportRow(rowNumber, Map.of(), new RowError(rowNumber, null, null, "INVALID_FORMAT",
+                    "Invalid JSON: " + e.getOriginalMessage()));
+            }
+        }
+
+        private String readLine() throws IOException {
+            String line;
+            do {
+                line = reader.readLine();
+            } while (line != null && line.isBlank());
+            return line;
+        }
+    }
+
+    // ========== RESULT CLASSES ==========
+
+    private static class ImportProgress {
+        int totalRows;
+        int imported;
+        int chunks;
+        final List<RowError> errors = new ArrayList<>();
+        final Set<String> seenEmployeeIds = new HashSet<>();
+        final Set<String> seenEmails = new HashSet<>();
+    }
+
+    public static class ImportResult {
+        private final int totalRows;
+        private final int imported;
+        private final int failed;
+        private final int chunks;
+        private final List<RowError> errors;
+
+        public ImportResult(int totalRows, int imported, int failed, int chunks, List<RowError> errors) {
+            this.totalRows = totalRows;
+            this.imported = imported;
+            this.failed = failed;
+            this.chunks = chunks;
+            this.errors = errors;
+        }
+
+        // Getters
+        public int getTotalRows() { return totalRows; }
+        public int getImported() { return imported; }
+        public int getFailed() { return failed; }
+        public int getChunks() { return chunks; }
+        public List<RowError> getErrors() { return errors; }
+    }
+
+    public static class RowError {
+        private final int row;
+        private final String employeeId;
+        private final String field;
+        private final String errorCode;
+        private final String message;
+
+        public RowError(int row, String employeeId, String field, String errorCode, String message) {
+            this.row = row;
+            this.employeeId = employeeId;
+            this.field = field;
+            this.errorCode = errorCode;
+            this.message = message;
+        }
+
+        // Getters
+        public int getRow() { return row; }
+        public String getEmployeeId() { return employeeId; }
+        public String getField() { return field; }
+        public String getErrorCode() { return errorCode; }
+        public String getMessage() { return message; }
+    }
+}
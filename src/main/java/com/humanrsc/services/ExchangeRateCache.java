@@ -0,0 +1,123 @@
+package com.humanrsc.services;
+
+import com.humanrsc.config.ThreadLocalStorage;
+import com.humanrsc.datamodel.repo.CurrencyExchangeRateRepository;
+import jakarta.annotation.PostConstruct;
+import jakarta.enterprise.context.ApplicationScoped;
+import jakarta.inject.Inject;
+import jakarta.transaction.Status;
+import jakarta.transaction.Synchronization;
+import jakarta.transaction.TransactionSynchronizationRegistry;
+import org.eclipse.microprofile.config.inject.ConfigProperty;
+import org.eclipse.microprofile.metrics.MetricRegistry;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Exchange rate table per tenant, so conversions never query the database.
+ *
+ * The table is loaded with one query on first use and reloaded after CurrencyService writes
+ * (invalidated once their transaction commits) or after {@code app.currency.rate-cache.ttl-seconds},
+ * which bounds how long a write made on another node goes unseen. As in OrgTreeCache, loads of a
+ * tenant are serialized and a per-tenant version keeps a table loaded before a write from being used.
+ */
+@ApplicationScoped
+public class ExchangeRateCache {
+
+    @Inject
+    CurrencyExchangeRateRepository currencyExchangeRateRepository;
+
+    @Inject
+    TransactionSynchronizationRegistry synchronizationRegistry;
+
+    @Inject
+    MetricRegistry metricRegistry;
+
+    @ConfigProperty(name = "app.currency.rate-cache.ttl-seconds", defaultValue = "300")
+    long ttlSeconds;
+
+    private final Map<String, TenantRates> tenants = new ConcurrentHashMap<>();
+
+    @PostConstruct
+    void init() {
+        metricRegistry.gauge("exchange_rates.tenants", this, cache -> cache.tenants.size());
+    }
+
+    /**
+     * Rate table of the tenant in context. Without a tenant in context it is loaded directly.
+     */
+    public ExchangeRateTable current() {
+        String tenantID = ThreadLocalStorage.getTenantID();
+        if (tenantID == null || tenantID.trim().isEmpty()) {
+            return load();
+        }
+
+        TenantRates rates = tenants.computeIfAbsent(tenantID, t -> new TenantRates());
+        if (rates.isFresh(ttlSeconds)) {
+            metricRegistry.counter("exchange_rates.hits").inc();
+            return rates.table;
+        }
+        synchronized (rates) {
+            if (rates.isFresh(ttlSeconds)) {
+                metricRegistry.counter("exchange_rates.hits").inc();
+                return rates.table;
+            }
+            long version = rates.version.get();
+            ExchangeRateTable table = load();
+            metricRegistry.counter("exchange_rates.loads").inc();
+            rates.table = table;
+            rates.builtAt = version;
+            rates.loadedAt = System.currentTimeMillis();
+            return table;
+        }
+    }
+
+    /**
+     * Drops the table of the tenant in context once the current transaction commits
+     */
+    public void invalidateAfterCommit() {
+        String tenantID = ThreadLocalStorage.getTenantID();
+        if (tenantID == null) {
+            return;
+        }
+        int status = synchronizationRegistry.getTransactionStatus();
+        if (status != Status.STATUS_ACTIVE && status != Status.STATUS_MARKED_ROLLBACK) {
+            invalidate(tenantID);
+            return;
+        }
+        synchronizationRegistry.registerInterposedSynchronization(new Synchronization() {
+            @Override
+            public void beforeCompletion() {
+            }
+
+            @Override
+            public void afterCompletion(int completionStatus) {
+                if (completionStatus == Status.STATUS_COMMITTED) {
+                    invalidate(tenantID);
+                }
+            }
+        });
+    }
+
+    public void invalidate(String tenantID) {
+        tenants.computeIfAbsent(tenantID, t -> new TenantRates()).version.incrementAndGet();
+    }
+
+    private ExchangeRateTable load() {
+        return ExchangeRateTable.of(currencyExchangeRateRepository.findActiveRates());
+    }
+
+    private static final class TenantRates {
+        private volatile ExchangeRateTable table;
+        private volatile long builtAt = -1;
+        private final AtomicLong version = new AtomicLong();
+        private volatile long loadedAt;
+
+        boolean isFresh(long ttlSeconds) {
+            return table != null && builtAt == version.get()
+                && System.currentTimeMillis() - loadedAt < ttlSeconds * 1000;
+        }
+    }
+}
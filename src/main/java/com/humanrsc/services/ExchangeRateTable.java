@@ -0,0 +1,127 @@
+package com.humanrsc.services;
+
+import com.humanrsc.datamodel.entities.CurrencyExchangeRate;
+
+import java.math.BigDecimal;
+import java.math.MathContext;
+import java.math.RoundingMode;
+import java.time.LocalDate;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.NavigableMap;
+import java.util.Optional;
+import java.util.TreeMap;
+
+/**
+ * Immutable exchange rates of one tenant: for every (from, to) pair, its active rates indexed by
+ * effective date. A lookup for a date takes the latest rate effective on or before it that has not
+ * expired, the same rule as CurrencyExchangeRateRepository.findValidRate.
+ *
+ * When the pair has no rate the inverse pair is used, and failing that the rate is derived through
+ * EUR (from -> EUR -> to, each leg direct or inverse), so storing every currency against EUR is enough.
+ */
+public final class ExchangeRateTable {
+
+    public static final String PIVOT_CURRENCY = "EUR";
+
+    // Derived rates (inverse, cross) keep 10 decimals; stored rates have 6
+    private static final int DERIVED_RATE_SCALE = 10;
+
+    private final Map<CurrencyPair, NavigableMap<LocalDate, CurrencyExchangeRate>> rates;
+
+    private ExchangeRateTable(Map<CurrencyPair, NavigableMap<LocalDate, CurrencyExchangeRate>> rates) {
+        this.rates = rates;
+    }
+
+    /**
+     * Builds the table from the tenant's active rates. With two rates of a pair on the same
+     * effective date the most recently created one wins.
+     */
+    public static ExchangeRateTable of(List<CurrencyExchangeRate> activeRates) {
+        Map<CurrencyPair, NavigableMap<LocalDate, CurrencyExchangeRate>> rates = new HashMap<>();
+        for (CurrencyExchangeRate rate : activeRates) {
+            if (rate.getExchangeRate() == null || rate.getExchangeRate().signum() <= 0) {
+                continue;
+            }
+            rates.computeIfAbsent(new CurrencyPair(rate.getFromCurrency(), rate.getToCurrency()), p -> new TreeMap<>())
+                .merge(rate.getEffectiveDate(), rate, ExchangeRateTable::newer);
+        }
+        return new ExchangeRateTable(rates);
+    }
+
+    /**
+     * Rate to multiply an amount in {@code fromCurrency} by to get {@code toCurrency} on {@code date}
+     */
+    public Optional<BigDecimal> findRate(String fromCurrency, String toCurrency, LocalDate date) {
+        if (fromCurrency == null || toCurrency == null || date == null) {
+            return Optional.empty();
+        }
+        if (fromCurrency.equals(toCurrency)) {
+            return Optional.of(BigDecimal.ONE);
+        }
+        BigDecimal rate = directOrInverse(fromCurrency, toCurrency, date);
+        if (rate == null && !PIVOT_CURRENCY.equals(fromCurrency) && !PIVOT_CURRENCY.equals(toCurrency)) {
+            BigDecimal toPivot = directOrInverse(fromCurrency, PIVOT_CURRENCY, date);
+            BigDecimal fromPivot = toPivot != null ? directOrInverse(PIVOT_CURRENCY, toCurrency, date) : null;
+            if (fromPivot != null) {
+                rate = toPivot.multiply(fromPivot).setScale(DERIVED_RATE_SCALE, RoundingMode.HALF_UP);
+            }
+        }
+        return Optional.ofNullable(rate);
+    }
+
+    /**
+     * Converts an amount; zero when no rate can be found (same as the repository conversion)
+     */
+    public BigDecimal convert(BigDecimal amount, String fromCurrency, String toCurrency, LocalDate date) {
+        if (amount == null || fromCurrency == null || toCurrency == null) {
+            return BigDecimal.ZERO;
+        }
+        if (fromCurrency.equals(toCurrency)) {
+            return amount;
+        }
+        return findRate(fromCurrency, toCurrency, date).map(amount::multiply).orElse(BigDecimal.ZERO);
+    }
+
+    public int pairCount() {
+        return rates.size();
+    }
+
+    private BigDecimal directOrInverse(String fromCurrency, String toCurrency, LocalDate date) {
+        CurrencyExchangeRate direct = validOn(new CurrencyPair(fromCurrency, toCurrency), date);
+        if (direct != null) {
+            return direct.getExchangeRate();
+        }
+        CurrencyExchangeRate inverse = validOn(new CurrencyPair(toCurrency, fromCurrency), date);
+        if (inverse != null) {
+            return BigDecimal.ONE.divide(inverse.getExchangeRate(), MathContext.DECIMAL64)
+                .setScale(DERIVED_RATE_SCALE, RoundingMode.HALF_UP);
+        }
+        return null;
+    }
+
+    // Latest rate effective on or before the date that has not expired by then
+    private CurrencyExchangeRate validOn(CurrencyPair pair, LocalDate date) {
+        NavigableMap<LocalDate, CurrencyExchangeRate> byDate = rates.get(pair);
+        if (byDate == null) {
+            return null;
+        }
+        for (CurrencyExchangeRate rate : byDate.headMap(date, true).descendingMap().values()) {
+            if (rate.getExpiryDate() == null || rate.getExpiryDate().isAfter(date)) {
+                return rate;
+            }
+        }
+        return null;
+    }
+
+    private static CurrencyExchangeRate newer(CurrencyExchangeRate a, CurrencyExchangeRate b) {
+        if (a.getDateCreated() == null) {
+            return b;
+        }
+        return b.getDateCreated() != null && b.getDateCreated().isAfter(a.getDateCreated()) ? b : a;
+    }
+
+    private record CurrencyPair(String from, String to) {
+    }
+}
@@ -0,0 +1,192 @@
+package com.humanrsc.services;
+
+import com.humanrsc.config.TenantConnectionBinder;
+import com.humanrsc.datamodel.abstraction.ObjectID;
+import com.humanrsc.datamodel.entities.Notification;
+import com.humanrsc.datamodel.entities.NotificationOutbox;
+import com.humanrsc.datamodel.repo.NotificationOutboxRepository;
+import com.humanrsc.datamodel.repo.NotificationRepository;
+import io.quarkus.logging.Log;
+import io.quarkus.narayana.jta.QuarkusTransaction;
+import io.quarkus.scheduler.Scheduled;
+import jakarta.annotation.PostConstruct;
+import jakarta.enterprise.context.ApplicationScoped;
+import jakarta.inject.Inject;
+import org.eclipse.microprofile.config.inject.ConfigProperty;
+import org.eclipse.microprofile.metrics.MetricRegistry;
+import org.eclipse.microprofile.metrics.Timer;
+import org.hibernate.Session;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+
+/**
+ * Moves queued notifications from the outbox to the notifications table.
+ *
+ * Each run drains the outbox in batches of {@code app.notifications.outbox.batch-size}: a batch is
+ * claimed with FOR UPDATE SKIP LOCKED (several instances can run side by side), inserted with JDBC
+ * batching, one flush per tenant with that tenant bound for RLS, and deleted from the outbox in the
+ * same transaction, which also announces the new notifications to open streams (NotificationStreamHub).
+ * If a batch fails its rows are retried one by one so a single bad row cannot
+ * block the rest; rows failing {@code app.notifications.outbox.max-attempts} times are left aside.
+ *
+ * Metrics: notifications.outbox.delivered (meter, throughput), notifications.outbox.delivery_lag_ms
+ * (histogram, enqueue to delivery), notifications.outbox.pending / lag_seconds / dead (gauges).
+ */
+@ApplicationScoped
+public class NotificationDispatcher {
+
+    @Inject
+    NotificationOutboxRepository outboxRepository;
+
+    @Inject
+    NotificationRepository notificationRepository;
+
+    @Inject
+    TenantConnectionBinder tenantConnectionBinder;
+
+    @Inject
+    NotificationStreamHub streamHub;
+
+    @Inject
+    UnreadCounterCache unreadCounters;
+
+    @Inject
+    MetricRegistry metricRegistry;
+
+    @ConfigProperty(name = "app.notifications.outbox.batch-size", defaultValue = "200")
+    int batchSize;
+
+    @ConfigProperty(name = "app.notifications.outbox.max-attempts", defaultValue = "5")
+    int maxAttempts;
+
+    private volatile long pending;
+    private volatile double lagSeconds;
+    private volatile long dead;
+
+    @PostConstruct
+    void init() {
+        metricRegistry.gauge("notifications.outbox.pending", this, dispatcher -> dispatcher.pending);
+        metricRegistry.gauge("notifications.outbox.lag_seconds", this, dispatcher -> dispatcher.lagSeconds);
+        metricRegistry.gauge("notifications.outbox.dead", this, dispatcher -> dispatcher.dead);
+    }
+
+    @Scheduled(every = "${app.notifications.outbox.poll-interval:2s}",
+               concurrentExecution = Scheduled.ConcurrentExecution.SKIP)
+    void dispatch() {
+        int delivered;
+        do {
+            delivered = dispatchBatch();
+        } while (delivered >= batchSize);
+        refreshBacklog();
+    }
+
+    /**
+     * Delivers the next batch and returns how many notifications were delivered
+     */
+    int dispatchBatch() {
+        try (Timer.Context ignored = metricRegistry.timer("notifications.outbox.batch_time").time()) {
+            return QuarkusTransaction.requiringNew().call(() -> deliver(outboxRepository.claimBatch(batchSize, maxAttempts)));
+        } catch (Exception e) {
+            Log.warnf("Notification outbox batch failed, retrying row by row: %s", e.getMessage());
+            return deliverOneByOne();
+        }
+    }
+
+    private int deliverOneByOne() {
+        List<Long> ids = QuarkusTransaction.requiringNew().call(() -> outboxRepository.peekIds(batchSize, maxAttempts));
+        int delivered = 0;
+        for (Long id : ids) {
+            try {
+                delivered += QuarkusTransaction.requiringNew().call(() -> deliver(outboxRepository.claimById(id)));
+            } catch (Exception e) {
+                Log.warnf("Notification outbox row %d could not be delivered: %s", id, e.getMessage());
+                metricRegistry.counter("notifications.outbox.failures").inc();
+                QuarkusTransaction.requiringNew().run(() -> outboxRepository.markFailed(id, e.getMessage()));
+            }
+        }
+        return delivered;
+    }
+
+    private int deliver(List<NotificationOutbox> rows) {
+        if (rows.isEmpty()) {
+            return 0;
+        }
+        notificationRepository.getEntityManager().unwrap(Session.class).setJdbcBatchSize(batchSize);
+
+        Map<String, List<NotificationOutbox>> byTenant = new LinkedHashMap<>();
+        for (NotificationOutbox row : rows) {
+            byTenant.computeIfAbsent(row.getTenantId(), t -> new ArrayList<>()).add(row);
+        }
+        // The notifications RLS policy checks every insert against the tenant bound to the transaction
+        for (Map.Entry<String, List<NotificationOutbox>> tenantRows : byTenant.entrySet()) {
+            tenantConnectionBinder.bind(tenantRows.getKey());
+            List<Notification> notifications = new ArrayList<>(tenantRows.getValue().size());
+            for (NotificationOutbox row : tenantRows.getValue()) {
+                Notification notification = toNotification(row);
+                notificationRepository.persist(notification);
+                notifications.add(notification);
+            }
+            notificationRepository.flush();
+            announce(tenantRows.getKey(), notifications);
+        }
+        // The outbox is deleted through a SECURITY DEFINER function, whichever tenant is bound now
+        outboxRepository.deleteByIds(rows.stream().map(NotificationOutbox::getId).toList());
+
+        LocalDateTime now = LocalDateTime.now();
+        for (NotificationOutbox row : rows) {
+            metricRegistry.histogram("notifications.outbox.delivery_lag_ms")
+                .update(Duration.between(row.getCreatedAt(), now).toMillis());
+        }
+        metricRegistry.meter("notifications.outbox.delivered").mark(rows.size());
+        return rows.size();
+    }
+
+    // Open streams get each new notification with the recipient's unread count after the batch;
+    // cached unread counters grow by the user's share of the batch once it commits
+    private void announce(String tenantId, List<Notification> notifications) {
+        Map<String, Long> delivered = new HashMap<>();
+        notifications.forEach(notification -> delivered.merge(notification.getUserId(), 1L, Long::sum));
+        delivered.forEach((userId, count) -> unreadCounters.addAfterCommit(tenantId, userId, count));
+        Map<String, Long> unread = notificationRepository.countUnreadByUsers(delivered.keySet());
+        for (Notification notification : notifications) {
+            streamHub.announce(new NotificationStreamHub.StreamEvent(tenantId, notification.getUserId(),
+                notification, unread.getOrDefault(notification.getUserId(), 0L)));
+        }
+    }
+
+    private Notification toNotification(NotificationOutbox row) {
+        Notification notification = new Notification();
+        notification.setObjectID(ObjectID.of(UUID.randomUUID().toString(), row.getTenantId()));
+        notification.setUserId(row.getUserId());
+        notification.setType(row.getType());
+        notification.setTitle(row.getTitle());
+        notification.setMessage(row.getMessage());
+        notification.setEntityType(row.getEntityType());
+        notification.setEntityId(row.getEntityId());
+        notification.setRead(false);
+        notification.setCreatedAt(row.getCreatedAt());
+        return notification;
+    }
+
+    private void refreshBacklog() {
+        try {
+            QuarkusTransaction.requiringNew().run(() -> {
+                NotificationOutboxRepository.Backlog backlog = outboxRepository.getBacklog(maxAttempts);
+                pending = backlog.pending();
+                lagSeconds = backlog.oldestCreatedAt() != null
+                    ? Duration.between(backlog.oldestCreatedAt(), LocalDateTime.now()).toMillis() / 1000.0
+                    : 0.0;
+                dead = backlog.dead();
+            });
+        } catch (Exception e) {
+            Log.debugf("Could not read notification outbox backlog: %s", e.getMessage());
+        }
+    }
+}
@@ -0,0 +1,93 @@
+package com.humanrsc.services;
+
+import com.humanrsc.datamodel.repo.NotificationRepository;
+import io.quarkus.logging.Log;
+import io.quarkus.narayana.jta.QuarkusTransaction;
+import io.quarkus.scheduler.Scheduled;
+import jakarta.enterprise.context.ApplicationScoped;
+import jakarta.inject.Inject;
+import org.eclipse.microprofile.config.inject.ConfigProperty;
+import org.eclipse.microprofile.metrics.MetricRegistry;
+
+import java.time.YearMonth;
+import java.time.format.DateTimeFormatter;
+import java.util.List;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * Keeps the monthly partitions of hr_app.notifications (see V1.14.0).
+ *
+ * Each run creates the partitions of the next {@code app.notifications.partitions.months-ahead}
+ * months and detaches and drops the ones entirely older than
+ * {@code app.notifications.retention-months} full months, one transaction per partition.
+ * Dropped partitions may hold unread notifications, so the unread counters are reset afterwards.
+ */
+@ApplicationScoped
+public class NotificationRetentionJob {
+
+    private static final Pattern PARTITION_NAME = Pattern.compile("notifications_p(\\d{6})");
+    private static final DateTimeFormatter PARTITION_MONTH = DateTimeFormatter.ofPattern("yyyyMM");
+
+    @Inject
+    NotificationRepository notificationRepository;
+
+    @Inject
+    UnreadCounterCache unreadCounters;
+
+    @Inject
+    MetricRegistry metricRegistry;
+
+    @ConfigProperty(name = "app.notifications.retention-months", defaultValue = "12")
+    int retentionMonths;
+
+    @ConfigProperty(name = "app.notifications.partitions.months-ahead", defaultValue = "3")
+    int monthsAhead;
+
+    @ConfigProperty(name = "app.notifications.partitions.lock-timeout-ms", defaultValue = "5000")
+    long lockTimeoutMs;
+
+    @Scheduled(cron = "${app.notifications.retention.cron:0 30 3 * * ?}",
+               concurrentExecution = Scheduled.ConcurrentExecution.SKIP)
+    void run() {
+        YearMonth current = YearMonth.now();
+        createUpcoming(current);
+        dropExpired(current.minusMonths(retentionMonths));
+    }
+
+    private void createUpcoming(YearMonth current) {
+        try {
+            int created = QuarkusTransaction.requiringNew().call(() -> notificationRepository.createPartitions(
+                current.atDay(1), current.plusMonths(monthsAhead).atDay(1)));
+            if (created > 0) {
+                Log.infof("Created %d notification partitions", created);
+            }
+        } catch (Exception e) {
+            Log.errorf("Could not create notification partitions: %s", e.getMessage());
+        }
+    }
+
+    // Drops every partition whose month ends before the first kept month
+    private void dropExpired(YearMonth firstKept) {
+        List<String> partitions = QuarkusTransaction.requiringNew().call(notificationRepository::findPartitionNames);
+        int dropped = 0;
+        for (String partition : partitions) {
+            Matcher matcher = PARTITION_NAME.matcher(partition);
+            if (!matcher.matches() || !YearMonth.parse(matcher.group(1), PARTITION_MONTH).isBefore(firstKept)) {
+                continue;
+            }
+            try {
+                QuarkusTransaction.requiringNew().run(() -> notificationRepository.dropPartition(partition, lockTimeoutMs));
+                dropped++;
+                Log.infof("Dropped notification partition %s", partition);
+            } catch (Exception e) {
+                // Usually the lock timeout; the next run tries again
+                Log.warnf("Could not drop notification partition %s: %s", partition, e.getMessage());
+            }
+        }
+        if (dropped > 0) {
+            metricRegistry.counter("notifications.partitions.dropped").inc(dropped);
+            unreadCounters.invalidateAll();
+        }
+    }
+}
@@ -3,7 +3,9 @@ package com.humanrsc.services;
 import com.humanrsc.config.ThreadLocalStorage;
 import com.humanrsc.datamodel.abstraction.ObjectID;
 import com.humanrsc.datamodel.entities.Notification;
+import com.humanrsc.datamodel.entities.NotificationOutbox;
 import com.humanrsc.datamodel.enums.NotificationType;
+import com.humanrsc.datamodel.repo.NotificationOutboxRepository;
 import com.humanrsc.datamodel.repo.NotificationRepository;
 import jakarta.enterprise.context.ApplicationScoped;
 import jakarta.inject.Inject;
@@ -12,7 +14,6 @@ import jakarta.transaction.Transactional;
 import java.time.LocalDateTime;
 import java.util.List;
 import java.util.Optional;
-import java.util.UUID;
 
 /**
  * Service for managing user notifications.
@@ -20,6 +21,7 @@ import java.util.UUID;
  * Notifications are created automatically by the system when significant
  * organizational events occur (employee hiring, termination, salary changes, etc.)
  * and are delivered to relevant stakeholders (typically managers and HR staff).
+ * They are queued in the outbox and written to the notifications table asynchronously.
  */
 @ApplicationScoped
 public class NotificationService {
@@ -27,8 +29,20 @@ public class NotificationService {
     @Inject
     NotificationRepository notificationRepository;
 
+    @Inject
+    NotificationOutboxRepository notificationOutboxRepository;
+
+    @Inject
+    NotificationStreamHub streamHub;
+
+    @Inject
+    UnreadCounterCache unreadCounters;
+
     /**
-     * Create a new notification for a user
+     * Queue a notification for a user.
+     * 
+     * The row goes to the outbox in the caller's transaction, so it is delivered if and only if
+     * the business change commits; NotificationDispatcher moves it to the notifications table.
      * 
      * @param userId ID of the user who should receive the notification
      * @param type type of notification (event that triggered it)
@@ -36,10 +50,9 @@ public class NotificationService {
      * @param message detailed notification message
      * @param entityType optional type of related entity (e.g., "Employee", "SalaryHistory")
      * @param entityId optional ID of related entity
-     * @return the created notification
      */
     @Transactional
-    public Notification createNotification(
+    public void enqueueNotification(
             String userId,
             NotificationType type,
             String title,
@@ -47,35 +60,29 @@ public class NotificationService {
             String entityType,
             String entityId) {
         
-        Notification notification = new Notification();
-        
-        String id = UUID.randomUUID().toString();
-        String tenantId = ThreadLocalStorage.getTenantID();
-        notification.setObjectID(ObjectID.of(id, tenantId));
-        
-        notification.setUserId(userId);
-        notification.setType(type);
-        notification.setTitle(title);
-        notification.setMessage(message);
-        notification.setEntityType(entityType);
-        notification.setEntityId(entityId);
-        notification.setRead(false);
-        notification.setCreatedAt(LocalDateTime.now());
+        NotificationOutbox entry = new NotificationOutbox();
+        entry.setTenantId(ThreadLocalStorage.getTenantID());
+        entry.setUserId(userId);
+        entry.setType(type);
+        entry.setTitle(title);
+        entry.setMessage(message);
+        entry.setEntityType(entityType);
+        entry.setEntityId(entityId);
+        entry.setCreatedAt(LocalDateTime.now());
         
-        notificationRepository.persist(notification);
-        return notification;
+        notificationOutboxRepository.persist(entry);
     }
 
     /**
-     * Create a notification without entity reference
+     * Queue a notification without entity reference
      */
     @Transactional
-    public Notification createNotification(
+    public void enqueueNotification(
             String userId,
             NotificationType type,
             String title,
             String message) {
-        return createNotification(userId, type, title, message, null, null);
+        enqueueNotification(userId, type, title, message, null, null);
     }
 
     /**
@@ -90,6 +97,28 @@ public class NotificationService {
         return notificationRepository.findByUser(userId, page, size);
     }
 
+    /**
+     * Notifications of a user delivered after the given one, oldest first (stream resume).
+     * Unknown ids, or ids of another user, yield an empty list.
+     * 
+     * @param userId user ID
+     * @param lastNotificationId last notification the client received
+     * @param limit maximum number of notifications
+     * @return notifications to replay
+     */
+    public List<Notification> getNotificationsAfter(String userId, String lastNotificationId, int limit) {
+        Optional<Notification> last = getNotificationById(lastNotificationId)
+                .filter(notification -> notification.getUserId().equals(userId));
+        if (last.isEmpty()) {
+            return List.of();
+        }
+        // createdAt ties with the last one are included; the client already has that one
+        return notificationRepository.findByUserSince(userId, last.get().getCreatedAt(), limit + 1).stream()
+                .filter(notification -> !notification.getObjectID().getId().equals(lastNotificationId))
+                .limit(limit)
+                .toList();
+    }
+
     /**
      * Get all unread notifications for a user
      * 
@@ -101,13 +130,14 @@ public class NotificationService {
     }
 
     /**
-     * Get count of unread notifications for a user
+     * Get count of unread notifications for a user, served from UnreadCounterCache
      * 
      * @param userId user ID
      * @return count of unread notifications
      */
     public long getUnreadCount(String userId) {
-        return notificationRepository.countUnreadByUser(userId);
+        return unreadCounters.get(ThreadLocalStorage.getTenantID(), userId,
+                () -> notificationRepository.countUnreadByUser(userId));
     }
 
     /**
@@ -123,7 +153,13 @@ public class NotificationService {
         
         Optional<Notification> notification = notificationRepository.findByObjectID(objectID);
         if (notification.isPresent()) {
+            boolean wasUnread = notification.get().isUnread();
             notification.get().markAsRead();
+            if (wasUnread) {
+                unreadCounters.addAfterCommit(tenantId, notification.get().getUserId(), -1);
+                notificationRepository.flush();
+                streamHub.announceUnreadCount(tenantId, notification.get().getUserId());
+            }
             return true;
         }
         return false;
@@ -137,7 +173,12 @@ public class NotificationService {
      */
     @Transactional
     public int markAllAsRead(String userId) {
-        return notificationRepository.markAllAsRead(userId);
+        int updated = notificationRepository.markAllAsRead(userId);
+        unreadCounters.setAfterCommit(ThreadLocalStorage.getTenantID(), userId, 0);
+        if (updated > 0) {
+            streamHub.announceUnreadCount(ThreadLocalStorage.getTenantID(), userId);
+        }
+        return updated;
     }
 
     /**
@@ -164,7 +205,8 @@ public class NotificationService {
     }
 
     /**
-     * Delete old notifications (cleanup job)
+     * Delete old notifications row by row. Routine retention drops whole monthly partitions
+     * instead (NotificationRetentionJob); this is for ad-hoc cleanups finer than a month.
      * 
      * @param daysToKeep keep notifications newer than this many days
      * @return number of deleted notifications
@@ -172,7 +214,12 @@ public class NotificationService {
     @Transactional
     public long deleteOldNotifications(int daysToKeep) {
         LocalDateTime cutoffDate = LocalDateTime.now().minusDays(daysToKeep);
-        return notificationRepository.deleteOlderThan(cutoffDate);
+        long deleted = notificationRepository.deleteOlderThan(cutoffDate);
+        if (deleted > 0) {
+            // Some of them may have been unread; counters reload on next read
+            unreadCounters.invalidateTenantAfterCommit(ThreadLocalStorage.getTenantID());
+        }
+        return deleted;
     }
 
     /**
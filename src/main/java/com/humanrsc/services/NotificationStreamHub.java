@@ -0,0 +1,205 @@
+package com.humanrsc.services;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.humanrsc.datamodel.entities.Notification;
+import com.humanrsc.datamodel.repo.NotificationRepository;
+import io.quarkus.logging.Log;
+import io.quarkus.scheduler.Scheduled;
+import jakarta.annotation.PostConstruct;
+import jakarta.enterprise.context.ApplicationScoped;
+import jakarta.inject.Inject;
+import jakarta.transaction.Status;
+import jakarta.transaction.Synchronization;
+import jakarta.transaction.TransactionSynchronizationRegistry;
+import jakarta.ws.rs.core.MediaType;
+import jakarta.ws.rs.sse.OutboundSseEvent;
+import jakarta.ws.rs.sse.Sse;
+import jakarta.ws.rs.sse.SseEventSink;
+import org.eclipse.microprofile.config.inject.ConfigProperty;
+import org.eclipse.microprofile.metrics.MetricRegistry;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Open notification streams (SSE) per (tenant, user) and the events pushed to them.
+ *
+ * Events are announced inside the transaction that causes them and only reach the streams if it
+ * commits. With {@code app.notifications.stream.pg-notify=true} they travel through Postgres
+ * NOTIFY on {@link #CHANNEL} so every node receives them (see NotificationStreamListener);
+ * otherwise they are delivered to this node's streams after the commit.
+ */
+@ApplicationScoped
+public class NotificationStreamHub {
+
+    public static final String CHANNEL = "notification_stream";
+    public static final String EVENT_NOTIFICATION = "notification";
+    public static final String EVENT_UNREAD_COUNT = "unread-count";
+
+    // NOTIFY rejects payloads of 8000 bytes or more; larger events are sent without the notification body
+    private static final int MAX_NOTIFY_PAYLOAD = 7900;
+
+    @Inject
+    NotificationRepository notificationRepository;
+
+    @Inject
+    TransactionSynchronizationRegistry synchronizationRegistry;
+
+    @Inject
+    ObjectMapper objectMapper;
+
+    @Inject
+    MetricRegistry metricRegistry;
+
+    @ConfigProperty(name = "app.notifications.stream.pg-notify", defaultValue = "false")
+    boolean pgNotify;
+
+    private final Map<StreamKey, Set<Subscriber>> subscribers = new ConcurrentHashMap<>();
+
+    @PostConstruct
+    void init() {
+        metricRegistry.gauge("notifications.stream.open", this, NotificationStreamHub::openStreams);
+    }
+
+    /**
+     * What one stream receives: a new notification (may be null for count-only updates) and the
+     * user's unread count after it
+     */
+    public record StreamEvent(String tenantId, String userId, Notification notification, long unreadCount) {
+    }
+
+    public void subscribe(String tenantId, String userId, SseEventSink sink, Sse sse) {
+        subscribers.computeIfAbsent(new StreamKey(tenantId, userId), k -> ConcurrentHashMap.newKeySet())
+            .add(new Subscriber(sink, sse));
+    }
+
+    /**
+     * Announces an event from within the transaction that produced it
+     */
+    public void announce(StreamEvent event) {
+        if (pgNotify) {
+            notificationRepository.getEntityManager()
+                .createNativeQuery("SELECT pg_notify(:channel, :payload)")
+                .setParameter("channel", CHANNEL)
+                .setParameter("payload", toPayload(event))
+                .getSingleResult();
+            return;
+        }
+        int status = synchronizationRegistry.getTransactionStatus();
+        if (status != Status.STATUS_ACTIVE && status != Status.STATUS_MARKED_ROLLBACK) {
+            deliverLocal(event);
+            return;
+        }
+        synchronizationRegistry.registerInterposedSynchronization(new Synchronization() {
+            @Override
+            public void beforeCompletion() {
+            }
+
+            @Override
+            public void afterCompletion(int completionStatus) {
+                if (completionStatus == Status.STATUS_COMMITTED) {
+                    deliverLocal(event);
+                }
+            }
+        });
+    }
+
+    /**
+     * Announces the user's unread count, e.g. after marking notifications as read
+     */
+    public void announceUnreadCount(String tenantId, String userId) {
+        announce(new StreamEvent(tenantId, userId, null, notificationRepository.countUnreadByUser(userId)));
+    }
+
+    /**
+     * Pushes an event to the streams of its user open on this node
+     */
+    public void deliverLocal(StreamEvent event) {
+        Set<Subscriber> streams = subscribers.get(new StreamKey(event.tenantId(), event.userId()));
+        if (streams == null || streams.isEmpty()) {
+            return;
+        }
+        for (Subscriber subscriber : streams) {
+            if (event.notification() != null) {
+                send(subscriber, notificationEvent(subscriber.sse(), event.notification()));
+            }
+            send(subscriber, unreadCountEvent(subscriber.sse(), event.unreadCount()));
+        }
+    }
+
+    public OutboundSseEvent notificationEvent(Sse sse, Notification notification) {
+        return sse.newEventBuilder()
+            .name(EVENT_NOTIFICATION)
+            .id(notification.getObjectID().getId())
+            .mediaType(MediaType.APPLICATION_JSON_TYPE)
+            .data(Notification.class, notification)
+            .build();
+    }
+
+    public OutboundSseEvent unreadCountEvent(Sse sse, long unreadCount) {
+        return sse.newEventBuilder()
+            .name(EVENT_UNREAD_COUNT)
+            .mediaType(MediaType.APPLICATION_JSON_TYPE)
+            .data(Map.class, Map.of("count", unreadCount))
+            .build();
+    }
+
+    // Keeps proxies from closing idle streams and drops the ones whose client went away
+    @Scheduled(every = "${app.notifications.stream.heartbeat-interval:25s}")
+    void heartbeat() {
+        for (Set<Subscriber> streams : subscribers.values()) {
+            for (Subscriber subscriber : streams) {
+                send(subscriber, subscriber.sse().newEventBuilder().comment("heartbeat").build());
+            }
+        }
+        subscribers.values().removeIf(Set::isEmpty);
+    }
+
+    public StreamEvent fromPayload(String payload) throws JsonProcessingException {
+        return objectMapper.readValue(payload, StreamEvent.class);
+    }
+
+    private String toPayload(StreamEvent event) {
+        try {
+            String payload = objectMapper.writeValueAsString(event);
+            if (payload.getBytes(StandardCharsets.UTF_8).length > MAX_NOTIFY_PAYLOAD) {
+                payload = objectMapper.writeValueAsString(
+                    new StreamEvent(event.tenantId(), event.userId(), null, event.unreadCount()));
+            }
+            return payload;
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException("Cannot serialize notification stream event", e);
+        }
+    }
+
+    private void send(Subscriber subscriber, OutboundSseEvent event) {
+        if (subscriber.sink().isClosed()) {
+            remove(subscriber);
+            return;
+        }
+        subscriber.sink().send(event).whenComplete((ignored, error) -> {
+            if (error != null) {
+                Log.debugf("Closing notification stream: %s", error.getMessage());
+                remove(subscriber);
+                subscriber.sink().close();
+            }
+        });
+    }
+
+    private void remove(Subscriber subscriber) {
+        subscribers.values().forEach(streams -> streams.remove(subscriber));
+    }
+
+    private int openStreams() {
+        return subscribers.values().stream().mapToInt(Set::size).sum();
+    }
+
+    private record StreamKey(String tenantId, String userId) {
+    }
+
+    private record Subscriber(SseEventSink sink, Sse sse) {
+    }
+}
@@ -0,0 +1,104 @@
+package com.humanrsc.services;
+
+import io.agroal.api.AgroalDataSource;
+import io.quarkus.logging.Log;
+import io.quarkus.runtime.ShutdownEvent;
+import io.quarkus.runtime.StartupEvent;
+import jakarta.enterprise.context.ApplicationScoped;
+import jakarta.enterprise.event.Observes;
+import jakarta.inject.Inject;
+import org.eclipse.microprofile.config.inject.ConfigProperty;
+import org.postgresql.PGConnection;
+import org.postgresql.PGNotification;
+
+import java.sql.Connection;
+import java.sql.Statement;
+
+/**
+ * Receives the notification stream events announced by any node (Postgres LISTEN on
+ * NotificationStreamHub.CHANNEL) and hands them to this node's open streams.
+ *
+ * Only runs with {@code app.notifications.stream.pg-notify=true}. It holds one pooled connection
+ * for as long as it listens and reconnects after errors.
+ */
+@ApplicationScoped
+public class NotificationStreamListener {
+
+    private static final int POLL_TIMEOUT_MS = 10_000;
+    private static final long RECONNECT_DELAY_MS = 5_000;
+
+    @Inject
+    AgroalDataSource dataSource;
+
+    @Inject
+    NotificationStreamHub hub;
+
+    @Inject
+    UnreadCounterCache unreadCounters;
+
+    @ConfigProperty(name = "app.notifications.stream.pg-notify", defaultValue = "false")
+    boolean pgNotify;
+
+    private volatile boolean running;
+    private Thread thread;
+
+    void onStart(@Observes StartupEvent event) {
+        if (!pgNotify) {
+            return;
+        }
+        running = true;
+        thread = Thread.ofPlatform().daemon().name("notification-stream-listener").start(this::listen);
+    }
+
+    void onStop(@Observes ShutdownEvent event) {
+        running = false;
+        if (thread != null) {
+            thread.interrupt();
+        }
+    }
+
+    private void listen() {
+        while (running) {
+            try (Connection connection = dataSource.getConnection()) {
+                connection.setAutoCommit(true);
+                try (Statement statement = connection.createStatement()) {
+                    statement.execute("LISTEN " + NotificationStreamHub.CHANNEL);
+                }
+                PGConnection pgConnection = connection.unwrap(PGConnection.class);
+                Log.infof("Listening for notification stream events on %s", NotificationStreamHub.CHANNEL);
+
+                while (running) {
+                    PGNotification[] notifications = pgConnection.getNotifications(POLL_TIMEOUT_MS);
+                    if (notifications == null) {
+                        continue;
+                    }
+                    for (PGNotification notification : notifications) {
+                        dispatch(notification.getParameter());
+                    }
+                }
+            } catch (Exception e) {
+                if (!running) {
+                    return;
+                }
+                Log.warnf("Notification stream listener failed, reconnecting: %s", e.getMessage());
+                try {
+                    Thread.sleep(RECONNECT_DELAY_MS);
+                } catch (InterruptedException interrupted) {
+                    Thread.currentThread().interrupt();
+                    return;
+                }
+            }
+        }
+    }
+
+    private void dispatch(String payload) {
+        try {
+            NotificationStreamHub.StreamEvent event = hub.fromPayload(payload);
+            // The count was taken by the committed write, possibly on another node
+            unreadCounters.adopt(event.tenantId(), event.userId(), event.unreadCount());
+            hub.deliverLocal(event);
+        } catch (Exception e) {
+            Log.warnf("Ignoring malformed notification stream event: %s", e.getMessage());
+        }
+    }
+}
@@ -0,0 +1,136 @@
+package com.humanrsc.services;
+
+import com.humanrsc.config.OrgTreeInvalidating;
+import com.humanrsc.config.ThreadLocalStorage;
+import jakarta.annotation.PostConstruct;
+import jakarta.enterprise.context.ApplicationScoped;
+import jakarta.inject.Inject;
+import org.eclipse.microprofile.metrics.MetricRegistry;
+import org.eclipse.microprofile.metrics.Tag;
+
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Supplier;
+import java.util.function.UnaryOperator;
+
+/**
+ * Latest organization tree snapshot per tenant, served to chart reads without touching the database.
+ *
+ * Each tenant has a version that writes bump (see OrgTreeInvalidationInterceptor); a read that finds
+ * the snapshot behind rebuilds it, fully for structural changes or only its counts otherwise.
+ * Rebuilds of a tenant are serialized so a burst of reads after a write triggers a single load.
+ * The ETag is the boot epoch, a hash of the tenant and the version the snapshot was loaded at, so
+ * it never repeats across restarts nor matches another tenant's tree at the same version (shared
+ * caches key on the URL, which is the same for every tenant).
+ */
+@ApplicationScoped
+public class OrgTreeCache {
+
+    @Inject
+    MetricRegistry metricRegistry;
+
+    private final String epoch = Long.toString(System.currentTimeMillis(), 36);
+    private final Map<String, TenantTree> trees = new ConcurrentHashMap<>();
+
+    @PostConstruct
+    void init() {
+        metricRegistry.gauge("org_tree.tenants", this, cache -> cache.trees.size());
+    }
+
+    /**
+     * Current snapshot of the tenant in context, rebuilt with {@code fullLoad} or {@code countsRefresh}
+     * if a write happened since it was built. Without a tenant in context it is loaded directly.
+     */
+    public OrgTreeSnapshot get(Supplier<OrgTreeSnapshot> fullLoad, UnaryOperator<OrgTreeSnapshot> countsRefresh) {
+        String tenantID = ThreadLocalStorage.getTenantID();
+        if (tenantID == null || tenantID.trim().isEmpty()) {
+            return fullLoad.get().withEtag(epoch + "-0");
+        }
+
+        TenantTree tree = trees.computeIfAbsent(tenantID, TenantTree::new);
+        OrgTreeSnapshot current = tree.snapshot;
+        if (current != null && tree.builtAt == tree.version) {
+            metricRegistry.counter("org_tree.hits").inc();
+            return current;
+        }
+
+        synchronized (tree) {
+            if (tree.snapshot != null && tree.builtAt == tree.version) {
+                metricRegistry.counter("org_tree.hits").inc();
+                return tree.snapshot;
+            }
+            long version;
+            OrgTreeInvalidating.Scope pending;
+            synchronized (tree.pendingLock) {
+                version = tree.version;
+                pending = tree.pending;
+                tree.pending = null;
+            }
+
+            boolean full = tree.snapshot == null || pending == OrgTreeInvalidating.Scope.STRUCTURE;
+            OrgTreeSnapshot rebuilt;
+            try {
+                rebuilt = full ? fullLoad.get() : countsRefresh.apply(tree.snapshot);
+            } catch (RuntimeException e) {
+                // The change is still pending; the next read retries it
+                synchronized (tree.pendingLock) {
+                    tree.pending = widest(tree.pending, full ? OrgTreeInvalidating.Scope.STRUCTURE : pending);
+                }
+                throw e;
+            }
+            metricRegistry.counter("org_tree.rebuilds", new Tag("kind", full ? "full" : "counts")).inc();
+
+            tree.snapshot = rebuilt.withEtag(epoch + "-" + tree.tenantHash + "-" + version);
+            tree.builtAt = version;
+            return tree.snapshot;
+        }
+    }
+
+    /**
+     * Marks the tenant's snapshot as stale; the next read rebuilds it.
+     */
+    public void invalidate(String tenantID, OrgTreeInvalidating.Scope scope) {
+        if (tenantID == null) {
+            return;
+        }
+        TenantTree tree = trees.computeIfAbsent(tenantID, TenantTree::new);
+        synchronized (tree.pendingLock) {
+            tree.pending = widest(tree.pending, scope);
+            tree.version++;
+        }
+    }
+
+    private static OrgTreeInvalidating.Scope widest(OrgTreeInvalidating.Scope a, OrgTreeInvalidating.Scope b) {
+        if (a == null) {
+            return b;
+        }
+        return b == null || a.compareTo(b) >= 0 ? a : b;
+    }
+
+    // First 64 bits of the SHA-256 of the tenant ID, in base 36
+    private static String tenantHash(String tenantID) {
+        try {
+            byte[] digest = MessageDigest.getInstance("SHA-256").digest(tenantID.getBytes(StandardCharsets.UTF_8));
+            return Long.toUnsignedString(ByteBuffer.wrap(digest).getLong(), 36);
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    private static final class TenantTree {
+        private final String tenantHash;
+        private final Object pendingLock = new Object();
+        private volatile OrgTreeSnapshot snapshot;
+        private volatile long builtAt = -1;
+        private volatile long version;
+        private OrgTreeInvalidating.Scope pending;
+
+        private TenantTree(String tenantID) {
+            this.tenantHash = OrgTreeCache.tenantHash(tenantID);
+        }
+    }
+}
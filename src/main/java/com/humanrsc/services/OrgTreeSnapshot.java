@@ -0,0 +1,187 @@
+package com.humanrsc.services;
+
+import com.humanrsc.datamodel.entities.OrganizationalUnit;
+import com.humanrsc.datamodel.entities.PositionCategory;
+import com.humanrsc.services.OrganizationService.SimpleOrganizationChart;
+import com.humanrsc.services.OrganizationService.UnitWithCounts;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.UnaryOperator;
+
+/**
+ * Immutable organization tree of one tenant: every non-deleted unit with its counts, indexed by
+ * position in flat arrays. {@code parent[i]} is the index of the parent of unit i (-1 for roots)
+ * and the children of i are {@code children[childStart[i] .. childStart[i + 1])}, sorted by name.
+ *
+ * The arrays only depend on the structure, so a counts refresh ({@link #withUnits}) shares them.
+ */
+public final class OrgTreeSnapshot {
+
+    private final int[] parent;
+    private final int[] depth;
+    private final int[] childStart;
+    private final int[] children;
+    private final Map<String, Integer> indexById;
+    private final UnitWithCounts[] units;
+    private final List<PositionCategory> categories;
+    private final SimpleOrganizationChart chart;
+    private final String etag;
+
+    private OrgTreeSnapshot(int[] parent, int[] depth, int[] childStart, int[] children,
+                            Map<String, Integer> indexById, UnitWithCounts[] units,
+                            List<PositionCategory> categories, String etag) {
+        this.parent = parent;
+        this.depth = depth;
+        this.childStart = childStart;
+        this.children = children;
+        this.indexById = indexById;
+        this.units = units;
+        this.categories = categories;
+        this.etag = etag;
+        // Chart keeps the load order (organizational level, name) and only the active units
+        this.chart = new SimpleOrganizationChart(
+            Arrays.stream(units).filter(unit -> OrganizationalUnit.STATUS_ACTIVE.equals(unit.getStatus())).toList(),
+            categories);
+    }
+
+    /**
+     * Builds the index arrays from the units in chart order. A unit whose parent is not in the
+     * list (deleted or missing) is treated as a root.
+     */
+    public static OrgTreeSnapshot of(List<UnitWithCounts> unitList, List<PositionCategory> categories) {
+        int n = unitList.size();
+        UnitWithCounts[] units = unitList.toArray(new UnitWithCounts[0]);
+        Map<String, Integer> indexById = new HashMap<>(n * 2);
+        for (int i = 0; i < n; i++) {
+            indexById.put(units[i].getId(), i);
+        }
+
+        int[] parent = new int[n];
+        int[] childCount = new int[n];
+        for (int i = 0; i < n; i++) {
+            String parentId = units[i].getParentUnitId();
+            Integer p = parentId != null ? indexById.get(parentId) : null;
+            parent[i] = p != null && p != i ? p : -1;
+            if (parent[i] >= 0) {
+                childCount[parent[i]]++;
+            }
+        }
+
+        int[] childStart = new int[n + 1];
+        for (int i = 0; i < n; i++) {
+            childStart[i + 1] = childStart[i] + childCount[i];
+        }
+        Integer[] byName = new Integer[n];
+        for (int i = 0; i < n; i++) {
+            byName[i] = i;
+        }
+        Arrays.sort(byName, Comparator.comparing((Integer i) -> units[i].getName(), Comparator.nullsLast(String::compareTo)));
+        int[] children = new int[childStart[n]];
+        int[] next = Arrays.copyOf(childStart, n);
+        for (int i : byName) {
+            if (parent[i] >= 0) {
+                children[next[parent[i]]++] = i;
+            }
+        }
+
+        int[] depth = new int[n];
+        Arrays.fill(depth, -1);
+        for (int i = 0; i < n; i++) {
+            depthOf(i, parent, depth);
+        }
+
+        return new OrgTreeSnapshot(parent, depth, childStart, children, Map.copyOf(indexById), units,
+            List.copyOf(categories), null);
+    }
+
+    // Iterative so deep hierarchies cannot overflow the stack; the closure table rules out cycles
+    private static int depthOf(int i, int[] parent, int[] depth) {
+        int steps = 0;
+        int current = i;
+        while (depth[current] < 0 && parent[current] >= 0 && steps <= parent.length) {
+            current = parent[current];
+            steps++;
+        }
+        int base = depth[current] >= 0 ? depth[current] : 0;
+        depth[current] = base;
+        for (int walk = i, d = base + steps; walk != current; walk = parent[walk], d--) {
+            depth[walk] = d;
+        }
+        return depth[i];
+    }
+
+    /**
+     * Same tree with every unit replaced by {@code update}; used when only the counts changed.
+     */
+    public OrgTreeSnapshot withUnits(UnaryOperator<UnitWithCounts> update) {
+        UnitWithCounts[] updated = new UnitWithCounts[units.length];
+        for (int i = 0; i < units.length; i++) {
+            updated[i] = update.apply(units[i]);
+        }
+        return new OrgTreeSnapshot(parent, depth, childStart, children, indexById, updated, categories, etag);
+    }
+
+    public OrgTreeSnapshot withEtag(String etag) {
+        return new OrgTreeSnapshot(parent, depth, childStart, children, indexById, units, categories, etag);
+    }
+
+    public SimpleOrganizationChart getChart() {
+        return chart;
+    }
+
+    public String getEtag() {
+        return etag;
+    }
+
+    public int size() {
+        return units.length;
+    }
+
+    /**
+     * The unit and its descendants breadth first (depth, then name); {@code maxDepth} null means
+     * the whole branch. An unknown unit yields an empty list.
+     */
+    public List<UnitWithCounts> subtree(String unitId, Integer maxDepth) {
+        Integer root = indexById.get(unitId);
+        if (root == null) {
+            return List.of();
+        }
+        int limit = maxDepth != null ? depth[root] + maxDepth : Integer.MAX_VALUE;
+        List<Integer> level = List.of(root);
+        List<UnitWithCounts> result = new ArrayList<>();
+        while (!level.isEmpty()) {
+            List<Integer> nextLevel = new ArrayList<>();
+            for (int i : level) {
+                result.add(units[i]);
+                if (depth[i] < limit) {
+                    for (int c = childStart[i]; c < childStart[i + 1]; c++) {
+                        nextLevel.add(children[c]);
+                    }
+                }
+            }
+            nextLevel.sort(Comparator.comparing((Integer i) -> units[i].getName(), Comparator.nullsLast(String::compareTo)));
+            level = nextLevel;
+        }
+        return result;
+    }
+
+    /**
+     * Path from the root down to the unit itself; an unknown unit yields an empty list.
+     */
+    public List<UnitWithCounts> ancestors(String unitId) {
+        Integer index = indexById.get(unitId);
+        if (index == null) {
+            return List.of();
+        }
+        UnitWithCounts[] path = new UnitWithCounts[depth[index] + 1];
+        for (int i = index, d = depth[index]; i >= 0 && d >= 0; i = parent[i], d--) {
+            path[d] = units[i];
+        }
+        return List.of(path);
+    }
+}
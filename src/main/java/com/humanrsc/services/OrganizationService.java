@@ -1,22 +1,30 @@
 package com.humanrsc.services;
 
+import com.humanrsc.config.StatsInvalidating;
+import com.humanrsc.config.OrgTreeInvalidating;
 import com.humanrsc.config.ThreadLocalStorage;
 import com.humanrsc.datamodel.abstraction.ObjectID;
+import com.humanrsc.datamodel.dto.OrganizationSearchHit;
 import com.humanrsc.datamodel.entities.*;
 import com.humanrsc.datamodel.entities.PositionCategory;
 import com.humanrsc.datamodel.repo.*;
 
 import jakarta.enterprise.context.ApplicationScoped;
 import jakarta.inject.Inject;
+import io.quarkus.narayana.jta.runtime.TransactionConfiguration;
 import jakarta.transaction.Transactional;
+import org.eclipse.microprofile.config.inject.ConfigProperty;
 
 import java.math.BigDecimal;
 import java.time.LocalDate;
 import java.util.List;
+import java.util.Objects;
 import java.util.Optional;
 import java.util.UUID;
 import java.util.Map;
 import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.stream.Collectors;
 
 
 @ApplicationScoped
@@ -29,12 +37,35 @@ public class OrganizationService {
     @Inject EmployeeAssignmentRepository employeeAssignmentRepository;
     @Inject TemporaryReplacementRepository temporaryReplacementRepository;
     @Inject SalaryHistoryRepository salaryHistoryRepository;
-    @Inject CurrencyExchangeRateRepository currencyExchangeRateRepository;
     @Inject NotificationService notificationService;
+    @Inject StatsCache statsCache;
+    @Inject OrgTreeCache orgTreeCache;
+    @Inject ExchangeRateCache exchangeRateCache;
+    @Inject PayrollCostRollupService payrollCostRollup;
+
+    @ConfigProperty(name = "app.export.fetch-size", defaultValue = "500")
+    int exportFetchSize;
+
+    @ConfigProperty(name = "app.search.min-length", defaultValue = "3")
+    int searchMinLength;
+
+    @ConfigProperty(name = "app.search.default-results", defaultValue = "20")
+    int searchDefaultResults;
+
+    @ConfigProperty(name = "app.search.max-results", defaultValue = "50")
+    int searchMaxResults;
+
+    @ConfigProperty(name = "app.reporting.max-depth", defaultValue = "20")
+    int reportingMaxDepth;
+
+    @ConfigProperty(name = "app.salary-history.analytics.default-years", defaultValue = "5")
+    int salaryAnalyticsDefaultYears;
 
     // ========== POSITION CATEGORIES ==========
 
     @Transactional
+    @StatsInvalidating
+    @OrgTreeInvalidating
     public PositionCategory createPositionCategory(PositionCategory category) {
         if (category.getObjectID() == null) {
             String id = UUID.randomUUID().toString();
@@ -66,6 +97,8 @@ public class OrganizationService {
     }
 
     @Transactional
+    @StatsInvalidating
+    @OrgTreeInvalidating
     public PositionCategory updatePositionCategory(PositionCategory category) {
         // Check if name is being changed and if it conflicts
         Optional<PositionCategory> existing = positionCategoryRepository.findById(category.getObjectID().getId());
@@ -79,6 +112,8 @@ public class OrganizationService {
     }
 
     @Transactional
+    @StatsInvalidating
+    @OrgTreeInvalidating
     public boolean deletePositionCategory(String id) {
         Optional<PositionCategory> category = positionCategoryRepository.findById(id);
         if (category.isPresent()) {
@@ -98,6 +133,8 @@ public class OrganizationService {
     // ========== ORGANIZATIONAL UNITS ==========
 
     @Transactional
+    @StatsInvalidating
+    @OrgTreeInvalidating
     public OrganizationalUnit createOrganizationalUnit(OrganizationalUnit unit) {
         if (unit.getObjectID() == null) {
             String id = UUID.randomUUID().toString();
@@ -120,6 +157,10 @@ public class OrganizationService {
         }
         
         organizationalUnitRepository.persist(unit);
+        // Closure rows reference the unit row, so it has to reach the database first
+        organizationalUnitRepository.flush();
+        organizationalUnitRepository.insertIntoHierarchy(unit.getObjectID(),
+                unit.getParentUnit() != null ? unit.getParentUnit().getObjectID() : null);
         return unit;
     }
 
@@ -147,12 +188,32 @@ public class OrganizationService {
                    OrganizationalUnit.STATUS_ACTIVE, parentUnitId).list();
     }
 
+    public List<UnitWithCounts> findUnitSubtree(String unitId, Integer maxDepth) {
+        return getOrgTree().subtree(unitId, maxDepth);
+    }
+
+    public List<UnitWithCounts> findUnitAncestorPath(String unitId) {
+        return getOrgTree().ancestors(unitId);
+    }
+
+    // A unit cannot hang from itself or from any of its descendants
+    private void checkHierarchyCycle(String unitId, String parentUnitId) {
+        if (organizationalUnitRepository.isInSubtree(unitId, parentUnitId)) {
+            throw new IllegalArgumentException("Unit " + parentUnitId + " is " + unitId +
+                " or one of its descendants and cannot be its parent");
+        }
+    }
+
     @Transactional
+    @StatsInvalidating
+    @OrgTreeInvalidating
     public OrganizationalUnit updateOrganizationalUnit(OrganizationalUnit unit) {
         return organizationalUnitRepository.getEntityManager().merge(unit);
     }
     
     @Transactional
+    @StatsInvalidating
+    @OrgTreeInvalidating
     public OrganizationalUnit updateOrganizationalUnitFromDTO(String id, com.humanrsc.datamodel.dto.OrganizationalUnitDTO dto) {
         Optional<OrganizationalUnit> existingUnit = organizationalUnitRepository.findById(id);
         if (existingUnit.isEmpty()) {
@@ -160,6 +221,7 @@ public class OrganizationService {
         }
         
         OrganizationalUnit unit = existingUnit.get();
+        String previousParentId = unit.getParentUnitId();
         
         // Actualizar campos del DTO
         unit.setName(dto.getName());
@@ -174,6 +236,7 @@ public class OrganizationService {
         if (dto.getParentUnitId() != null && !dto.getParentUnitId().trim().isEmpty()) {
             Optional<OrganizationalUnit> parentUnit = organizationalUnitRepository.findById(dto.getParentUnitId());
             if (parentUnit.isPresent()) {
+                checkHierarchyCycle(id, dto.getParentUnitId());
                 unit.setParentUnit(parentUnit.get());
             } else {
                 throw new IllegalArgumentException("Parent unit not found: " + dto.getParentUnitId());
@@ -182,10 +245,17 @@ public class OrganizationService {
             unit.setParentUnit(null); // Sin padre
         }
         
-        return organizationalUnitRepository.getEntityManager().merge(unit);
+        OrganizationalUnit updated = organizationalUnitRepository.getEntityManager().merge(unit);
+        if (!java.util.Objects.equals(previousParentId, updated.getParentUnitId())) {
+            organizationalUnitRepository.moveInHierarchy(updated.getObjectID(),
+                    updated.getParentUnit() != null ? updated.getParentUnit().getObjectID() : null);
+        }
+        return updated;
     }
     
     @Transactional
+    @StatsInvalidating
+    @OrgTreeInvalidating
     public boolean setParentUnit(String unitId, String parentUnitId) {
         try {
             Optional<OrganizationalUnit> unit = organizationalUnitRepository.findById(unitId);
@@ -198,10 +268,13 @@ public class OrganizationService {
                 throw new IllegalArgumentException("Parent unit not found: " + parentUnitId);
             }
             
+            checkHierarchyCycle(unitId, parentUnitId);
+            
             OrganizationalUnit unitToUpdate = unit.get();
             unitToUpdate.setParentUnit(parent.get());
             
             organizationalUnitRepository.getEntityManager().merge(unitToUpdate);
+            organizationalUnitRepository.moveInHierarchy(unitToUpdate.getObjectID(), parent.get().getObjectID());
             return true;
         } catch (Exception e) {
             throw new IllegalArgumentException("Failed to set parent unit: " + e.getMessage());
@@ -209,6 +282,8 @@ public class OrganizationService {
     }
     
     @Transactional
+    @StatsInvalidating
+    @OrgTreeInvalidating
     public boolean deleteOrganizationalUnit(String id) {
         Optional<OrganizationalUnit> unit = organizationalUnitRepository.findById(id);
         if (unit.isPresent()) {
@@ -258,6 +333,8 @@ public class OrganizationService {
     // ========== JOB POSITIONS ==========
 
     @Transactional
+    @StatsInvalidating
+    @OrgTreeInvalidating(OrgTreeInvalidating.Scope.COUNTS)
     public JobPosition createJobPosition(JobPosition position) {
         if (position.getObjectID() == null) {
             String id = UUID.randomUUID().toString();
@@ -291,6 +368,10 @@ public class OrganizationService {
         return jobPositionRepository.find("status = ?1 order by title", JobPosition.STATUS_ACTIVE).list();
     }
 
+    public List<JobPosition> findVacantPositions(int page, int size) {
+        return jobPositionRepository.findVacantPositions(page, size);
+    }
+
     public List<JobPosition> findAllPositions(int page, int size) {
         return jobPositionRepository.find("status = ?1 order by title", JobPosition.STATUS_ACTIVE)
                .page(io.quarkus.panache.common.Page.of(page, size))
@@ -318,12 +399,16 @@ public class OrganizationService {
     }
 
     @Transactional
+    @StatsInvalidating
+    @OrgTreeInvalidating(OrgTreeInvalidating.Scope.COUNTS)
     public JobPosition updateJobPosition(JobPosition position) {
         position.updateTimestamp();
         return jobPositionRepository.getEntityManager().merge(position);
     }
     
     @Transactional
+    @StatsInvalidating
+    @OrgTreeInvalidating(OrgTreeInvalidating.Scope.COUNTS)
     public JobPosition updateJobPositionFromDTO(String id, com.humanrsc.datamodel.dto.JobPositionDTO dto) {
         Optional<JobPosition> existingPosition = jobPositionRepository.findById(id);
         if (existingPosition.isEmpty()) {
@@ -368,6 +453,8 @@ public class OrganizationService {
     }
 
     @Transactional
+    @StatsInvalidating
+    @OrgTreeInvalidating(OrgTreeInvalidating.Scope.COUNTS)
     public boolean deleteJobPosition(String id) {
         Optional<JobPosition> position = jobPositionRepository.findById(id);
         if (position.isPresent()) {
@@ -385,6 +472,8 @@ public class OrganizationService {
     // ========== EMPLOYEES ==========
 
     @Transactional
+    @StatsInvalidating
+    @OrgTreeInvalidating(OrgTreeInvalidating.Scope.COUNTS)
     public Employee createEmployee(Employee employee) {
         if (employee.getObjectID() == null) {
             String id = UUID.randomUUID().toString();
@@ -414,6 +503,22 @@ public class OrganizationService {
             throw new com.humanrsc.exceptions.DuplicateResourceException("email", employee.getEmail(), "Employee");
         }
         
+        validateEmployeeFields(employee);
+        
+        employeeRepository.persist(employee);
+        payrollCostRollup.markChanged(employee.getHireDate());
+        
+        // Create notification for manager (or HR managers if no manager assigned)
+        createEmployeeHiredNotification(employee);
+        
+        return employee;
+    }
+
+    /**
+     * Field-level business rules for a new employee (no database access), shared with the bulk import.
+     * @throws com.humanrsc.exceptions.EmployeeValidationException on the first rule that fails
+     */
+    public void validateEmployeeFields(Employee employee) {
         // Validate hire date logic
         if (employee.getHireDate() != null && employee.getDateOfBirth() != null) {
             if (employee.getHireDate().isBefore(employee.getDateOfBirth())) {
@@ -446,13 +551,6 @@ public class OrganizationService {
             throw new com.humanrsc.exceptions.EmployeeValidationException("currency", "INVALID_CURRENCY", 
                 "Currency must be a valid ISO 4217 code (e.g., EUR, USD, GBP, JPY, etc.)");
         }
-        
-        employeeRepository.persist(employee);
-        
-        // Create notification for manager (or HR managers if no manager assigned)
-        createEmployeeHiredNotification(employee);
-        
-        return employee;
     }
 
     public Optional<Employee> findEmployeeById(String id) {
@@ -486,6 +584,33 @@ public class OrganizationService {
         return employeeRepository.findWithFilters(filters, page, size);
     }
     
+    public List<Employee> findEmployeesWithFiltersAfter(java.util.Map<String, Object> filters, 
+                                                       com.humanrsc.datamodel.dto.EmployeeCursor after, int size) {
+        return employeeRepository.findWithFiltersAfter(filters, after, size);
+    }
+    
+    /**
+     * Streams every matching employee to the consumer from a forward-only cursor; memory use
+     * does not depend on the tenant size. Runs in its own transaction so it can be called
+     * after the resource method has returned (e.g. from a StreamingOutput). The transaction
+     * timeout is app.export.transaction-timeout, since a big tenant or a slow client keeps it
+     * open far longer than the default.
+     */
+    @Transactional
+    @TransactionConfiguration(timeoutFromConfigProperty = "app.export.transaction-timeout")
+    public long exportEmployees(java.util.Map<String, Object> filters, 
+                                java.util.function.Consumer<com.humanrsc.datamodel.dto.EmployeeExportRow> consumer) {
+        long exported = 0;
+        try (org.hibernate.ScrollableResults<com.humanrsc.datamodel.dto.EmployeeExportRow> rows = 
+                 employeeRepository.scrollForExport(filters, exportFetchSize)) {
+            while (rows.next()) {
+                consumer.accept(rows.get());
+                exported++;
+            }
+        }
+        return exported;
+    }
+    
     public long countEmployeesWithFilters(java.util.Map<String, Object> filters) {
         return employeeRepository.countWithFilters(filters);
     }
@@ -497,17 +622,50 @@ public class OrganizationService {
     }
 
     @Transactional
+    @StatsInvalidating
+    @OrgTreeInvalidating(OrgTreeInvalidating.Scope.COUNTS)
     public Employee updateEmployee(Employee employee) {
         employee.updateTimestamp();
+        Employee existing = employee.getObjectID() != null
+            ? employeeRepository.getEntityManager().find(Employee.class, employee.getObjectID())
+            : null;
+        markPayrollCostChanges(existing, employee);
         return employeeRepository.getEntityManager().merge(employee);
     }
 
+    // Queues a payroll cost recompute only when a field it depends on changed, from the earliest month
+    // affected by the old or the new value; call it before merging over the managed entity
+    private void markPayrollCostChanges(Employee existing, Employee updated) {
+        if (existing == null) {
+            payrollCostRollup.markChanged(updated.getHireDate());
+            return;
+        }
+        List<LocalDate> changedFrom = new java.util.ArrayList<>();
+        boolean salaryChanged = existing.getCurrentSalary() == null || updated.getCurrentSalary() == null
+            ? existing.getCurrentSalary() != updated.getCurrentSalary()
+            : existing.getCurrentSalary().compareTo(updated.getCurrentSalary()) != 0;
+        // Salary and currency apply to every month without a history row, back to the hire date
+        if (salaryChanged || !Objects.equals(existing.getCurrency(), updated.getCurrency())
+                || !Objects.equals(existing.getHireDate(), updated.getHireDate())) {
+            changedFrom.add(existing.getHireDate());
+            changedFrom.add(updated.getHireDate());
+        }
+        if (!Objects.equals(existing.getTerminationDate(), updated.getTerminationDate())) {
+            changedFrom.add(existing.getTerminationDate());
+            changedFrom.add(updated.getTerminationDate());
+        }
+        payrollCostRollup.markChanged(changedFrom.toArray(LocalDate[]::new));
+    }
+
     @Transactional
+    @StatsInvalidating
+    @OrgTreeInvalidating(OrgTreeInvalidating.Scope.COUNTS)
     public boolean terminateEmployee(String id, LocalDate terminationDate) {
         Optional<Employee> employee = employeeRepository.findById(id);
         if (employee.isPresent()) {
             boolean result = employeeRepository.terminateEmployee(employee.get().getObjectID(), terminationDate);
             if (result) {
+                payrollCostRollup.markChanged(terminationDate);
                 createEmployeeTerminatedNotification(employee.get());
             }
             return result;
@@ -516,11 +674,14 @@ public class OrganizationService {
     }
 
     @Transactional
+    @StatsInvalidating
+    @OrgTreeInvalidating(OrgTreeInvalidating.Scope.COUNTS)
     public boolean resignEmployee(String id, LocalDate resignationDate) {
         Optional<Employee> employee = employeeRepository.findById(id);
         if (employee.isPresent()) {
             boolean result = employeeRepository.resignEmployee(employee.get().getObjectID(), resignationDate);
             if (result) {
+                payrollCostRollup.markChanged(resignationDate);
                 createEmployeeTerminatedNotification(employee.get()); // Same notification type for resign
             }
             return result;
@@ -533,6 +694,8 @@ public class OrganizationService {
 
 
     @Transactional
+    @StatsInvalidating
+    @OrgTreeInvalidating(OrgTreeInvalidating.Scope.COUNTS)
     public EmployeeAssignment createEmployeeAssignmentFromDTO(com.humanrsc.datamodel.dto.CreateEmployeeAssignmentDTO dto) {
         EmployeeAssignment assignment = new EmployeeAssignment();
         
@@ -612,6 +775,7 @@ public class OrganizationService {
         }
         
         employeeAssignmentRepository.persist(assignment);
+        payrollCostRollup.markChanged(assignment.getStartDate());
         return assignment;
     }
 
@@ -623,12 +787,31 @@ public class OrganizationService {
         return employeeAssignmentRepository.findCurrentByEmployee(employeeId);
     }
 
+    public List<EmployeeAssignment> findCurrentAssignments(int page, int size) {
+        return employeeAssignmentRepository.findCurrentAssignments(page, size);
+    }
+
+    public List<EmployeeAssignment> findUnitAssignments(String unitId, int page, int size) {
+        return employeeAssignmentRepository.findCurrentByUnit(unitId, page, size);
+    }
+
+    public List<EmployeeAssignment> findPositionAssignments(String positionId, int page, int size) {
+        return employeeAssignmentRepository.findCurrentByPosition(positionId, page, size);
+    }
+
     @Transactional
+    @StatsInvalidating
+    @OrgTreeInvalidating(OrgTreeInvalidating.Scope.COUNTS)
     public EmployeeAssignment updateEmployeeAssignment(EmployeeAssignment assignment) {
+        // The previous dates are unknown here, so recompute the whole employment
+        payrollCostRollup.markChanged(assignment.getStartDate(),
+            assignment.getEmployee() != null ? assignment.getEmployee().getHireDate() : null);
         return employeeAssignmentRepository.getEntityManager().merge(assignment);
     }
     
     @Transactional
+    @StatsInvalidating
+    @OrgTreeInvalidating(OrgTreeInvalidating.Scope.COUNTS)
     public EmployeeAssignment updateEmployeeAssignmentFromDTO(String id, com.humanrsc.datamodel.dto.EmployeeAssignmentDTO dto) {
         Optional<EmployeeAssignment> existingAssignment = employeeAssignmentRepository.findById(id);
         if (existingAssignment.isEmpty()) {
@@ -636,6 +819,7 @@ public class OrganizationService {
         }
         
         EmployeeAssignment assignment = existingAssignment.get();
+        payrollCostRollup.markChanged(assignment.getStartDate(), dto.getStartDate());
         
         // Actualizar campos del DTO
         assignment.setStartDate(dto.getStartDate());
@@ -850,6 +1034,8 @@ public class OrganizationService {
     // ========== SALARY HISTORY ==========
 
     @Transactional
+    @StatsInvalidating
+    @OrgTreeInvalidating(OrgTreeInvalidating.Scope.COUNTS)
     public SalaryHistory createSalaryHistory(SalaryHistory salaryHistory) {
         if (salaryHistory.getObjectID() == null) {
             String id = UUID.randomUUID().toString();
@@ -882,6 +1068,7 @@ public class OrganizationService {
         }
         
         salaryHistoryRepository.persist(salaryHistory);
+        payrollCostRollup.markChanged(salaryHistory.getEffectiveDate());
         return salaryHistory;
     }
 
@@ -918,12 +1105,46 @@ public class OrganizationService {
         return salaryHistoryRepository.findDecreases();
     }
 
+    /**
+     * Average, median and p90 salary increases by unit, position category and year. Without dates
+     * it covers the current and the last app.salary-history.analytics.default-years years and is served from the stats cache.
+     */
+    public SalaryIncreaseAnalytics getSalaryIncreaseAnalytics(Optional<LocalDate> from, Optional<LocalDate> to) {
+        if (from.isEmpty() && to.isEmpty()) {
+            return statsCache.get("salaryIncreaseAnalytics", () -> computeSalaryIncreaseAnalytics(
+                LocalDate.now().minusYears(salaryAnalyticsDefaultYears).withDayOfYear(1), LocalDate.now()));
+        }
+        LocalDate endDate = to.orElse(LocalDate.now());
+        LocalDate startDate = from.orElse(endDate.minusYears(salaryAnalyticsDefaultYears).withDayOfYear(1));
+        if (startDate.isAfter(endDate)) {
+            throw new IllegalArgumentException("from must not be after to");
+        }
+        return computeSalaryIncreaseAnalytics(startDate, endDate);
+    }
+
+    private SalaryIncreaseAnalytics computeSalaryIncreaseAnalytics(LocalDate from, LocalDate to) {
+        Map<String, List<SalaryHistoryRepository.IncreaseAnalyticsRow>> byDimension =
+            salaryHistoryRepository.getIncreaseAnalytics(from, to).stream()
+                .collect(Collectors.groupingBy(SalaryHistoryRepository.IncreaseAnalyticsRow::dimension));
+        return new SalaryIncreaseAnalytics(from, to,
+            byDimension.getOrDefault("unit", List.of()),
+            byDimension.getOrDefault("category", List.of()),
+            byDimension.getOrDefault("year", List.of()));
+    }
+
     @Transactional
+    @StatsInvalidating
+    @OrgTreeInvalidating(OrgTreeInvalidating.Scope.COUNTS)
     public SalaryHistory updateSalaryHistory(SalaryHistory salaryHistory) {
+        // The previous effective date is unknown here, so recompute the whole employment
+        payrollCostRollup.markChanged(salaryHistory.getEffectiveDate(),
+            salaryHistory.getEmployee() != null ? salaryHistory.getEmployee().getHireDate() : null);
         return salaryHistoryRepository.getEntityManager().merge(salaryHistory);
     }
     
     @Transactional
+    @StatsInvalidating
+    @OrgTreeInvalidating(OrgTreeInvalidating.Scope.COUNTS)
     public SalaryHistory updateSalaryHistoryFromDTO(String id, com.humanrsc.datamodel.dto.SalaryHistoryDTO dto) {
         Optional<SalaryHistory> existingHistory = salaryHistoryRepository.findById(id);
         if (existingHistory.isEmpty()) {
@@ -931,6 +1152,7 @@ public class OrganizationService {
         }
         
         SalaryHistory history = existingHistory.get();
+        payrollCostRollup.markChanged(history.getEffectiveDate(), dto.getEffectiveDate());
         
         // Actualizar campos del DTO
         history.setOldSalary(dto.getOldSalary());
@@ -969,6 +1191,8 @@ public class OrganizationService {
     // ========== BUSINESS LOGIC METHODS ==========
 
     @Transactional
+    @StatsInvalidating
+    @OrgTreeInvalidating(OrgTreeInvalidating.Scope.COUNTS)
     public void updateEmployeeSalary(String employeeId, BigDecimal newSalary, String reason, String approvedById) {
         Optional<Employee> employee = employeeRepository.findById(employeeId);
         if (employee.isPresent()) {
@@ -1000,36 +1224,88 @@ public class OrganizationService {
         }
     }
 
-    public List<Employee> findEmployeesByManager(String managerId) {
-        return employeeAssignmentRepository.findByManager(managerId)
-                .stream()
-                .filter(EmployeeAssignment::isCurrent)
-                .map(EmployeeAssignment::getEmployee)
-                .distinct()
-                .toList();
+    public List<Employee> findEmployeesByManager(String managerId, int page, int size) {
+        return employeeRepository.findCurrentByManager(managerId, page, size);
     }
 
-    public List<Employee> findEmployeesByUnit(String unitId) {
-        return employeeAssignmentRepository.findByUnit(unitId)
-                .stream()
-                .filter(EmployeeAssignment::isCurrent)
-                .map(EmployeeAssignment::getEmployee)
-                .distinct()
-                .toList();
+    // ========== REPORTING CHAIN ==========
+
+    /**
+     * Direct and indirect reports of the manager, closest first. {@code maxDepth} limits the levels
+     * walked down (app.reporting.max-depth when null, never above it).
+     */
+    public List<Employee> findTransitiveReports(String managerId, Integer maxDepth, int page, int size) {
+        return employeeRepository.findTransitiveReports(managerId, reportingDepth(maxDepth), page, size);
     }
 
-    public List<Employee> findEmployeesByPosition(String positionId) {
-        return employeeAssignmentRepository.findByPosition(positionId)
-                .stream()
-                .filter(EmployeeAssignment::isCurrent)
-                .map(EmployeeAssignment::getEmployee)
-                .distinct()
-                .toList();
+    public long countTransitiveReports(String managerId, Integer maxDepth) {
+        return employeeRepository.countTransitiveReports(managerId, reportingDepth(maxDepth));
+    }
+
+    // Managers above the employee, from the direct manager to the top
+    public List<Employee> findManagementChain(String employeeId) {
+        return employeeRepository.findManagementChain(employeeId, reportingMaxDepth);
+    }
+
+    private int reportingDepth(Integer maxDepth) {
+        if (maxDepth == null) {
+            return reportingMaxDepth;
+        }
+        if (maxDepth < 1) {
+            throw new IllegalArgumentException("maxDepth must be at least 1");
+        }
+        return Math.min(maxDepth, reportingMaxDepth);
+    }
+
+    // Span of control statistics
+    public SpanOfControlStats getSpanOfControlStats() {
+        return statsCache.get("spanOfControl", this::computeSpanOfControlStats);
+    }
+
+    private SpanOfControlStats computeSpanOfControlStats() {
+        List<EmployeeRepository.SpanOfControlBucket> buckets = employeeRepository.getSpanOfControlDistribution();
+
+        Map<Integer, Long> distribution = new LinkedHashMap<>();
+        long managers = 0;
+        long directReports = 0;
+        int maxSpan = 0;
+        for (EmployeeRepository.SpanOfControlBucket bucket : buckets) {
+            distribution.put(bucket.directReports(), bucket.managers());
+            managers += bucket.managers();
+            directReports += (long) bucket.directReports() * bucket.managers();
+            maxSpan = Math.max(maxSpan, bucket.directReports());
+        }
+
+        // Buckets come sorted by span, so the median is where the running count passes the middle
+        int medianSpan = 0;
+        long seen = 0;
+        for (EmployeeRepository.SpanOfControlBucket bucket : buckets) {
+            seen += bucket.managers();
+            if (seen * 2 >= managers) {
+                medianSpan = bucket.directReports();
+                break;
+            }
+        }
+
+        double averageSpan = managers > 0 ? (double) directReports / managers : 0.0;
+        return new SpanOfControlStats(managers, directReports, averageSpan, medianSpan, maxSpan, distribution);
+    }
+
+    public List<Employee> findEmployeesByUnit(String unitId, int page, int size) {
+        return employeeRepository.findCurrentByUnit(unitId, page, size);
+    }
+
+    public List<Employee> findEmployeesByPosition(String positionId, int page, int size) {
+        return employeeRepository.findCurrentByPosition(positionId, page, size);
     }
 
     // ========== ORGANIZATION STATISTICS ==========
 
     public OrganizationStats getOrganizationStats() {
+        return statsCache.get("organization", this::computeOrganizationStats);
+    }
+
+    private OrganizationStats computeOrganizationStats() {
         long totalEmployees = employeeRepository.count();
         long activeEmployees = employeeRepository.count("status = ?1", Employee.STATUS_ACTIVE);
         
@@ -1131,20 +1407,23 @@ public class OrganizationService {
 
     // Organizational statistics
     public OrganizationStructureStats getOrganizationStructureStats() {
+        return statsCache.get("structure", this::computeOrganizationStructureStats);
+    }
+
+    private OrganizationStructureStats computeOrganizationStructureStats() {
         long totalUnits = organizationalUnitRepository.count("status = ?1", OrganizationalUnit.STATUS_ACTIVE);
         long rootUnits = countRootUnits();
         long unitsWithChildren = countUnitsWithChildren();
         long leafUnits = countLeafUnits();
         
         // Count by levels (1-10)
-        Map<Integer, Long> unitsByLevel = new HashMap<>();
-        for (int level = 1; level <= 10; level++) {
-            long count = countUnitsByLevel(level);
-            if (count > 0) {
-                unitsByLevel.put(level, count);
-            }
-        }
+        Map<Integer, Long> unitsByLevel = organizationalUnitRepository.countActiveUnitsByLevel();
         
+        return buildStructureStats(totalUnits, rootUnits, unitsWithChildren, leafUnits, unitsByLevel);
+    }
+
+    private OrganizationStructureStats buildStructureStats(long totalUnits, long rootUnits, long unitsWithChildren, 
+                                                           long leafUnits, Map<Integer, Long> unitsByLevel) {
         // Find max level used (highest in hierarchy - level 1 is root)
         int maxLevel = unitsByLevel.keySet().stream()
             .mapToInt(Integer::intValue)
@@ -1163,6 +1442,63 @@ public class OrganizationService {
         );
     }
 
+    /**
+     * Organization, employee and structure stats for the dashboard in two statements:
+     * one FILTER-aggregated row across all tables plus the units-per-level grouping.
+     */
+    public OrganizationSnapshot getOrganizationSnapshot() {
+        return statsCache.get("snapshot", this::computeOrganizationSnapshot);
+    }
+
+    private OrganizationSnapshot computeOrganizationSnapshot() {
+        Object[] row = organizationalUnitRepository.getOrganizationSnapshotCounts();
+        Map<Integer, Long> unitsByLevel = organizationalUnitRepository.countActiveUnitsByLevel();
+        
+        long totalEmployees = asLong(row[0]);
+        long activeEmployees = asLong(row[1]);
+        long activeUnits = asLong(row[14]);
+        long activePositions = asLong(row[20]);
+        long activeAssignments = asLong(row[22]);
+        
+        // Same approximation as getOrganizationStats: active positions minus active assignments
+        long vacantPositions = Math.max(activePositions - activeAssignments, 0);
+        
+        OrganizationStats organizationStats = new OrganizationStats(
+            totalEmployees, activeEmployees,
+            asLong(row[13]), activeUnits,
+            asLong(row[19]), activePositions, vacantPositions,
+            activeAssignments,
+            asLong(row[23]), asLong(row[24]),
+            asInt(row[18]), asInt(row[21]),
+            asBigDecimal(row[10]), asBigDecimal(row[11]), asBigDecimal(row[12])
+        );
+        
+        EmployeeStats employeeStats = new EmployeeStats(
+            totalEmployees, activeEmployees, asLong(row[2]), asLong(row[3]), asLong(row[4]),
+            asLong(row[5]), asLong(row[6]), asLong(row[7]), asLong(row[8]), asLong(row[9])
+        );
+        
+        OrganizationStructureStats structureStats = buildStructureStats(
+            activeUnits, asLong(row[15]), asLong(row[16]), asLong(row[17]), unitsByLevel);
+        
+        return new OrganizationSnapshot(organizationStats, employeeStats, structureStats);
+    }
+
+    private static long asLong(Object value) {
+        return value != null ? ((Number) value).longValue() : 0L;
+    }
+
+    private static int asInt(Object value) {
+        return value != null ? ((Number) value).intValue() : 0;
+    }
+
+    private static BigDecimal asBigDecimal(Object value) {
+        if (value == null) {
+            return BigDecimal.ZERO;
+        }
+        return value instanceof BigDecimal decimal ? decimal : new BigDecimal(value.toString());
+    }
+
     // Position counts
     public long countPositions() {
         return jobPositionRepository.count();
@@ -1185,10 +1521,7 @@ public class OrganizationService {
     }
 
     public long countVacantPositions() {
-        return jobPositionRepository.count("status = ?1 and objectID not in " +
-                   "(select ea.position.objectID from EmployeeAssignment ea " +
-                   "where ea.endDate is null)", 
-                   JobPosition.STATUS_ACTIVE);
+        return jobPositionRepository.countVacantPositions();
     }
 
     // Category counts
@@ -1227,6 +1560,10 @@ public class OrganizationService {
 
     // Assignment statistics
     public AssignmentStats getAssignmentStats() {
+        return statsCache.get("assignments", this::computeAssignmentStats);
+    }
+
+    private AssignmentStats computeAssignmentStats() {
         long totalEmployees = employeeRepository.count("status = ?1", Employee.STATUS_ACTIVE);
         long activeAssignments = employeeAssignmentRepository.count("endDate is null");
         long employeesWithAssignments = employeeRepository.count("status = ?1 and objectID in " +
@@ -1241,51 +1578,58 @@ public class OrganizationService {
 
     // Salary statistics
     public SalaryStats getSalaryStats() {
-        // Get all active employees with salary
-        List<Employee> activeEmployees = employeeRepository.find("status = ?1 and currentSalary is not null", Employee.STATUS_ACTIVE).list();
+        return statsCache.get("salaries", this::computeSalaryStats);
+    }
+
+    private SalaryStats computeSalaryStats() {
+        // Aggregate per currency in SQL and convert each currency group once
+        List<EmployeeRepository.SalaryAggregate> aggregates = employeeRepository.getSalaryAggregatesByCurrency();
+        ExchangeRateTable rates = exchangeRateCache.current();
+        LocalDate today = LocalDate.now();
         
-        BigDecimal totalBudgetEUR = BigDecimal.ZERO;
         BigDecimal totalSalaryEUR = BigDecimal.ZERO;
         BigDecimal maxSalaryEUR = BigDecimal.ZERO;
-        BigDecimal minSalaryEUR = BigDecimal.valueOf(Double.MAX_VALUE);
+        BigDecimal minSalaryEUR = null;
+        long employeeCount = 0;
         Map<String, Long> currencyDistribution = new HashMap<>();
         
-        for (Employee employee : activeEmployees) {
-            BigDecimal salary = employee.getCurrentSalary();
-            String currency = employee.getCurrency();
-            
-            // Count currency distribution
-            currencyDistribution.merge(currency, 1L, Long::sum);
+        for (EmployeeRepository.SalaryAggregate aggregate : aggregates) {
+            currencyDistribution.merge(aggregate.currency(), aggregate.employeeCount(), Long::sum);
+            employeeCount += aggregate.employeeCount();
             
-            // Convert to EUR for calculations
-            BigDecimal salaryEUR = currencyExchangeRateRepository.convertAmount(salary, currency, "EUR");
+            // Conversion is a positive scale factor, so the group's max and min stay max and min in EUR
+            BigDecimal groupTotalEUR = rates.convert(aggregate.totalSalary(), aggregate.currency(), "EUR", today);
+            BigDecimal groupMaxEUR = rates.convert(aggregate.maxSalary(), aggregate.currency(), "EUR", today);
+            BigDecimal groupMinEUR = rates.convert(aggregate.minSalary(), aggregate.currency(), "EUR", today);
             
-            totalSalaryEUR = totalSalaryEUR.add(salaryEUR);
+            totalSalaryEUR = totalSalaryEUR.add(groupTotalEUR);
             
-            if (salaryEUR.compareTo(maxSalaryEUR) > 0) {
-                maxSalaryEUR = salaryEUR;
+            if (groupMaxEUR.compareTo(maxSalaryEUR) > 0) {
+                maxSalaryEUR = groupMaxEUR;
             }
             
-            if (salaryEUR.compareTo(minSalaryEUR) < 0) {
-                minSalaryEUR = salaryEUR;
+            if (minSalaryEUR == null || groupMinEUR.compareTo(minSalaryEUR) < 0) {
+                minSalaryEUR = groupMinEUR;
             }
         }
         
-        totalBudgetEUR = totalSalaryEUR;
-        
         // Calculate average
-        BigDecimal avgSalaryEUR = activeEmployees.isEmpty() ? BigDecimal.ZERO : 
-            totalSalaryEUR.divide(BigDecimal.valueOf(activeEmployees.size()), 2, java.math.RoundingMode.HALF_UP);
+        BigDecimal avgSalaryEUR = employeeCount == 0 ? BigDecimal.ZERO : 
+            totalSalaryEUR.divide(BigDecimal.valueOf(employeeCount), 2, java.math.RoundingMode.HALF_UP);
         
         // Set min salary to 0 if no employees found
-        if (minSalaryEUR.compareTo(BigDecimal.valueOf(Double.MAX_VALUE)) == 0) {
+        if (minSalaryEUR == null) {
             minSalaryEUR = BigDecimal.ZERO;
         }
         
-        return new SalaryStats(totalBudgetEUR, avgSalaryEUR, maxSalaryEUR, minSalaryEUR, "EUR", currencyDistribution);
+        return new SalaryStats(totalSalaryEUR, avgSalaryEUR, maxSalaryEUR, minSalaryEUR, "EUR", currencyDistribution);
     }
 
     public EmployeeStats getEmployeeStats() {
+        return statsCache.get("employees", this::computeEmployeeStats);
+    }
+
+    private EmployeeStats computeEmployeeStats() {
         long totalEmployees = employeeRepository.count();
         long activeEmployees = employeeRepository.count("status = ?1", Employee.STATUS_ACTIVE);
         long inactiveEmployees = employeeRepository.count("status = ?1", Employee.STATUS_INACTIVE);
@@ -1307,17 +1651,69 @@ public class OrganizationService {
         );
     }
 
+    // ========== SEARCH ==========
+
+    /**
+     * Ranked search across employees, positions and units, cut off at the top {@code limit} hits
+     * (app.search.default-results when null, never above app.search.max-results).
+     * Terms shorter than app.search.min-length are rejected: pg_trgm cannot use the index below 3 characters.
+     */
+    public List<OrganizationSearchHit> search(String query, Integer limit) {
+        String term = query != null ? query.trim().toLowerCase() : "";
+        if (term.length() < searchMinLength) {
+            throw new IllegalArgumentException("Search term must have at least " + searchMinLength + " characters");
+        }
+        int topK = limit != null ? Math.min(Math.max(limit, 1), searchMaxResults) : searchDefaultResults;
+        return organizationalUnitRepository.searchOrganization(term, "%" + escapeLike(term) + "%", topK);
+    }
+
+    private static String escapeLike(String term) {
+        return term.replace("\\", "\\\\").replace("%", "\\%").replace("_", "\\_");
+    }
+
     // ========== ORGANIZATION CHART ==========
 
-        public SimpleOrganizationChart getOrganizationChart() {
+    public SimpleOrganizationChart getOrganizationChart() {
+        return getOrgTree().getChart();
+    }
+
+    /**
+     * Tenant org tree snapshot; chart and subtree reads are served from it until a write invalidates it
+     */
+    public OrgTreeSnapshot getOrgTree() {
+        return orgTreeCache.get(this::loadOrgTree, this::refreshOrgTreeCounts);
+    }
+
+    private OrgTreeSnapshot loadOrgTree() {
         List<PositionCategory> categories = positionCategoryRepository.findAllActive();
         List<Object[]> unitsData = organizationalUnitRepository.getUnitsWithCounts();
+        Map<String, UnitRollup> rollups = computeSubtreeRollups();
 
         List<UnitWithCounts> units = unitsData.stream()
-                .map(this::mapToUnitWithCounts)
+                .map(row -> mapToUnitWithCounts(row, rollups))
                 .toList();
 
-        return new SimpleOrganizationChart(units, categories);
+        return OrgTreeSnapshot.of(units, categories);
+    }
+
+    // Same units and hierarchy, only the assignment-derived counts and rollups are reloaded
+    private OrgTreeSnapshot refreshOrgTreeCounts(OrgTreeSnapshot previous) {
+        Map<String, OrganizationalUnitRepository.DirectUnitCountsRow> counts = new HashMap<>();
+        for (OrganizationalUnitRepository.DirectUnitCountsRow row : organizationalUnitRepository.getDirectUnitCounts()) {
+            counts.put(row.unitId(), row);
+        }
+        Map<String, UnitRollup> rollups = computeSubtreeRollups();
+
+        return previous.withUnits(unit -> {
+            OrganizationalUnitRepository.DirectUnitCountsRow direct = counts.get(unit.getId());
+            UnitRollup rollup = rollups.getOrDefault(unit.getId(), UnitRollup.EMPTY);
+            return unit.withCounts(
+                direct != null ? direct.employeeCount() : 0L,
+                direct != null ? direct.positionCount() : 0L,
+                direct != null ? direct.minHierarchicalLevel() : null,
+                direct != null ? direct.maxHierarchicalLevel() : null,
+                rollup.employees(), rollup.positions(), rollup.salaryBudgetEUR());
+        });
     }
 
     // ========== ORGANIZATIONAL LEVELS ==========
@@ -1337,7 +1733,30 @@ public class OrganizationService {
                     OrganizationalUnit.STATUS_ACTIVE, level);
     }
 
-    private UnitWithCounts mapToUnitWithCounts(Object[] row) {
+    // Branch totals per unit id, with each salary currency converted to EUR once
+    private Map<String, UnitRollup> computeSubtreeRollups() {
+        ExchangeRateTable rates = exchangeRateCache.current();
+        LocalDate today = LocalDate.now();
+        Map<String, UnitRollup> rollups = new HashMap<>();
+        for (OrganizationalUnitRepository.SubtreeRollupRow row : organizationalUnitRepository.getSubtreeRollups()) {
+            UnitRollup rollup = new UnitRollup(row.employeeCount(), row.positionCount(),
+                    rates.convert(row.salaryTotal(), row.currency(), "EUR", today));
+            rollups.merge(row.unitId(), rollup, UnitRollup::plus);
+        }
+        return rollups;
+    }
+
+    private record UnitRollup(long employees, long positions, BigDecimal salaryBudgetEUR) {
+        static final UnitRollup EMPTY = new UnitRollup(0, 0, BigDecimal.ZERO);
+
+        // Rows of the same unit differ only by currency; positionCount is already the branch total
+        UnitRollup plus(UnitRollup other) {
+            return new UnitRollup(employees + other.employees, Math.max(positions, other.positions),
+                    salaryBudgetEUR.add(other.salaryBudgetEUR));
+        }
+    }
+
+    private UnitWithCounts mapToUnitWithCounts(Object[] row, Map<String, UnitRollup> rollups) {
         String id = (String) row[0];
         String name = (String) row[2];
         String description = (String) row[3];
@@ -1351,12 +1770,14 @@ public class OrganizationService {
         Long positionCount = (Long) row[13];
         Integer minLevel = (Integer) row[14];
         Integer maxLevel = (Integer) row[15];
+        UnitRollup rollup = rollups.getOrDefault(id, UnitRollup.EMPTY);
         
         return new UnitWithCounts(
             id, name, description, costCenter, location, country, status, parentUnitId,
             employeeCount != null ? employeeCount : 0L,
             positionCount != null ? positionCount : 0L,
-            minLevel, maxLevel, organizationalLevel
+            minLevel, maxLevel, organizationalLevel,
+            rollup.employees(), rollup.positions(), rollup.salaryBudgetEUR()
         );
     }
 
@@ -1463,6 +1884,32 @@ public class OrganizationService {
         public long getInterns() { return interns; }
     }
 
+    public static class SalaryIncreaseAnalytics {
+        private final LocalDate from;
+        private final LocalDate to;
+        private final List<SalaryHistoryRepository.IncreaseAnalyticsRow> byUnit;
+        private final List<SalaryHistoryRepository.IncreaseAnalyticsRow> byCategory;
+        private final List<SalaryHistoryRepository.IncreaseAnalyticsRow> byYear;
+
+        public SalaryIncreaseAnalytics(LocalDate from, LocalDate to,
+                                       List<SalaryHistoryRepository.IncreaseAnalyticsRow> byUnit,
+                                       List<SalaryHistoryRepository.IncreaseAnalyticsRow> byCategory,
+                                       List<SalaryHistoryRepository.IncreaseAnalyticsRow> byYear) {
+            this.from = from;
+            this.to = to;
+            this.byUnit = byUnit;
+            this.byCategory = byCategory;
+            this.byYear = byYear;
+        }
+
+        // Getters
+        public LocalDate getFrom() { return from; }
+        public LocalDate getTo() { return to; }
+        public List<SalaryHistoryRepository.IncreaseAnalyticsRow> getByUnit() { return byUnit; }
+        public List<SalaryHistoryRepository.IncreaseAnalyticsRow> getByCategory() { return byCategory; }
+        public List<SalaryHistoryRepository.IncreaseAnalyticsRow> getByYear() { return byYear; }
+    }
+
     public static class SalaryStats {
         private final BigDecimal totalBudget;
         private final BigDecimal avgSalary;
@@ -1510,6 +1957,34 @@ public class OrganizationService {
         public double getAssignmentPercentage() { return assignmentPercentage; }
     }
 
+    public static class SpanOfControlStats {
+        private final long totalManagers;
+        private final long totalDirectReports;
+        private final double averageSpan;
+        private final int medianSpan;
+        private final int maxSpan;
+        private final Map<Integer, Long> distribution;
+
+        public SpanOfControlStats(long totalManagers, long totalDirectReports, double averageSpan,
+                                  int medianSpan, int maxSpan, Map<Integer, Long> distribution) {
+            this.totalManagers = totalManagers;
+            this.totalDirectReports = totalDirectReports;
+            this.averageSpan = averageSpan;
+            this.medianSpan = medianSpan;
+            this.maxSpan = maxSpan;
+            this.distribution = distribution;
+        }
+
+        // Getters
+        public long getTotalManagers() { return totalManagers; }
+        public long getTotalDirectReports() { return totalDirectReports; }
+        public double getAverageSpan() { return averageSpan; }
+        public int getMedianSpan() { return medianSpan; }
+        public int getMaxSpan() { return maxSpan; }
+        // Number of direct reports -> number of managers with that many
+        public Map<Integer, Long> getDistribution() { return distribution; }
+    }
+
     public static class OrganizationStructureStats {
         private final long totalUnits;
         private final long rootUnits;
@@ -1539,6 +2014,23 @@ public class OrganizationService {
         public Map<Integer, Long> getUnitsByLevel() { return unitsByLevel; }
     }
 
+    public static class OrganizationSnapshot {
+        private final OrganizationStats organization;
+        private final EmployeeStats employees;
+        private final OrganizationStructureStats structure;
+
+        public OrganizationSnapshot(OrganizationStats organization, EmployeeStats employees, OrganizationStructureStats structure) {
+            this.organization = organization;
+            this.employees = employees;
+            this.structure = structure;
+        }
+
+        // Getters
+        public OrganizationStats getOrganization() { return organization; }
+        public EmployeeStats getEmployees() { return employees; }
+        public OrganizationStructureStats getStructure() { return structure; }
+    }
+
     public static class UnitWithCounts {
         private final String id;
         private final String name;
@@ -1554,12 +2046,18 @@ public class OrganizationService {
         private final Integer maxHierarchicalLevel;
         private final boolean hasPositions;
         private final Integer organizationalLevel;
+        // Rollups over the unit and all its descendants
+        private final long subtreeEmployeeCount;
+        private final long subtreePositionCount;
+        private final BigDecimal subtreeSalaryBudgetEUR;
 
         public UnitWithCounts(String id, String name, String description, String costCenter,
                             String location, String country, String status, String parentUnitId,
                             long employeeCount, long positionCount, 
                             Integer minHierarchicalLevel, Integer maxHierarchicalLevel,
-                            Integer organizationalLevel) {
+                            Integer organizationalLevel,
+                            long subtreeEmployeeCount, long subtreePositionCount,
+                            BigDecimal subtreeSalaryBudgetEUR) {
             this.id = id;
             this.name = name;
             this.description = description;
@@ -1574,6 +2072,9 @@ public class OrganizationService {
             this.maxHierarchicalLevel = maxHierarchicalLevel;
             this.hasPositions = positionCount > 0;
             this.organizationalLevel = organizationalLevel;
+            this.subtreeEmployeeCount = subtreeEmployeeCount;
+            this.subtreePositionCount = subtreePositionCount;
+            this.subtreeSalaryBudgetEUR = subtreeSalaryBudgetEUR;
         }
 
         // Getters
@@ -1591,6 +2092,20 @@ public class OrganizationService {
         public Integer getMaxHierarchicalLevel() { return maxHierarchicalLevel; }
         public boolean isHasPositions() { return hasPositions; }
         public Integer getOrganizationalLevel() { return organizationalLevel; }
+
+        // Same unit with refreshed counts
+        public UnitWithCounts withCounts(long employeeCount, long positionCount,
+                                         Integer minHierarchicalLevel, Integer maxHierarchicalLevel,
+                                         long subtreeEmployeeCount, long subtreePositionCount,
+                                         BigDecimal subtreeSalaryBudgetEUR) {
+            return new UnitWithCounts(id, name, description, costCenter, location, country, status, parentUnitId,
+                    employeeCount, positionCount, minHierarchicalLevel, maxHierarchicalLevel, organizationalLevel,
+                    subtreeEmployeeCount, subtreePositionCount, subtreeSalaryBudgetEUR);
+        }
+
+        public long getSubtreeEmployeeCount() { return subtreeEmployeeCount; }
+        public long getSubtreePositionCount() { return subtreePositionCount; }
+        public BigDecimal getSubtreeSalaryBudgetEUR() { return subtreeSalaryBudgetEUR; }
     }
 
     public static class SimpleOrganizationChart {
@@ -1657,25 +2172,20 @@ public class OrganizationService {
      * Create notification when an employee is hired
      */
     private void createEmployeeHiredNotification(Employee employee) {
-        try {
-            String managerId = getManagerIdForEmployee(employee);
-            if (managerId != null) {
-                String title = "New Employee Hired";
-                String message = String.format("Employee %s %s (ID: %s) has been hired", 
-                    employee.getFirstName(), employee.getLastName(), employee.getEmployeeId());
-                
-                notificationService.createNotification(
-                    managerId,
-                    com.humanrsc.datamodel.enums.NotificationType.EMPLOYEE_HIRED,
-                    title,
-                    message,
-                    "Employee",
-                    employee.getObjectID().getId()
-                );
-            }
-        } catch (Exception e) {
-            // Log error but don't fail the main operation
-            System.err.println("Failed to create employee hired notification: " + e.getMessage());
+        String managerId = getManagerIdForEmployee(employee);
+        if (managerId != null) {
+            String title = "New Employee Hired";
+            String message = String.format("Employee %s %s (ID: %s) has been hired", 
+                employee.getFirstName(), employee.getLastName(), employee.getEmployeeId());
+            
+            notificationService.enqueueNotification(
+                managerId,
+                com.humanrsc.datamodel.enums.NotificationType.EMPLOYEE_HIRED,
+                title,
+                message,
+                "Employee",
+                employee.getObjectID().getId()
+            );
         }
     }
     
@@ -1683,24 +2193,20 @@ public class OrganizationService {
      * Create notification when an employee is terminated or resigned
      */
     private void createEmployeeTerminatedNotification(Employee employee) {
-        try {
-            String managerId = getManagerIdForEmployee(employee);
-            if (managerId != null) {
-                String title = "Employee Terminated";
-                String message = String.format("Employee %s %s (ID: %s) has been terminated/resigned", 
-                    employee.getFirstName(), employee.getLastName(), employee.getEmployeeId());
-                
-                notificationService.createNotification(
-                    managerId,
-                    com.humanrsc.datamodel.enums.NotificationType.EMPLOYEE_TERMINATED,
-                    title,
-                    message,
-                    "Employee",
-                    employee.getObjectID().getId()
-                );
-            }
-        } catch (Exception e) {
-            System.err.println("Failed to create employee terminated notification: " + e.getMessage());
+        String managerId = getManagerIdForEmployee(employee);
+        if (managerId != null) {
+            String title = "Employee Terminated";
+            String message = String.format("Employee %s %s (ID: %s) has been terminated/resigned", 
+                employee.getFirstName(), employee.getLastName(), employee.getEmployeeId());
+            
+            notificationService.enqueueNotification(
+                managerId,
+                com.humanrsc.datamodel.enums.NotificationType.EMPLOYEE_TERMINATED,
+                title,
+                message,
+                "Employee",
+                employee.getObjectID().getId()
+            );
         }
     }
     
@@ -1708,25 +2214,21 @@ public class OrganizationService {
      * Create notification when an employee's salary is changed
      */
     private void createSalaryChangedNotification(Employee employee, BigDecimal oldSalary, BigDecimal newSalary) {
-        try {
-            String managerId = getManagerIdForEmployee(employee);
-            if (managerId != null) {
-                String title = "Salary Changed";
-                String message = String.format("Employee %s %s salary changed from %s to %s %s", 
-                    employee.getFirstName(), employee.getLastName(), 
-                    oldSalary, newSalary, employee.getCurrency());
-                
-                notificationService.createNotification(
-                    managerId,
-                    com.humanrsc.datamodel.enums.NotificationType.SALARY_CHANGED,
-                    title,
-                    message,
-                    "Employee",
-                    employee.getObjectID().getId()
-                );
-            }
-        } catch (Exception e) {
-            System.err.println("Failed to create salary changed notification: " + e.getMessage());
+        String managerId = getManagerIdForEmployee(employee);
+        if (managerId != null) {
+            String title = "Salary Changed";
+            String message = String.format("Employee %s %s salary changed from %s to %s %s", 
+                employee.getFirstName(), employee.getLastName(), 
+                oldSalary, newSalary, employee.getCurrency());
+            
+            notificationService.enqueueNotification(
+                managerId,
+                com.humanrsc.datamodel.enums.NotificationType.SALARY_CHANGED,
+                title,
+                message,
+                "Employee",
+                employee.getObjectID().getId()
+            );
         }
     }
     
@@ -1734,28 +2236,24 @@ public class OrganizationService {
      * Create notification when a temporary replacement starts
      */
     private void createReplacementStartedNotification(TemporaryReplacement replacement) {
-        try {
-            Employee originalEmployee = replacement.getOriginalEmployee();
-            Employee replacementEmployee = replacement.getReplacementEmployee();
+        Employee originalEmployee = replacement.getOriginalEmployee();
+        Employee replacementEmployee = replacement.getReplacementEmployee();
+        
+        String managerId = getManagerIdForEmployee(originalEmployee);
+        if (managerId != null) {
+            String title = "Temporary Replacement Started";
+            String message = String.format("Temporary replacement: %s %s replacing %s %s", 
+                replacementEmployee.getFirstName(), replacementEmployee.getLastName(),
+                originalEmployee.getFirstName(), originalEmployee.getLastName());
             
-            String managerId = getManagerIdForEmployee(originalEmployee);
-            if (managerId != null) {
-                String title = "Temporary Replacement Started";
-                String message = String.format("Temporary replacement: %s %s replacing %s %s", 
-                    replacementEmployee.getFirstName(), replacementEmployee.getLastName(),
-                    originalEmployee.getFirstName(), originalEmployee.getLastName());
-                
-                notificationService.createNotification(
-                    managerId,
-                    com.humanrsc.datamodel.enums.NotificationType.REPLACEMENT_STARTED,
-                    title,
-                    message,
-                    "TemporaryReplacement",
-                    replacement.getObjectID().getId()
-                );
-            }
-        } catch (Exception e) {
-            System.err.println("Failed to create replacement started notification: " + e.getMessage());
+            notificationService.enqueueNotification(
+                managerId,
+                com.humanrsc.datamodel.enums.NotificationType.REPLACEMENT_STARTED,
+                title,
+                message,
+                "TemporaryReplacement",
+                replacement.getObjectID().getId()
+            );
         }
     }
     
@@ -1763,49 +2261,34 @@ public class OrganizationService {
      * Create notification when a temporary replacement is completed
      */
     private void createReplacementCompletedNotification(TemporaryReplacement replacement) {
-        try {
-            Employee originalEmployee = replacement.getOriginalEmployee();
-            Employee replacementEmployee = replacement.getReplacementEmployee();
+        Employee originalEmployee = replacement.getOriginalEmployee();
+        Employee replacementEmployee = replacement.getReplacementEmployee();
+        
+        String managerId = getManagerIdForEmployee(originalEmployee);
+        if (managerId != null) {
+            String title = "Temporary Replacement Completed";
+            String message = String.format("Temporary replacement completed: %s %s was replacing %s %s", 
+                replacementEmployee.getFirstName(), replacementEmployee.getLastName(),
+                originalEmployee.getFirstName(), originalEmployee.getLastName());
             
-            String managerId = getManagerIdForEmployee(originalEmployee);
-            if (managerId != null) {
-                String title = "Temporary Replacement Completed";
-                String message = String.format("Temporary replacement completed: %s %s was replacing %s %s", 
-                    replacementEmployee.getFirstName(), replacementEmployee.getLastName(),
-                    originalEmployee.getFirstName(), originalEmployee.getLastName());
-                
-                notificationService.createNotification(
-                    managerId,
-                    com.humanrsc.datamodel.enums.NotificationType.REPLACEMENT_COMPLETED,
-                    title,
-                    message,
-                    "TemporaryReplacement",
-                    replacement.getObjectID().getId()
-                );
-            }
-        } catch (Exception e) {
-            System.err.println("Failed to create replacement completed notification: " + e.getMessage());
+            notificationService.enqueueNotification(
+                managerId,
+                com.humanrsc.datamodel.enums.NotificationType.REPLACEMENT_COMPLETED,
+                title,
+                message,
+                "TemporaryReplacement",
+                replacement.getObjectID().getId()
+            );
         }
     }
     
     /**
-     * Get the manager ID for an employee, or return a default HR manager if none assigned
-     * Returns the userId from the manager's current assignment, or null if none found
+     * User to notify about an employee: the manager of its current assignment, or null to skip
+     * the notification if no manager is assigned
      */
     private String getManagerIdForEmployee(Employee employee) {
-        // Try to find the employee's current assignment and get the manager
-        List<EmployeeAssignment> assignments = employeeAssignmentRepository.findByEmployee(employee.getObjectID().getId());
-        for (EmployeeAssignment assignment : assignments) {
-            if (assignment.isCurrent() && assignment.getManager() != null) {
-                // Return the manager's user ID (assuming it matches employee ID for now)
-                // TODO: In a real implementation, you would map employee to Auth0 user ID
-                return assignment.getManager().getObjectID().getId();
-            }
-        }
-        
-        // If no manager found, could return a default HR manager user ID here
-        // For now, return null to skip notification if no manager assigned
-        return null;
+        // TODO: In a real implementation, you would map employee to Auth0 user ID
+        return employeeAssignmentRepository.findCurrentManagerId(employee.getObjectID().getId()).orElse(null);
     }
 
 
@@ -0,0 +1,224 @@
+package com.humanrsc.services;
+
+import com.humanrsc.config.ThreadLocalStorage;
+import com.humanrsc.datamodel.repo.CurrencyExchangeRateRepository;
+import com.humanrsc.datamodel.repo.PayrollCostRepository;
+import io.quarkus.logging.Log;
+import io.quarkus.narayana.jta.QuarkusTransaction;
+import io.quarkus.scheduler.Scheduled;
+import jakarta.enterprise.context.ApplicationScoped;
+import jakarta.inject.Inject;
+import jakarta.transaction.Status;
+import jakarta.transaction.Transactional;
+import jakarta.transaction.TransactionSynchronizationRegistry;
+import org.eclipse.microprofile.config.inject.ConfigProperty;
+import org.eclipse.microprofile.metrics.MetricRegistry;
+
+import java.time.LocalDate;
+import java.time.YearMonth;
+import java.time.temporal.ChronoUnit;
+import java.util.List;
+import java.util.Optional;
+import java.util.Set;
+
+/**
+ * Monthly payroll cost per unit and currency (hr_app.payroll_cost_monthly, see V1.16.0).
+ *
+ * Writes that change who is employed, their salary or their unit call {@link #markChanged} in their
+ * own transaction, which queues the first affected month. The queue is drained every
+ * {@code app.payroll-cost.rollup.poll-interval}: claimed rows are leased for
+ * {@code app.payroll-cost.rollup.lease-seconds}, each tenant is recomputed from its earliest queued
+ * month up to the current one, {@code app.payroll-cost.rollup.months-per-transaction} months per
+ * transaction, and the totals priced in EUR at each month's as-of date with the rates read in that
+ * transaction. The claimed rows are deleted with the last range, so if the instance dies first they
+ * are claimed again once the lease expires. A failed range is queued again. Every night the current month (and the previous one on the 1st) is queued for all tenants,
+ * so the series moves forward and future-dated changes take effect without any write.
+ *
+ * Metrics: payroll_cost.rollup.months (months recomputed), payroll_cost.rollup.failures.
+ */
+@ApplicationScoped
+public class PayrollCostRollupService {
+
+    private static final Set<String> GROUPINGS = Set.of(
+        PayrollCostRepository.GROUP_TOTAL, PayrollCostRepository.GROUP_UNIT, PayrollCostRepository.GROUP_CURRENCY);
+
+    @Inject
+    PayrollCostRepository payrollCostRepository;
+
+    @Inject
+    CurrencyExchangeRateRepository currencyExchangeRateRepository;
+
+    @Inject
+    TransactionSynchronizationRegistry synchronizationRegistry;
+
+    @Inject
+    MetricRegistry metricRegistry;
+
+    @ConfigProperty(name = "app.payroll-cost.rollup.batch-size", defaultValue = "500")
+    int batchSize;
+
+    @ConfigProperty(name = "app.payroll-cost.rollup.lease-seconds", defaultValue = "900")
+    int leaseSeconds;
+
+    @ConfigProperty(name = "app.payroll-cost.rollup.months-per-transaction", defaultValue = "12")
+    int monthsPerTransaction;
+
+    @ConfigProperty(name = "app.payroll-cost.rollup.max-history-months", defaultValue = "120")
+    int maxHistoryMonths;
+
+    @ConfigProperty(name = "app.payroll-cost.series.max-months", defaultValue = "120")
+    int seriesMaxMonths;
+
+    /**
+     * Queues a recompute from the month of the earliest given date; call it inside the transaction
+     * making the change. Future months are left to the nightly roll-forward.
+     */
+    public void markChanged(LocalDate... dates) {
+        LocalDate earliest = null;
+        for (LocalDate date : dates) {
+            if (date != null && (earliest == null || date.isBefore(earliest))) {
+                earliest = date;
+            }
+        }
+        if (earliest == null || YearMonth.from(earliest).isAfter(YearMonth.now())) {
+            return;
+        }
+        LocalDate fromMonth = earliest.withDayOfMonth(1);
+
+        // One queue row per transaction unless a later call reaches further back
+        int status = synchronizationRegistry.getTransactionStatus();
+        if (status == Status.STATUS_ACTIVE) {
+            LocalDate queued = (LocalDate) synchronizationRegistry.getResource(PayrollCostRollupService.class);
+            if (queued != null && !fromMonth.isBefore(queued)) {
+                return;
+            }
+            synchronizationRegistry.putResource(PayrollCostRollupService.class, fromMonth);
+        }
+        payrollCostRepository.enqueue(fromMonth);
+    }
+
+    /**
+     * Queues a recompute of the current tenant from {@code from}, or from its earliest hire
+     * when absent; returns the first month queued (empty without employees)
+     */
+    @Transactional
+    public Optional<YearMonth> backfill(Optional<YearMonth> from) {
+        LocalDate start = from.map(month -> month.atDay(1)).orElseGet(payrollCostRepository::findEarliestHireDate);
+        if (start == null) {
+            return Optional.empty();
+        }
+        YearMonth firstMonth = YearMonth.from(start);
+        if (firstMonth.isAfter(YearMonth.now())) {
+            throw new IllegalArgumentException("from must not be after the current month");
+        }
+        YearMonth oldest = YearMonth.now().minusMonths(maxHistoryMonths - 1);
+        if (firstMonth.isBefore(oldest)) {
+            firstMonth = oldest;
+        }
+        payrollCostRepository.enqueue(firstMonth.atDay(1));
+        return Optional.of(firstMonth);
+    }
+
+    /**
+     * Monthly series of the current tenant; see PayrollCostRepository.findMonthly
+     */
+    public List<PayrollCostRepository.PayrollCostPoint> findMonthly(YearMonth from, YearMonth to, String unitId,
+                                                                   String groupBy) {
+        String grouping = groupBy != null ? groupBy : PayrollCostRepository.GROUP_TOTAL;
+        if (!GROUPINGS.contains(grouping)) {
+            throw new IllegalArgumentException("groupBy must be one of total, unit, currency");
+        }
+        if (from.isAfter(to)) {
+            throw new IllegalArgumentException("from must not be after to");
+        }
+        if (from.plusMonths(seriesMaxMonths).isBefore(to.plusMonths(1))) {
+            throw new IllegalArgumentException("The range cannot exceed " + seriesMaxMonths + " months");
+        }
+        String unit = unitId != null && !unitId.isBlank() ? unitId : null;
+        return payrollCostRepository.findMonthly(from.atDay(1), to.atDay(1), unit, grouping);
+    }
+
+    @Scheduled(every = "${app.payroll-cost.rollup.poll-interval:30s}",
+               concurrentExecution = Scheduled.ConcurrentExecution.SKIP)
+    void drain() {
+        List<PayrollCostRepository.QueuedRecompute> claimed;
+        boolean failed = false;
+        do {
+            // The lease is committed on its own; the rows stay queued until their recompute commits
+            claimed = QuarkusTransaction.requiringNew().call(() -> payrollCostRepository.claimQueued(batchSize, leaseSeconds));
+            for (PayrollCostRepository.QueuedRecompute queued : claimed) {
+                failed |= !recomputeTenant(queued);
+            }
+            // Failed ranges were queued again; leave them to the next run
+        } while (!claimed.isEmpty() && !failed);
+    }
+
+    @Scheduled(cron = "${app.payroll-cost.rollup.roll-forward-cron:0 15 2 * * ?}",
+               concurrentExecution = Scheduled.ConcurrentExecution.SKIP)
+    void rollForward() {
+        try {
+            // Yesterday's month: on the 1st this also closes the month that just ended
+            int queued = QuarkusTransaction.requiringNew().call(
+                () -> payrollCostRepository.enqueueAllTenants(LocalDate.now().minusDays(1)));
+            Log.debugf("Queued payroll cost roll-forward for %d tenants", queued);
+        } catch (Exception e) {
+            Log.errorf("Could not queue the payroll cost roll-forward: %s", e.getMessage());
+        }
+    }
+
+    // Returns false when a range failed and was queued again
+    private boolean recomputeTenant(PayrollCostRepository.QueuedRecompute queued) {
+        String tenantID = queued.tenantID();
+        YearMonth current = YearMonth.now();
+        YearMonth oldest = current.minusMonths(maxHistoryMonths - 1);
+        YearMonth fromMonth = YearMonth.from(queued.fromMonth());
+        YearMonth start = fromMonth.isBefore(oldest) ? oldest : fromMonth.isAfter(current) ? current : fromMonth;
+
+        ThreadLocalStorage.setTenantID(tenantID);
+        try {
+            do {
+                YearMonth first = start;
+                YearMonth last = start.plusMonths(monthsPerTransaction - 1).isAfter(current)
+                    ? current : start.plusMonths(monthsPerTransaction - 1);
+                try {
+                    QuarkusTransaction.requiringNew().run(() -> {
+                        recomputeMonths(first, last);
+                        if (last.equals(current)) {
+                            payrollCostRepository.deleteQueued(queued.ids());
+                        }
+                    });
+                } catch (Exception e) {
+                    Log.warnf("Could not recompute payroll costs of tenant %s from %s: %s", tenantID, first, e.getMessage());
+                    metricRegistry.counter("payroll_cost.rollup.failures").inc();
+                    // Swaps the claimed rows for one from the failed range; months before it are done
+                    QuarkusTransaction.requiringNew().run(() -> {
+                        payrollCostRepository.enqueue(first.atDay(1));
+                        payrollCostRepository.deleteQueued(queued.ids());
+                    });
+                    return false;
+                }
+                start = last.plusMonths(1);
+            } while (!start.isAfter(current));
+            return true;
+        } finally {
+            ThreadLocalStorage.clear();
+        }
+    }
+
+    // Runs inside the range transaction, with the tenant bound
+    private void recomputeMonths(YearMonth first, YearMonth last) {
+        payrollCostRepository.recompute(first.atDay(1), last.atDay(1));
+
+        // Read here rather than from ExchangeRateCache, which may be up to its TTL behind
+        ExchangeRateTable rates = ExchangeRateTable.of(currencyExchangeRateRepository.findActiveRates());
+        LocalDate today = LocalDate.now();
+        for (PayrollCostRepository.MonthCurrency monthCurrency
+                : payrollCostRepository.findMonthCurrencies(first.atDay(1), last.atDay(1))) {
+            LocalDate monthEnd = YearMonth.from(monthCurrency.month()).atEndOfMonth();
+            LocalDate asOf = monthEnd.isAfter(today) ? today : monthEnd;
+            rates.findRate(monthCurrency.currency(), ExchangeRateTable.PIVOT_CURRENCY, asOf)
+                .ifPresent(rate -> payrollCostRepository.updateCostEUR(monthCurrency.month(), monthCurrency.currency(), rate));
+        }
+        metricRegistry.counter("payroll_cost.rollup.months").inc(first.until(last, ChronoUnit.MONTHS) + 1);
+    }
+}
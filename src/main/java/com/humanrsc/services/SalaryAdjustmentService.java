@@ -0,0 +1,454 @@
+package com.humanrsc.services;
+
+import com.humanrsc.config.OrgTreeInvalidating;
+import com.humanrsc.config.ThreadLocalStorage;
+import com.humanrsc.datamodel.abstraction.ObjectID;
+import com.humanrsc.datamodel.dto.SalaryAdjustmentRequest;
+import com.humanrsc.datamodel.entities.Employee;
+import com.humanrsc.datamodel.entities.SalaryHistory;
+import com.humanrsc.datamodel.enums.NotificationType;
+import com.humanrsc.datamodel.repo.EmployeeAssignmentRepository;
+import com.humanrsc.datamodel.repo.EmployeeRepository;
+import com.humanrsc.datamodel.repo.SalaryHistoryRepository;
+import io.quarkus.logging.Log;
+import io.quarkus.narayana.jta.QuarkusTransaction;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import jakarta.enterprise.context.ApplicationScoped;
+import jakarta.inject.Inject;
+import org.eclipse.microprofile.config.inject.ConfigProperty;
+import org.hibernate.Session;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+/**
+ * Bulk salary adjustments (annual raise cycles) as background jobs.
+ *
+ * A job walks the matching employees in id order, {@code app.salary-adjustment.chunk-size} per
+ * transaction: salaries are updated and their history rows inserted with JDBC batching, so Envers
+ * writes one revision per chunk, and each manager gets one notification per chunk summarizing their
+ * adjusted reports instead of one per employee. Each chunk locks its employees and adjusts the salary
+ * read under the lock, so a concurrent edit is never overwritten. Committed chunks stay committed if a
+ * later one fails; the job reports the last committed employee id, which a new request can pass as
+ * {@code resumeAfterId} to carry on from there.
+ * Progress is kept in memory and read through {@link #findJob}; a dry run computes the same result
+ * without writing anything.
+ */
+@ApplicationScoped
+public class SalaryAdjustmentService {
+
+    public static final String STATUS_RUNNING = "running";
+    public static final String STATUS_COMPLETED = "completed";
+    public static final String STATUS_FAILED = "failed";
+
+    private static final int MAX_REPORTED_ERRORS = 1000;
+
+    @Inject
+    EmployeeRepository employeeRepository;
+
+    @Inject
+    EmployeeAssignmentRepository employeeAssignmentRepository;
+
+    @Inject
+    SalaryHistoryRepository salaryHistoryRepository;
+
+    @Inject
+    NotificationService notificationService;
+
+    @Inject
+    StatsCache statsCache;
+
+    @Inject
+    OrgTreeCache orgTreeCache;
+
+    @Inject
+    PayrollCostRollupService payrollCostRollup;
+
+    @ConfigProperty(name = "app.salary-adjustment.chunk-size", defaultValue = "500")
+    int chunkSize;
+
+    @ConfigProperty(name = "app.salary-adjustment.jdbc-batch-size", defaultValue = "50")
+    int jdbcBatchSize;
+
+    @ConfigProperty(name = "app.salary-adjustment.max-concurrent-jobs", defaultValue = "2")
+    int maxConcurrentJobs;
+
+    @ConfigProperty(name = "app.salary-adjustment.preview-rows", defaultValue = "100")
+    int previewRows;
+
+    @ConfigProperty(name = "app.salary-adjustment.retain-minutes", defaultValue = "60")
+    long retainMinutes;
+
+    private final Map<String, AdjustmentJob> jobs = new ConcurrentHashMap<>();
+    private ExecutorService executor;
+
+    @PostConstruct
+    void init() {
+        executor = Executors.newFixedThreadPool(maxConcurrentJobs,
+            Thread.ofPlatform().daemon().name("salary-adjustment-", 0).factory());
+    }
+
+    @PreDestroy
+    void shutdown() {
+        executor.shutdownNow();
+    }
+
+    /**
+     * Computes the adjustment without writing: totals per currency and the first rows
+     *
+     * @throws IllegalArgumentException if the request is invalid
+     */
+    public AdjustmentPreview preview(SalaryAdjustmentRequest request) {
+        validate(request);
+        Map<String, Object> filters = filtersOf(request);
+        List<String> employeeIds = employeeIdsOf(request);
+
+        AdjustmentPreview preview = new AdjustmentPreview();
+        String lastId = request.resumeAfterId();
+        List<EmployeeRepository.SalaryTarget> targets;
+        do {
+            targets = employeeRepository.findSalaryTargetsAfter(filters, employeeIds, lastId, chunkSize);
+            for (EmployeeRepository.SalaryTarget target : targets) {
+                preview.add(target, adjust(request, target.currentSalary()), previewRows);
+                lastId = target.id();
+            }
+        } while (targets.size() == chunkSize);
+        return preview;
+    }
+
+    /**
+     * Validates the request and starts the job in the background
+     *
+     * @throws IllegalArgumentException if the request is invalid
+     */
+    public AdjustmentJob start(SalaryAdjustmentRequest request) {
+        validate(request);
+        if (request.approvedById() != null && employeeRepository.findById(request.approvedById()).isEmpty()) {
+            throw new IllegalArgumentException("Approver not found: " + request.approvedById());
+        }
+        purgeFinishedJobs();
+
+        String tenantID = ThreadLocalStorage.getTenantID();
+        AdjustmentJob job = new AdjustmentJob(UUID.randomUUID().toString(), tenantID, request,
+            employeeRepository.countSalaryTargets(filtersOf(request), employeeIdsOf(request), request.resumeAfterId()));
+        jobs.put(job.getId(), job);
+        executor.submit(() -> run(job));
+        return job;
+    }
+
+    /**
+     * Job of the current tenant, while it runs and for {@code app.salary-adjustment.retain-minutes} after
+     */
+    public Optional<AdjustmentJob> findJob(String jobId) {
+        AdjustmentJob job = jobs.get(jobId);
+        if (job == null || !job.tenantID.equals(ThreadLocalStorage.getTenantID())) {
+            return Optional.empty();
+        }
+        return Optional.of(job);
+    }
+
+    private void run(AdjustmentJob job) {
+        ThreadLocalStorage.setTenantID(job.tenantID);
+        try {
+            String lastId = job.request.resumeAfterId();
+            ChunkResult chunk;
+            do {
+                String after = lastId;
+                chunk = QuarkusTransaction.requiringNew().call(() -> applyChunk(job, after));
+                job.chunkDone(chunk);
+                lastId = chunk.lastId();
+                if (chunk.processed() > 0) {
+                    statsCache.invalidateTenant(job.tenantID);
+                    orgTreeCache.invalidate(job.tenantID, OrgTreeInvalidating.Scope.COUNTS);
+                }
+            } while (chunk.processed() == chunkSize);
+            job.finish(STATUS_COMPLETED, null);
+        } catch (Exception e) {
+            Log.warnf("Salary adjustment job %s failed after %d employees: %s", job.getId(), job.getProcessed(), e.getMessage());
+            job.finish(STATUS_FAILED, "Stopped after " + job.getProcessed() + " employees: " + e.getMessage()
+                + (job.getLastCommittedId() != null ? "; resume with resumeAfterId " + job.getLastCommittedId() : ""));
+        } finally {
+            ThreadLocalStorage.clear();
+        }
+    }
+
+    // Runs inside the chunk transaction
+    private ChunkResult applyChunk(AdjustmentJob job, String afterId) {
+        SalaryAdjustmentRequest request = job.request;
+        List<EmployeeRepository.SalaryTarget> targets = employeeRepository.findSalaryTargetsAfter(
+            filtersOf(request), employeeIdsOf(request), afterId, chunkSize);
+        if (targets.isEmpty()) {
+            return new ChunkResult(afterId, 0, 0, List.of());
+        }
+
+        Session session = employeeRepository.getEntityManager().unwrap(Session.class);
+        session.setJdbcBatchSize(jdbcBatchSize);
+
+        // Locked until the chunk commits; the new salary is computed from the locked row, not the target
+        Map<String, Employee> employees = new HashMap<>();
+        employeeRepository.findByIdsForUpdate(targets.stream().map(EmployeeRepository.SalaryTarget::id).toList())
+            .forEach(employee -> employees.put(employee.getObjectID().getId(), employee));
+        Employee approver = request.approvedById() != null
+            ? session.getReference(Employee.class, ObjectID.of(request.approvedById(), job.tenantID))
+            : null;
+        LocalDate effectiveDate = request.effectiveDate() != null ? request.effectiveDate() : LocalDate.now();
+
+        List<AdjustmentError> errors = new ArrayList<>();
+        List<Employee> adjusted = new ArrayList<>(targets.size());
+        for (EmployeeRepository.SalaryTarget target : targets) {
+            Employee employee = employees.get(target.id());
+            if (employee == null) {
+                errors.add(new AdjustmentError(target.id(), target.employeeId(), "EMPLOYEE_NOT_FOUND", "Employee no longer exists"));
+                continue;
+            }
+            if (employee.getCurrentSalary() == null) {
+                errors.add(new AdjustmentError(target.id(), target.employeeId(), "NO_SALARY", "Employee no longer has a salary"));
+                continue;
+            }
+            BigDecimal newSalary = adjust(request, employee.getCurrentSalary());
+            if (newSalary.signum() <= 0) {
+                errors.add(new AdjustmentError(target.id(), target.employeeId(), "INVALID_SALARY",
+                    "New salary must be greater than zero (would be " + newSalary + ")"));
+                continue;
+            }
+
+            SalaryHistory history = new SalaryHistory();
+            history.setObjectID(ObjectID.of(UUID.randomUUID().toString(), job.tenantID));
+            history.setEmployee(employee);
+            history.setOldSalary(employee.getCurrentSalary());
+            history.setNewSalary(newSalary);
+            history.setCurrency(employee.getCurrency());
+            history.setEffectiveDate(effectiveDate);
+            history.setReason(request.reason());
+            history.setApprovedBy(approver);
+            salaryHistoryRepository.persist(history);
+
+            employee.setCurrentSalary(newSalary);
+            employee.updateTimestamp();
+            adjusted.add(employee);
+        }
+
+        notifyManagers(job, adjusted);
+        if (!adjusted.isEmpty()) {
+            payrollCostRollup.markChanged(effectiveDate);
+        }
+        session.flush();
+        session.clear();
+        return new ChunkResult(targets.get(targets.size() - 1).id(), targets.size(), adjusted.size(), errors);
+    }
+
+    // One notification per manager for all of their reports adjusted in the chunk
+    private void notifyManagers(AdjustmentJob job, List<Employee> adjusted) {
+        if (adjusted.isEmpty()) {
+            return;
+        }
+        Map<String, Employee> byId = new HashMap<>();
+        adjusted.forEach(employee -> byId.put(employee.getObjectID().getId(), employee));
+
+        Map<String, List<Employee>> reportsByManager = new LinkedHashMap<>();
+        employeeAssignmentRepository.findCurrentManagerIds(byId.keySet())
+            .forEach((employeeId, managerId) ->
+                reportsByManager.computeIfAbsent(managerId, m -> new ArrayList<>()).add(byId.get(employeeId)));
+
+        for (Map.Entry<String, List<Employee>> entry : reportsByManager.entrySet()) {
+            List<Employee> reports = entry.getValue();
+            String names = reports.stream().limit(5)
+                .map(employee -> employee.getFirstName() + " " + employee.getLastName())
+                .reduce((a, b) -> a + ", " + b).orElse("");
+            String message = String.format("Salary adjustment applied to %d of your reports%s: %s%s",
+                reports.size(),
+                job.request.reason() != null ? " (" + job.request.reason() + ")" : "",
+                names,
+                reports.size() > 5 ? " and " + (reports.size() - 5) + " more" : "");
+            notificationService.enqueueNotification(entry.getKey(), NotificationType.SALARY_CHANGED,
+                "Salary Adjustment", message, "SalaryAdjustment", job.getId());
+        }
+    }
+
+    private BigDecimal adjust(SalaryAdjustmentRequest request, BigDecimal currentSalary) {
+        BigDecimal adjusted = SalaryAdjustmentRequest.TYPE_PERCENTAGE.equals(request.type())
+            ? currentSalary.add(currentSalary.multiply(request.value()).divide(BigDecimal.valueOf(100)))
+            : currentSalary.add(request.value());
+        return adjusted.setScale(2, RoundingMode.HALF_UP);
+    }
+
+    private void validate(SalaryAdjustmentRequest request) {
+        if (request == null) {
+            throw new IllegalArgumentException("Request body is required");
+        }
+        if (!SalaryAdjustmentRequest.TYPE_PERCENTAGE.equals(request.type())
+                && !SalaryAdjustmentRequest.TYPE_FIXED.equals(request.type())) {
+            throw new IllegalArgumentException("type must be 'percentage' or 'fixed'");
+        }
+        if (request.value() == null || request.value().signum() == 0) {
+            throw new IllegalArgumentException("value is required and cannot be zero");
+        }
+        if (SalaryAdjustmentRequest.TYPE_PERCENTAGE.equals(request.type())
+                && request.value().compareTo(BigDecimal.valueOf(-100)) <= 0) {
+            throw new IllegalArgumentException("A percentage adjustment must be greater than -100");
+        }
+        if (request.resumeAfterId() != null && request.resumeAfterId().isBlank()) {
+            throw new IllegalArgumentException("resumeAfterId cannot be blank");
+        }
+        if (request.employeeIds() != null && request.employeeIds().isEmpty()) {
+            throw new IllegalArgumentException("employeeIds cannot be empty; omit it to use the filters");
+        }
+        // Same rule as createSalaryHistory
+        if (request.effectiveDate() != null && request.effectiveDate().isAfter(LocalDate.now())) {
+            throw new IllegalArgumentException("Effective date cannot be in the future");
+        }
+    }
+
+    private Map<String, Object> filtersOf(SalaryAdjustmentRequest request) {
+        Map<String, Object> filters = new HashMap<>();
+        if (request.employeeIds() != null) {
+            return filters;
+        }
+        filters.put("status", request.status() != null ? request.status() : Employee.STATUS_ACTIVE);
+        filters.put("employeeType", request.employeeType());
+        filters.put("contractType", request.contractType());
+        filters.put("currency", request.currency());
+        filters.put("organizationalLevel", request.organizationalLevel());
+        return filters;
+    }
+
+    private List<String> employeeIdsOf(SalaryAdjustmentRequest request) {
+        return request.employeeIds() != null ? List.copyOf(new LinkedHashSet<>(request.employeeIds())) : null;
+    }
+
+    private void purgeFinishedJobs() {
+        LocalDateTime limit = LocalDateTime.now().minusMinutes(retainMinutes);
+        jobs.values().removeIf(job -> job.getFinishedAt() != null && job.getFinishedAt().isBefore(limit));
+    }
+
+    // ========== RESULT CLASSES ==========
+
+    private record ChunkResult(String lastId, int processed, int adjusted, List<AdjustmentError> errors) {
+    }
+
+    public record AdjustmentError(String id, String employeeId, String errorCode, String message) {
+    }
+
+    public record AdjustmentLine(String id, String employeeId, String name, String currency,
+                                 BigDecimal currentSalary, BigDecimal newSalary) {
+    }
+
+    public record CurrencyTotals(long employees, BigDecimal currentTotal, BigDecimal newTotal, BigDecimal difference) {
+        CurrencyTotals plus(BigDecimal current, BigDecimal adjusted) {
+            return new CurrencyTotals(employees + 1, currentTotal.add(current), newTotal.add(adjusted),
+                difference.add(adjusted.subtract(current)));
+        }
+    }
+
+    public static class AdjustmentPreview {
+        private long matched;
+        private long invalid;
+        private final Map<String, CurrencyTotals> totalsByCurrency = new LinkedHashMap<>();
+        private final List<AdjustmentLine> employees = new ArrayList<>();
+
+        void add(EmployeeRepository.SalaryTarget target, BigDecimal newSalary, int maxLines) {
+            matched++;
+            if (newSalary.signum() <= 0) {
+                invalid++;
+                return;
+            }
+            totalsByCurrency.merge(target.currency(),
+                new CurrencyTotals(0, BigDecimal.ZERO, BigDecimal.ZERO, BigDecimal.ZERO).plus(target.currentSalary(), newSalary),
+                (a, b) -> a.plus(target.currentSalary(), newSalary));
+            if (employees.size() < maxLines) {
+                employees.add(new AdjustmentLine(target.id(), target.employeeId(),
+                    target.firstName() + " " + target.lastName(), target.currency(), target.currentSalary(), newSalary));
+            }
+        }
+
+        // Getters
+        public long getMatched() { return matched; }
+        public long getInvalid() { return invalid; }
+        public Map<String, CurrencyTotals> getTotalsByCurrency() { return totalsByCurrency; }
+        public List<AdjustmentLine> getEmployees() { return employees; }
+    }
+
+    public static class AdjustmentJob {
+        private final String id;
+        private final String tenantID;
+        private final SalaryAdjustmentRequest request;
+        private final long total;
+        private final LocalDateTime startedAt = LocalDateTime.now();
+        private final List<AdjustmentError> errors = Collections.synchronizedList(new ArrayList<>());
+        private volatile String status = STATUS_RUNNING;
+        private volatile long processed;
+        private volatile long adjusted;
+        private volatile long failed;
+        private volatile int chunks;
+        private volatile String lastCommittedId;
+        private volatile LocalDateTime finishedAt;
+        private volatile String message;
+
+        AdjustmentJob(String id, String tenantID, SalaryAdjustmentRequest request, long total) {
+            this.id = id;
+            this.tenantID = tenantID;
+            this.request = request;
+            this.total = total;
+        }
+
+        void chunkDone(ChunkResult chunk) {
+            if (chunk.processed() == 0) {
+                return;
+            }
+            chunks++;
+            lastCommittedId = chunk.lastId();
+            processed += chunk.processed();
+            adjusted += chunk.adjusted();
+            failed += chunk.errors().size();
+            for (AdjustmentError error : chunk.errors()) {
+                if (errors.size() >= MAX_REPORTED_ERRORS) {
+                    break;
+                }
+                errors.add(error);
+            }
+        }
+
+        void finish(String status, String message) {
+            this.message = message;
+            this.finishedAt = LocalDateTime.now();
+            this.status = status;
+        }
+
+        // Getters
+        public String getId() { return id; }
+        public String getStatus() { return status; }
+        public String getType() { return request.type(); }
+        public BigDecimal getValue() { return request.value(); }
+        public long getTotal() { return total; }
+        public long getProcessed() { return processed; }
+        public long getAdjusted() { return adjusted; }
+        public long getFailed() { return failed; }
+        public int getChunks() { return chunks; }
+        public String getLastCommittedId() { return lastCommittedId; }
+        public double getProgress() { return total == 0 ? 1.0 : Math.min(1.0, (double) processed / total); }
+        public LocalDateTime getStartedAt() { return startedAt; }
+        public LocalDateTime getFinishedAt() { return finishedAt; }
+        public String getMessage() { return message; }
+        public List<AdjustmentError> getErrors() {
+            // Copied under the list's lock: the worker keeps adding while the job is serialized
+            synchronized (errors) {
+                return List.copyOf(errors);
+            }
+        }
+    }
+}
@@ -0,0 +1,123 @@
+package com.humanrsc.services;
+
+import com.humanrsc.config.ThreadLocalStorage;
+import jakarta.annotation.PostConstruct;
+import jakarta.enterprise.context.ApplicationScoped;
+import jakarta.inject.Inject;
+import org.eclipse.microprofile.config.inject.ConfigProperty;
+import org.eclipse.microprofile.metrics.MetricRegistry;
+import org.eclipse.microprofile.metrics.Tag;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Supplier;
+
+/**
+ * Cache per tenant of the dashboard statistics computed by OrganizationService.
+ *
+ * Entries are keyed by (tenant, stat type), bounded in size (LRU) and expire after a TTL.
+ * Writes invalidate the whole tenant (see StatsInvalidationInterceptor); a per-tenant version
+ * prevents a value computed before the invalidation from being stored after it.
+ */
+@ApplicationScoped
+public class StatsCache {
+
+    @Inject
+    MetricRegistry metricRegistry;
+
+    @ConfigProperty(name = "app.stats-cache.max-entries", defaultValue = "1000")
+    int maxEntries;
+
+    @ConfigProperty(name = "app.stats-cache.ttl-seconds", defaultValue = "300")
+    long ttlSeconds;
+
+    private final Map<String, AtomicLong> tenantVersions = new ConcurrentHashMap<>();
+    private Map<CacheKey, CachedStat> entries;
+
+    @PostConstruct
+    void init() {
+        entries = new LinkedHashMap<>(64, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<CacheKey, CachedStat> eldest) {
+                if (size() > maxEntries) {
+                    metricRegistry.counter("stats_cache.evictions", new Tag("reason", "size")).inc();
+                    return true;
+                }
+                return false;
+            }
+        };
+        metricRegistry.gauge("stats_cache.size", this, StatsCache::size);
+    }
+
+    /**
+     * Returns the cached value for the current tenant or computes and caches it.
+     * Without a tenant in context the loader is called directly.
+     */
+    @SuppressWarnings("unchecked")
+    public <T> T get(String statType, Supplier<T> loader) {
+        String tenantID = ThreadLocalStorage.getTenantID();
+        if (tenantID == null || tenantID.trim().isEmpty()) {
+            return loader.get();
+        }
+
+        CacheKey key = new CacheKey(tenantID, statType);
+        long version;
+        synchronized (this) {
+            CachedStat cached = entries.get(key);
+            if (cached != null) {
+                if (!cached.isExpired()) {
+                    metricRegistry.counter("stats_cache.hits", new Tag("type", statType)).inc();
+                    return (T) cached.value();
+                }
+                entries.remove(key);
+                metricRegistry.counter("stats_cache.evictions", new Tag("reason", "ttl")).inc();
+            }
+            version = versionOf(tenantID).get();
+        }
+
+        metricRegistry.counter("stats_cache.misses", new Tag("type", statType)).inc();
+        T value = loader.get();
+
+        synchronized (this) {
+            if (versionOf(tenantID).get() == version) {
+                entries.put(key, new CachedStat(value, System.currentTimeMillis() + ttlSeconds * 1000));
+            }
+        }
+        return value;
+    }
+
+    /**
+     * Drops every cached stat of the tenant
+     */
+    public synchronized void invalidateTenant(String tenantID) {
+        if (tenantID == null) {
+            return;
+        }
+        versionOf(tenantID).incrementAndGet();
+        int before = entries.size();
+        entries.keySet().removeIf(key -> key.tenantID().equals(tenantID));
+        int removed = before - entries.size();
+        if (removed > 0) {
+            metricRegistry.counter("stats_cache.evictions", new Tag("reason", "invalidation")).inc(removed);
+        }
+    }
+
+    public synchronized int size() {
+        return entries.size();
+    }
+
+    private AtomicLong versionOf(String tenantID) {
+        return tenantVersions.computeIfAbsent(tenantID, t -> new AtomicLong());
+    }
+
+    private record CacheKey(String tenantID, String statType) {
+    }
+
+    private record CachedStat(Object value, long expiresAt) {
+        boolean isExpired() {
+            return System.currentTimeMillis() > expiresAt;
+        }
+    }
+}
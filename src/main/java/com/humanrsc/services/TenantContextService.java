@@ -1,16 +1,15 @@
 package com.humanrsc.services;
 
+import com.humanrsc.config.TenantConnectionBinder;
+import com.humanrsc.config.ThreadLocalStorage;
 import jakarta.enterprise.context.ApplicationScoped;
 import jakarta.inject.Inject;
 import org.eclipse.microprofile.config.inject.ConfigProperty;
-import org.hibernate.Session;
 import io.quarkus.logging.Log;
 
 import jakarta.persistence.EntityManager;
 import jakarta.transaction.Transactional;
 
-import java.sql.PreparedStatement;
-
 @ApplicationScoped
 public class TenantContextService {
 
@@ -19,33 +18,23 @@ public class TenantContextService {
     @Inject
     EntityManager entityManager;
 
+    @Inject
+    TenantConnectionBinder tenantConnectionBinder;
+
     @ConfigProperty(name = "app.default-tenant", defaultValue = "default")
     String defaultTenant;
 
     /**
-     * Set tenant context for RLS en la misma conexión JPA/Transacción
+     * Set tenant context for RLS: lo guarda en el hilo y lo vincula a la transacción activa (si la hay).
+     * Las transacciones que empiecen después lo vinculan solas al comenzar.
      */
-    @Transactional
     public void setTenantContext(String tenantId) {
         if (tenantId == null || tenantId.trim().isEmpty()) {
             tenantId = defaultTenant;
         }
 
-        try {
-            Session session = entityManager.unwrap(Session.class);
-            String finalTenant = tenantId;
-            session.doWork(connection -> {
-                try (PreparedStatement stmt = connection.prepareStatement(
-                    "SELECT set_config('app.current_tenant', ?, false)")) {
-                    stmt.setString(1, finalTenant);
-                    stmt.execute();
-                }
-            });
-            // LOG.debugf("Tenant context set (JPA): %s", tenantId);
-        } catch (Exception e) {
-            Log.errorf(e, "Error setting tenant context: %s", tenantId);
-            throw new RuntimeException("Failed to set tenant context", e);
-        }
+        ThreadLocalStorage.setTenantID(tenantId);
+        tenantConnectionBinder.bind(tenantId);
     }
 
     /**
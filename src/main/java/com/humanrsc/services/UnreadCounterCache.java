@@ -0,0 +1,217 @@
+package com.humanrsc.services;
+
+import com.humanrsc.config.TenantConnectionBinder;
+import com.humanrsc.datamodel.repo.NotificationRepository;
+import io.quarkus.logging.Log;
+import io.quarkus.narayana.jta.QuarkusTransaction;
+import io.quarkus.scheduler.Scheduled;
+import jakarta.annotation.PostConstruct;
+import jakarta.enterprise.context.ApplicationScoped;
+import jakarta.inject.Inject;
+import jakarta.transaction.Status;
+import jakarta.transaction.Synchronization;
+import jakarta.transaction.TransactionSynchronizationRegistry;
+import org.eclipse.microprofile.config.inject.ConfigProperty;
+import org.eclipse.microprofile.metrics.MetricRegistry;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.LongSupplier;
+
+/**
+ * Unread notification count per (tenant, user), served from memory.
+ *
+ * A count is loaded with one COUNT on first read and then kept up to date by the writes of this
+ * node, applied after their transaction commits: deliveries add, markAsRead subtracts, markAllAsRead
+ * resets, retention cleanup drops the affected counters. A per-tenant generation keeps a COUNT that
+ * raced with a write from being stored. Writes made on other nodes (and any drift) are corrected by
+ * the periodic reconciliation, which also evicts counters nobody read for a while.
+ */
+@ApplicationScoped
+public class UnreadCounterCache {
+
+    @Inject
+    NotificationRepository notificationRepository;
+
+    @Inject
+    TenantConnectionBinder tenantConnectionBinder;
+
+    @Inject
+    TransactionSynchronizationRegistry synchronizationRegistry;
+
+    @Inject
+    MetricRegistry metricRegistry;
+
+    @ConfigProperty(name = "app.notifications.unread-counter.idle-minutes", defaultValue = "30")
+    long idleMinutes;
+
+    private final Map<CounterKey, Counter> counters = new ConcurrentHashMap<>();
+    private final Map<String, AtomicLong> tenantGenerations = new ConcurrentHashMap<>();
+
+    @PostConstruct
+    void init() {
+        metricRegistry.gauge("notifications.unread_counter.size", this, cache -> cache.counters.size());
+    }
+
+    /**
+     * Unread count of the user, loading it with {@code loader} on a miss
+     */
+    public long get(String tenantID, String userId, LongSupplier loader) {
+        if (tenantID == null || tenantID.trim().isEmpty()) {
+            return loader.getAsLong();
+        }
+        CounterKey key = new CounterKey(tenantID, userId);
+        Counter counter = counters.get(key);
+        if (counter != null) {
+            counter.touch();
+            metricRegistry.counter("notifications.unread_counter.hits").inc();
+            return counter.value.get();
+        }
+
+        metricRegistry.counter("notifications.unread_counter.misses").inc();
+        long generation = generationOf(tenantID).get();
+        long value = loader.getAsLong();
+        store(key, generation, value);
+        return value;
+    }
+
+    /**
+     * Adds {@code delta} to the user's counter once the current transaction commits
+     */
+    public void addAfterCommit(String tenantID, String userId, long delta) {
+        afterCommit(() -> {
+            generationOf(tenantID).incrementAndGet();
+            Counter counter = counters.get(new CounterKey(tenantID, userId));
+            if (counter != null) {
+                counter.value.accumulateAndGet(delta, (current, d) -> Math.max(0, current + d));
+            }
+        });
+    }
+
+    /**
+     * Sets the user's counter once the current transaction commits
+     */
+    public void setAfterCommit(String tenantID, String userId, long value) {
+        afterCommit(() -> {
+            generationOf(tenantID).incrementAndGet();
+            Counter counter = counters.get(new CounterKey(tenantID, userId));
+            if (counter != null) {
+                counter.value.set(value);
+            }
+        });
+    }
+
+    /**
+     * Drops every counter of the tenant once the current transaction commits
+     */
+    public void invalidateTenantAfterCommit(String tenantID) {
+        afterCommit(() -> {
+            generationOf(tenantID).incrementAndGet();
+            counters.keySet().removeIf(key -> key.tenantID().equals(tenantID));
+        });
+    }
+
+    /**
+     * Drops every counter, e.g. after whole notification partitions were dropped
+     */
+    public void invalidateAll() {
+        tenantGenerations.values().forEach(AtomicLong::incrementAndGet);
+        counters.clear();
+    }
+
+    /**
+     * Adopts a count computed by a committed write, e.g. on another node; only for cached users
+     */
+    public void adopt(String tenantID, String userId, long value) {
+        Counter counter = counters.get(new CounterKey(tenantID, userId));
+        if (counter != null) {
+            counter.value.set(value);
+        }
+    }
+
+    @Scheduled(every = "${app.notifications.unread-counter.reconcile-interval:5m}",
+               concurrentExecution = Scheduled.ConcurrentExecution.SKIP)
+    void reconcile() {
+        long idleBefore = System.currentTimeMillis() - idleMinutes * 60_000;
+        counters.entrySet().removeIf(entry -> entry.getValue().lastRead < idleBefore);
+
+        Map<String, List<String>> usersByTenant = new HashMap<>();
+        for (CounterKey key : counters.keySet()) {
+            usersByTenant.computeIfAbsent(key.tenantID(), t -> new ArrayList<>()).add(key.userId());
+        }
+        for (Map.Entry<String, List<String>> tenantUsers : usersByTenant.entrySet()) {
+            try {
+                reconcileTenant(tenantUsers.getKey(), tenantUsers.getValue());
+            } catch (Exception e) {
+                Log.warnf("Could not reconcile unread counters of tenant %s: %s", tenantUsers.getKey(), e.getMessage());
+            }
+        }
+    }
+
+    private void reconcileTenant(String tenantID, List<String> userIds) {
+        long generation = generationOf(tenantID).get();
+        Map<String, Long> counts = QuarkusTransaction.requiringNew().call(() -> {
+            tenantConnectionBinder.bind(tenantID);
+            return notificationRepository.countUnreadByUsers(userIds);
+        });
+        for (String userId : userIds) {
+            CounterKey key = new CounterKey(tenantID, userId);
+            long actual = counts.getOrDefault(userId, 0L);
+            Counter counter = counters.get(key);
+            if (counter != null && counter.value.get() != actual) {
+                metricRegistry.counter("notifications.unread_counter.corrections").inc();
+            }
+            store(key, generation, actual);
+        }
+    }
+
+    // Stores a loaded count unless a write of the tenant completed after the load started
+    private void store(CounterKey key, long generation, long value) {
+        synchronized (generationOf(key.tenantID())) {
+            if (generationOf(key.tenantID()).get() != generation) {
+                return;
+            }
+            counters.computeIfAbsent(key, k -> new Counter()).value.set(value);
+        }
+    }
+
+    private void afterCommit(Runnable change) {
+        int status = synchronizationRegistry.getTransactionStatus();
+        if (status != Status.STATUS_ACTIVE && status != Status.STATUS_MARKED_ROLLBACK) {
+            change.run();
+            return;
+        }
+        synchronizationRegistry.registerInterposedSynchronization(new Synchronization() {
+            @Override
+            public void beforeCompletion() {
+            }
+
+            @Override
+            public void afterCompletion(int completionStatus) {
+                if (completionStatus == Status.STATUS_COMMITTED) {
+                    change.run();
+                }
+            }
+        });
+    }
+
+    private AtomicLong generationOf(String tenantID) {
+        return tenantGenerations.computeIfAbsent(tenantID, t -> new AtomicLong());
+    }
+
+    private record CounterKey(String tenantID, String userId) {
+    }
+
+    private static final class Counter {
+        private final AtomicLong value = new AtomicLong();
+        private volatile long lastRead = System.currentTimeMillis();
+
+        void touch() {
+            lastRead = System.currentTimeMillis();
+        }
+    }
+}
@@ -0,0 +1,34 @@
+-- V1.10.0: Búsqueda por subcadena indexada con pg_trgm
+
+-- Los filtros de texto generan "lower(campo) LIKE '%x%'", que un btree no puede servir.
+-- Un GIN con gin_trgm_ops sobre la misma expresión lower(...) sí, a partir de 3 caracteres,
+-- y además da similarity() para ordenar los resultados de /api/organization/search.
+CREATE EXTENSION IF NOT EXISTS pg_trgm;
+
+-- Empleados: filtros del listado (firstName, lastName, email, nationalId, employeeId) y nombre completo
+CREATE INDEX IF NOT EXISTS employees_first_name_trgm_idx
+    ON hr_app.employees USING gin (lower(first_name) gin_trgm_ops);
+CREATE INDEX IF NOT EXISTS employees_last_name_trgm_idx
+    ON hr_app.employees USING gin (lower(last_name) gin_trgm_ops);
+CREATE INDEX IF NOT EXISTS employees_full_name_trgm_idx
+    ON hr_app.employees USING gin (lower(first_name || ' ' || last_name) gin_trgm_ops);
+CREATE INDEX IF NOT EXISTS employees_email_trgm_idx
+    ON hr_app.employees USING gin (lower(email) gin_trgm_ops);
+CREATE INDEX IF NOT EXISTS employees_national_id_trgm_idx
+    ON hr_app.employees USING gin (lower(national_id) gin_trgm_ops);
+CREATE INDEX IF NOT EXISTS employees_employee_id_trgm_idx
+    ON hr_app.employees USING gin (lower(employee_id) gin_trgm_ops);
+
+-- Unidades organizacionales
+CREATE INDEX IF NOT EXISTS organizational_units_name_trgm_idx
+    ON hr_app.organizational_units USING gin (lower(name) gin_trgm_ops);
+CREATE INDEX IF NOT EXISTS organizational_units_cost_center_trgm_idx
+    ON hr_app.organizational_units USING gin (lower(cost_center) gin_trgm_ops);
+CREATE INDEX IF NOT EXISTS organizational_units_location_trgm_idx
+    ON hr_app.organizational_units USING gin (lower(location) gin_trgm_ops);
+
+-- Posiciones
+CREATE INDEX IF NOT EXISTS job_positions_title_trgm_idx
+    ON hr_app.job_positions USING gin (lower(title) gin_trgm_ops);
+CREATE INDEX IF NOT EXISTS job_positions_job_code_trgm_idx
+    ON hr_app.job_positions USING gin (lower(job_code) gin_trgm_ops);
@@ -0,0 +1,46 @@
+-- V1.11.0: Closure table de la jerarquía de unidades organizacionales
+
+-- Una fila por cada par (ancestro, descendiente) con su distancia; cada unidad es su propio
+-- ancestro con depth 0. Subárbol, ancestros y detección de ciclos pasan a ser una sola
+-- consulta indexada en lugar de recorrer parent_unit_id nivel a nivel.
+-- La mantiene OrganizationalUnitRepository al crear, reubicar o borrar unidades.
+CREATE TABLE IF NOT EXISTS hr_app.organizational_unit_closure (
+    tenant_id varchar(100) NOT NULL,
+    ancestor_id varchar(100) NOT NULL,
+    descendant_id varchar(100) NOT NULL,
+    depth integer NOT NULL,
+    CONSTRAINT organizational_unit_closure_pk PRIMARY KEY (tenant_id, ancestor_id, descendant_id),
+    CONSTRAINT organizational_unit_closure_ancestor_fk FOREIGN KEY (ancestor_id, tenant_id)
+        REFERENCES hr_app.organizational_units(id, tenant_id) ON DELETE CASCADE,
+    CONSTRAINT organizational_unit_closure_descendant_fk FOREIGN KEY (descendant_id, tenant_id)
+        REFERENCES hr_app.organizational_units(id, tenant_id) ON DELETE CASCADE
+);
+
+-- La PK sirve subárbol (por ancestor_id); este índice sirve la cadena de ancestros
+CREATE INDEX IF NOT EXISTS organizational_unit_closure_descendant_idx
+    ON hr_app.organizational_unit_closure(tenant_id, descendant_id, depth);
+
+-- Carga inicial desde parent_unit_id (depth acotado por si hubiera ciclos en datos existentes)
+INSERT INTO hr_app.organizational_unit_closure (tenant_id, ancestor_id, descendant_id, depth)
+WITH RECURSIVE tree AS (
+    SELECT tenant_id, id AS ancestor_id, id AS descendant_id, 0 AS depth
+    FROM hr_app.organizational_units
+    UNION ALL
+    SELECT t.tenant_id, t.ancestor_id, ou.id, t.depth + 1
+    FROM tree t
+    JOIN hr_app.organizational_units ou
+      ON ou.parent_unit_id = t.descendant_id AND ou.parent_unit_tenant_id = t.tenant_id
+    WHERE t.depth < 64
+)
+SELECT tenant_id, ancestor_id, descendant_id, MIN(depth)
+FROM tree
+GROUP BY tenant_id, ancestor_id, descendant_id
+ON CONFLICT DO NOTHING;
+
+-- Habilitar RLS
+ALTER TABLE hr_app.organizational_unit_closure ENABLE ROW LEVEL SECURITY;
+
+DROP POLICY IF EXISTS organizational_unit_closure_isolation ON hr_app.organizational_unit_closure;
+CREATE POLICY organizational_unit_closure_isolation ON hr_app.organizational_unit_closure
+    FOR ALL USING (tenant_id = hr_app.current_tenant())
+    WITH CHECK (tenant_id = hr_app.current_tenant());
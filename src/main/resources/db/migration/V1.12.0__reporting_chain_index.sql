@@ -0,0 +1,7 @@
+-- V1.12.0: Índice para recorrer la cadena de mando hacia arriba
+
+-- La cadena de mando va de cada empleado a su manager actual; el índice de V1.9.0 sólo sirve
+-- para bajar (manager -> reportes). Con manager_id en el índice el paso recursivo no visita la tabla.
+CREATE INDEX IF NOT EXISTS employee_assignments_current_reporting_idx
+    ON hr_app.employee_assignments(tenant_id, employee_id, manager_id)
+    WHERE end_date IS NULL AND manager_id IS NOT NULL;
@@ -0,0 +1,28 @@
+-- V1.13.0: Outbox de notificaciones
+
+-- Las escrituras de negocio insertan aquí la notificación en su misma transacción; un dispatcher
+-- en segundo plano las pasa por lotes a hr_app.notifications y borra las filas entregadas.
+-- El id secuencial da el orden de entrega (la PK basta para recorrer las pendientes)
+-- y created_at permite medir el lag.
+CREATE TABLE IF NOT EXISTS hr_app.notification_outbox (
+    id BIGINT GENERATED BY DEFAULT AS IDENTITY PRIMARY KEY,
+    tenant_id VARCHAR(255) NOT NULL,
+    user_id VARCHAR(255) NOT NULL,
+    type VARCHAR(50) NOT NULL,
+    title VARCHAR(255) NOT NULL,
+    message TEXT NOT NULL,
+    entity_type VARCHAR(100),
+    entity_id VARCHAR(255),
+    created_at TIMESTAMP NOT NULL DEFAULT NOW(),
+    attempts INT NOT NULL DEFAULT 0,
+    last_error TEXT
+);
+
+-- RLS: cada tenant sólo escribe y ve sus filas. El dispatcher trabaja sin tenant vinculado
+-- (current_tenant() nulo o vacío) para poder recoger las filas pendientes de todos los tenants.
+ALTER TABLE hr_app.notification_outbox ENABLE ROW LEVEL SECURITY;
+
+CREATE POLICY notification_outbox_tenant_isolation ON hr_app.notification_outbox
+    FOR ALL
+    USING (COALESCE(hr_app.current_tenant(), '') IN ('', tenant_id))
+    WITH CHECK (tenant_id = hr_app.current_tenant());
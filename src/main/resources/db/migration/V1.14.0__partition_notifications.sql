@@ -0,0 +1,76 @@
+-- V1.14.0: Notificaciones particionadas por mes sobre created_at
+
+-- La retención pasa a ser DETACH + DROP de particiones enteras (NotificationRetentionJob) en lugar
+-- de un DELETE fila a fila que deja la tabla llena de tuplas muertas para vacuum.
+-- La PK de una tabla particionada tiene que incluir la clave de partición; id sigue siendo un UUID
+-- único y la entidad sigue identificándose por (id, tenant_id).
+
+-- Crea las particiones mensuales que falten entre dos meses (inclusive). La usan esta migración
+-- y el job de retención, que mantiene siempre algunos meses creados por adelantado.
+CREATE OR REPLACE FUNCTION hr_app.create_notification_partitions(from_month date, to_month date)
+RETURNS integer AS $$
+DECLARE
+    month_start date := date_trunc('month', from_month)::date;
+    created integer := 0;
+    partition_name text;
+BEGIN
+    WHILE month_start <= date_trunc('month', to_month)::date LOOP
+        partition_name := 'notifications_p' || to_char(month_start, 'YYYYMM');
+        IF to_regclass('hr_app.' || partition_name) IS NULL THEN
+            EXECUTE format(
+                'CREATE TABLE hr_app.%I PARTITION OF hr_app.notifications FOR VALUES FROM (%L) TO (%L)',
+                partition_name, month_start, (month_start + interval '1 month')::date);
+            created := created + 1;
+        END IF;
+        month_start := (month_start + interval '1 month')::date;
+    END LOOP;
+    RETURN created;
+END;
+$$ LANGUAGE plpgsql;
+
+ALTER TABLE hr_app.notifications RENAME TO notifications_unpartitioned;
+ALTER INDEX hr_app.idx_notifications_user_unread RENAME TO idx_notifications_unpartitioned_user_unread;
+ALTER INDEX hr_app.idx_notifications_user_created RENAME TO idx_notifications_unpartitioned_user_created;
+ALTER INDEX hr_app.idx_notifications_entity RENAME TO idx_notifications_unpartitioned_entity;
+
+CREATE TABLE hr_app.notifications (
+    id UUID NOT NULL,
+    tenant_id VARCHAR(255) NOT NULL,
+    user_id VARCHAR(255) NOT NULL,
+    type VARCHAR(50) NOT NULL,
+    title VARCHAR(255) NOT NULL,
+    message TEXT NOT NULL,
+    entity_type VARCHAR(100),
+    entity_id VARCHAR(255),
+    read BOOLEAN NOT NULL DEFAULT false,
+    read_at TIMESTAMP,
+    created_at TIMESTAMP NOT NULL DEFAULT NOW(),
+    PRIMARY KEY (id, tenant_id, created_at)
+) PARTITION BY RANGE (created_at);
+
+-- Los índices del padre se crean en cada partición, también en las que se creen después
+CREATE INDEX idx_notifications_user_unread
+    ON hr_app.notifications(tenant_id, user_id, read, created_at DESC);
+CREATE INDEX idx_notifications_user_created
+    ON hr_app.notifications(tenant_id, user_id, created_at DESC);
+CREATE INDEX idx_notifications_entity
+    ON hr_app.notifications(tenant_id, entity_type, entity_id);
+
+-- Particiones para los datos existentes y los próximos meses
+SELECT hr_app.create_notification_partitions(
+    COALESCE((SELECT MIN(created_at)::date FROM hr_app.notifications_unpartitioned), CURRENT_DATE),
+    (CURRENT_DATE + interval '3 months')::date);
+
+INSERT INTO hr_app.notifications (id, tenant_id, user_id, type, title, message, entity_type, entity_id,
+                                  read, read_at, created_at)
+SELECT id, tenant_id, user_id, type, title, message, entity_type, entity_id, read, read_at, created_at
+FROM hr_app.notifications_unpartitioned;
+
+DROP TABLE hr_app.notifications_unpartitioned;
+
+-- RLS en el padre: aplica a todas las consultas hechas a través de hr_app.notifications
+ALTER TABLE hr_app.notifications ENABLE ROW LEVEL SECURITY;
+
+CREATE POLICY tenant_isolation ON hr_app.notifications
+    FOR ALL USING (tenant_id = hr_app.current_tenant())
+    WITH CHECK (tenant_id = hr_app.current_tenant());
@@ -0,0 +1,19 @@
+-- V1.15.0: Importe de la subida como columna generada en salary_history
+
+-- increase_amount = new_salary - old_salary (NULL en el alta, sin salario anterior). Al ser una
+-- columna almacenada se puede indexar, de modo que los rankings de subidas y las agregaciones de
+-- /salary-history/analytics no recalculan la expresión fila a fila.
+ALTER TABLE hr_app.salary_history
+    ADD COLUMN IF NOT EXISTS increase_amount decimal(15,2)
+    GENERATED ALWAYS AS (new_salary - old_salary) STORED;
+
+-- Top de subidas por tenant: sólo las filas que son subidas
+CREATE INDEX IF NOT EXISTS salary_history_increase_amount_idx
+    ON hr_app.salary_history(tenant_id, increase_amount DESC)
+    WHERE increase_amount > 0;
+
+-- Analítica por año: recorre las subidas de un rango de fechas sin visitar el resto
+CREATE INDEX IF NOT EXISTS salary_history_increase_effective_idx
+    ON hr_app.salary_history(tenant_id, effective_date)
+    INCLUDE (employee_id, increase_amount, old_salary)
+    WHERE increase_amount > 0;
@@ -0,0 +1,69 @@
+-- V1.16.0: Coste de nómina mensual precalculado
+
+-- Una fila por tenant × mes × unidad × moneda con la plantilla y la suma de salarios vigentes al
+-- cierre del mes (o a hoy para el mes en curso) y su equivalente en EUR. unit_id vacío agrupa a
+-- los empleados sin asignación. La mantiene PayrollCostRollupService recalculando meses completos,
+-- así que las consultas por rango sólo leen la PK.
+CREATE TABLE IF NOT EXISTS hr_app.payroll_cost_monthly (
+    tenant_id VARCHAR(100) NOT NULL,
+    month DATE NOT NULL,
+    unit_id VARCHAR(100) NOT NULL DEFAULT '',
+    currency VARCHAR(3) NOT NULL,
+    headcount INT NOT NULL,
+    total_salary DECIMAL(17,2) NOT NULL,
+    total_cost_eur DECIMAL(17,2) NOT NULL DEFAULT 0,
+    computed_at TIMESTAMP NOT NULL DEFAULT NOW(),
+    CONSTRAINT payroll_cost_monthly_pk PRIMARY KEY (tenant_id, month, unit_id, currency)
+);
+
+ALTER TABLE hr_app.payroll_cost_monthly ENABLE ROW LEVEL SECURITY;
+
+CREATE POLICY payroll_cost_monthly_isolation ON hr_app.payroll_cost_monthly
+    FOR ALL USING (tenant_id = hr_app.current_tenant()) WITH CHECK (tenant_id = hr_app.current_tenant());
+
+-- Cola de recálculo: los cambios de salario, asignaciones y altas/bajas insertan aquí, en su misma
+-- transacción, el primer mes afectado. Sólo inserciones, para que escrituras concurrentes del mismo
+-- tenant no se bloqueen entre sí; el job las consume y recalcula desde el mes más antiguo hasta hoy.
+CREATE TABLE IF NOT EXISTS hr_app.payroll_cost_rollup_queue (
+    id BIGINT GENERATED BY DEFAULT AS IDENTITY PRIMARY KEY,
+    tenant_id VARCHAR(100) NOT NULL,
+    from_month DATE NOT NULL,
+    created_at TIMESTAMP NOT NULL DEFAULT NOW()
+);
+
+-- Igual que notification_outbox: sin tenant vinculado el job ve las filas de todos los tenants
+ALTER TABLE hr_app.payroll_cost_rollup_queue ENABLE ROW LEVEL SECURITY;
+
+CREATE POLICY payroll_cost_rollup_queue_tenant_isolation ON hr_app.payroll_cost_rollup_queue
+    FOR ALL
+    USING (COALESCE(hr_app.current_tenant(), '') IN ('', tenant_id))
+    WITH CHECK (tenant_id = hr_app.current_tenant());
+
+-- Encola un mes para cada tenant con empleados. La usa el job cada noche para que el mes en curso
+-- avance aunque no haya cambios; SECURITY DEFINER porque sin tenant vinculado RLS oculta employees.
+CREATE OR REPLACE FUNCTION hr_app.enqueue_payroll_cost_month(target_month date)
+RETURNS integer
+LANGUAGE plpgsql
+SECURITY DEFINER
+SET search_path = hr_app, pg_temp
+AS $$
+DECLARE
+    queued integer;
+BEGIN
+    INSERT INTO hr_app.payroll_cost_rollup_queue (tenant_id, from_month)
+    SELECT DISTINCT tenant_id, date_trunc('month', target_month)::date
+    FROM hr_app.employees;
+    GET DIAGNOSTICS queued = ROW_COUNT;
+    RETURN queued;
+END;
+$$;
+
+-- Postgres da EXECUTE a PUBLIC en toda función nueva; sólo la ejecuta el rol del job, el de la aplicación
+REVOKE EXECUTE ON FUNCTION hr_app.enqueue_payroll_cost_month(date) FROM PUBLIC;
+GRANT EXECUTE ON FUNCTION hr_app.enqueue_payroll_cost_month(date) TO CURRENT_USER;
+
+-- Backfill inicial: cada tenant desde el mes de su primera alta
+INSERT INTO hr_app.payroll_cost_rollup_queue (tenant_id, from_month)
+SELECT tenant_id, date_trunc('month', MIN(hire_date))::date
+FROM hr_app.employees
+GROUP BY tenant_id;
@@ -0,0 +1,100 @@
+-- V1.17.0: RLS estricta en notification_outbox
+
+-- La política de V1.13.0 mostraba todas las filas a cualquier sesión sin tenant vinculado, también
+-- a una petición que por un fallo no lo hubiera vinculado. Vuelve a ser la misma política que el
+-- resto de tablas; el dispatcher, que trabaja con filas de todos los tenants, pasa por las funciones
+-- SECURITY DEFINER de abajo, que sólo hacen lo que necesita.
+DROP POLICY IF EXISTS notification_outbox_tenant_isolation ON hr_app.notification_outbox;
+
+CREATE POLICY notification_outbox_tenant_isolation ON hr_app.notification_outbox
+    FOR ALL USING (tenant_id = hr_app.current_tenant()) WITH CHECK (tenant_id = hr_app.current_tenant());
+
+-- Bloquea las filas entregables más antiguas; las bloqueadas por otra instancia se saltan.
+-- Los bloqueos quedan en la transacción que llama.
+CREATE OR REPLACE FUNCTION hr_app.claim_notification_outbox(max_rows integer, max_attempts integer)
+RETURNS SETOF hr_app.notification_outbox
+LANGUAGE sql
+SECURITY DEFINER
+SET search_path = hr_app, pg_temp
+AS $$
+    SELECT * FROM hr_app.notification_outbox
+     WHERE attempts < max_attempts
+     ORDER BY id
+     LIMIT max_rows
+     FOR UPDATE SKIP LOCKED;
+$$;
+
+-- Una fila concreta, para reintentar un lote fallido fila a fila
+CREATE OR REPLACE FUNCTION hr_app.claim_notification_outbox_row(row_id bigint)
+RETURNS SETOF hr_app.notification_outbox
+LANGUAGE sql
+SECURITY DEFINER
+SET search_path = hr_app, pg_temp
+AS $$
+    SELECT * FROM hr_app.notification_outbox WHERE id = row_id FOR UPDATE SKIP LOCKED;
+$$;
+
+-- Ids de las filas entregables más antiguas, sin bloquear
+CREATE OR REPLACE FUNCTION hr_app.peek_notification_outbox(max_rows integer, max_attempts integer)
+RETURNS SETOF bigint
+LANGUAGE sql
+STABLE
+SECURITY DEFINER
+SET search_path = hr_app, pg_temp
+AS $$
+    SELECT id FROM hr_app.notification_outbox WHERE attempts < max_attempts ORDER BY id LIMIT max_rows;
+$$;
+
+CREATE OR REPLACE FUNCTION hr_app.delete_notification_outbox(row_ids bigint[])
+RETURNS integer
+LANGUAGE plpgsql
+SECURITY DEFINER
+SET search_path = hr_app, pg_temp
+AS $$
+DECLARE
+    deleted integer;
+BEGIN
+    DELETE FROM hr_app.notification_outbox WHERE id = ANY(row_ids);
+    GET DIAGNOSTICS deleted = ROW_COUNT;
+    RETURN deleted;
+END;
+$$;
+
+CREATE OR REPLACE FUNCTION hr_app.fail_notification_outbox(row_id bigint, error text)
+RETURNS void
+LANGUAGE sql
+SECURITY DEFINER
+SET search_path = hr_app, pg_temp
+AS $$
+    UPDATE hr_app.notification_outbox SET attempts = attempts + 1, last_error = error WHERE id = row_id;
+$$;
+
+-- Pendientes entregables, creación de la más antigua y filas agotadas, para las métricas
+CREATE OR REPLACE FUNCTION hr_app.notification_outbox_backlog(max_attempts integer)
+RETURNS TABLE (pending bigint, oldest_created_at timestamp, dead bigint)
+LANGUAGE sql
+STABLE
+SECURITY DEFINER
+SET search_path = hr_app, pg_temp
+AS $$
+    SELECT COUNT(*) FILTER (WHERE attempts < max_attempts),
+           MIN(created_at) FILTER (WHERE attempts < max_attempts),
+           COUNT(*) FILTER (WHERE attempts >= max_attempts)
+    FROM hr_app.notification_outbox;
+$$;
+
+-- Postgres da EXECUTE a PUBLIC en toda función nueva: cualquier rol podría saltarse la RLS con
+-- ellas. Sólo las ejecuta el rol del dispatcher, que es el de la aplicación (el que migra).
+REVOKE EXECUTE ON FUNCTION hr_app.claim_notification_outbox(integer, integer) FROM PUBLIC;
+REVOKE EXECUTE ON FUNCTION hr_app.claim_notification_outbox_row(bigint) FROM PUBLIC;
+REVOKE EXECUTE ON FUNCTION hr_app.peek_notification_outbox(integer, integer) FROM PUBLIC;
+REVOKE EXECUTE ON FUNCTION hr_app.delete_notification_outbox(bigint[]) FROM PUBLIC;
+REVOKE EXECUTE ON FUNCTION hr_app.fail_notification_outbox(bigint, text) FROM PUBLIC;
+REVOKE EXECUTE ON FUNCTION hr_app.notification_outbox_backlog(integer) FROM PUBLIC;
+
+GRANT EXECUTE ON FUNCTION hr_app.claim_notification_outbox(integer, integer) TO CURRENT_USER;
+GRANT EXECUTE ON FUNCTION hr_app.claim_notification_outbox_row(bigint) TO CURRENT_USER;
+GRANT EXECUTE ON FUNCTION hr_app.peek_notification_outbox(integer, integer) TO CURRENT_USER;
+GRANT EXECUTE ON FUNCTION hr_app.delete_notification_outbox(bigint[]) TO CURRENT_USER;
+GRANT EXECUTE ON FUNCTION hr_app.fail_notification_outbox(bigint, text) TO CURRENT_USER;
+GRANT EXECUTE ON FUNCTION hr_app.notification_outbox_backlog(integer) TO CURRENT_USER;
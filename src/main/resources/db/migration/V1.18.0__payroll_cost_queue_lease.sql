@@ -0,0 +1,34 @@
+-- V1.18.0: Cola de recálculo de coste de nómina con RLS estricta y reclamación por lease
+
+-- Como notification_outbox en V1.17.0: la política de V1.16.0 mostraba todas las filas a cualquier
+-- sesión sin tenant vinculado. Vuelve a ser la política estricta; el job reclama filas de todos los
+-- tenants con la función SECURITY DEFINER de abajo y las borra después con el tenant vinculado.
+DROP POLICY IF EXISTS payroll_cost_rollup_queue_tenant_isolation ON hr_app.payroll_cost_rollup_queue;
+
+CREATE POLICY payroll_cost_rollup_queue_tenant_isolation ON hr_app.payroll_cost_rollup_queue
+    FOR ALL USING (tenant_id = hr_app.current_tenant()) WITH CHECK (tenant_id = hr_app.current_tenant());
+
+-- Reclamar ya no borra: marca la fila hasta claimed_until y el job la borra en la transacción que
+-- cierra el recálculo del tenant. Si la instancia cae antes, el lease vence y otra la vuelve a
+-- reclamar (recalcular un mes es idempotente).
+ALTER TABLE hr_app.payroll_cost_rollup_queue ADD COLUMN IF NOT EXISTS claimed_until TIMESTAMP;
+
+CREATE OR REPLACE FUNCTION hr_app.claim_payroll_cost_queue(max_rows integer, lease_seconds integer)
+RETURNS TABLE (queued_id bigint, queued_tenant_id varchar, queued_from_month date)
+LANGUAGE sql
+SECURITY DEFINER
+SET search_path = hr_app, pg_temp
+AS $$
+    UPDATE hr_app.payroll_cost_rollup_queue q
+       SET claimed_until = NOW() + make_interval(secs => lease_seconds)
+     WHERE q.id IN (SELECT p.id FROM hr_app.payroll_cost_rollup_queue p
+                     WHERE p.claimed_until IS NULL OR p.claimed_until < NOW()
+                     ORDER BY p.id
+                     LIMIT max_rows
+                     FOR UPDATE SKIP LOCKED)
+    RETURNING q.id, q.tenant_id, q.from_month;
+$$;
+
+-- Como enqueue_payroll_cost_month: sin EXECUTE para PUBLIC, sólo para el rol del job
+REVOKE EXECUTE ON FUNCTION hr_app.claim_payroll_cost_queue(integer, integer) FROM PUBLIC;
+GRANT EXECUTE ON FUNCTION hr_app.claim_payroll_cost_queue(integer, integer) TO CURRENT_USER;
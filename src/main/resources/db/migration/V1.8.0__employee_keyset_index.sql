@@ -0,0 +1,6 @@
+-- V1.8.0: Índice compuesto para la paginación por cursor (keyset) de empleados
+
+-- Soporta el orden (last_name, first_name, id) dentro de cada tenant, de modo que
+-- "WHERE (last_name, first_name, id) > (?, ?, ?) ORDER BY ..." sea un index range scan sin OFFSET
+CREATE INDEX IF NOT EXISTS employees_tenant_name_keyset_idx
+    ON hr_app.employees(tenant_id, last_name, first_name, id);
@@ -0,0 +1,16 @@
+-- V1.9.0: Índices parciales sobre asignaciones vigentes (end_date IS NULL)
+
+-- Las consultas de empleados por manager / unidad / posición sólo miran la asignación actual.
+-- Con el filtro en el índice el histórico no se recorre, y employee_id permite resolver
+-- el EXISTS correlacionado sin visitar la tabla.
+CREATE INDEX IF NOT EXISTS employee_assignments_current_manager_idx
+    ON hr_app.employee_assignments(tenant_id, manager_id, employee_id)
+    WHERE end_date IS NULL;
+
+CREATE INDEX IF NOT EXISTS employee_assignments_current_unit_idx
+    ON hr_app.employee_assignments(tenant_id, unit_id, employee_id)
+    WHERE end_date IS NULL;
+
+CREATE INDEX IF NOT EXISTS employee_assignments_current_position_idx
+    ON hr_app.employee_assignments(tenant_id, position_id, employee_id)
+    WHERE end_date IS NULL;
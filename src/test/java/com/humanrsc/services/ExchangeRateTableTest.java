@@ -0,0 +1,111 @@
+package com.humanrsc.services;
+
+import com.humanrsc.datamodel.entities.CurrencyExchangeRate;
+import org.junit.jupiter.api.Test;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Optional;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class ExchangeRateTableTest {
+
+    private static final LocalDate TODAY = LocalDate.of(2026, 6, 15);
+
+    @Test
+    void directRate() {
+        ExchangeRateTable table = ExchangeRateTable.of(List.of(rate("USD", "EUR", "0.920000", TODAY.minusDays(10), null)));
+
+        assertRate("0.920000", table.findRate("USD", "EUR", TODAY));
+    }
+
+    @Test
+    void inverseRate() {
+        ExchangeRateTable table = ExchangeRateTable.of(List.of(rate("USD", "EUR", "0.800000", TODAY.minusDays(10), null)));
+
+        assertRate("1.25", table.findRate("EUR", "USD", TODAY));
+    }
+
+    @Test
+    void crossRateThroughEur() {
+        // USD -> EUR directa, EUR -> GBP a partir de la inversa GBP -> EUR
+        ExchangeRateTable table = ExchangeRateTable.of(List.of(
+                rate("USD", "EUR", "0.900000", TODAY.minusDays(10), null),
+                rate("GBP", "EUR", "1.200000", TODAY.minusDays(10), null)));
+
+        assertRate("0.75", table.findRate("USD", "GBP", TODAY));
+        assertRate("1.3333333333", table.findRate("GBP", "USD", TODAY));
+    }
+
+    @Test
+    void noPathThroughEurYieldsEmpty() {
+        ExchangeRateTable table = ExchangeRateTable.of(List.of(rate("USD", "EUR", "0.900000", TODAY.minusDays(10), null)));
+
+        assertTrue(table.findRate("USD", "GBP", TODAY).isEmpty());
+        assertEquals(BigDecimal.ZERO, table.convert(new BigDecimal("100"), "USD", "GBP", TODAY));
+    }
+
+    @Test
+    void sameCurrencyIsOne() {
+        assertRate("1", ExchangeRateTable.of(List.of()).findRate("EUR", "EUR", TODAY));
+    }
+
+    @Test
+    void expiredLatestRateFallsBackToAnOlderOne() {
+        ExchangeRateTable table = ExchangeRateTable.of(List.of(
+                rate("USD", "EUR", "0.900000", TODAY.minusMonths(6), null),
+                rate("USD", "EUR", "0.950000", TODAY.minusMonths(1), TODAY)));
+
+        // Vence el mismo día de la consulta: ya no vale
+        assertRate("0.900000", table.findRate("USD", "EUR", TODAY));
+        assertRate("0.950000", table.findRate("USD", "EUR", TODAY.minusDays(1)));
+    }
+
+    @Test
+    void rateIsNotUsedBeforeItsEffectiveDate() {
+        ExchangeRateTable table = ExchangeRateTable.of(List.of(rate("USD", "EUR", "0.900000", TODAY, null)));
+
+        assertTrue(table.findRate("USD", "EUR", TODAY.minusDays(1)).isEmpty());
+    }
+
+    @Test
+    void sameEffectiveDateKeepsTheNewestCreated() {
+        CurrencyExchangeRate older = rate("USD", "EUR", "0.900000", TODAY.minusDays(5), null);
+        older.setDateCreated(LocalDateTime.of(2026, 6, 1, 9, 0));
+        CurrencyExchangeRate newer = rate("USD", "EUR", "0.910000", TODAY.minusDays(5), null);
+        newer.setDateCreated(LocalDateTime.of(2026, 6, 1, 10, 0));
+
+        assertRate("0.910000", ExchangeRateTable.of(List.of(older, newer)).findRate("USD", "EUR", TODAY));
+        assertRate("0.910000", ExchangeRateTable.of(List.of(newer, older)).findRate("USD", "EUR", TODAY));
+        assertEquals(1, ExchangeRateTable.of(List.of(older, newer)).pairCount());
+    }
+
+    @Test
+    void nonPositiveRatesAreIgnored() {
+        ExchangeRateTable table = ExchangeRateTable.of(List.of(
+                rate("USD", "EUR", "0.900000", TODAY.minusMonths(6), null),
+                rate("USD", "EUR", "0", TODAY.minusMonths(1), null)));
+
+        assertRate("0.900000", table.findRate("USD", "EUR", TODAY));
+    }
+
+    private static void assertRate(String expected, Optional<BigDecimal> actual) {
+        assertTrue(actual.isPresent(), "No rate found");
+        assertEquals(0, new BigDecimal(expected).compareTo(actual.get()),
+                "Expected " + expected + " but was " + actual.get());
+    }
+
+    private static CurrencyExchangeRate rate(String from, String to, String value, LocalDate effective, LocalDate expiry) {
+        CurrencyExchangeRate rate = new CurrencyExchangeRate();
+        rate.setFromCurrency(from);
+        rate.setToCurrency(to);
+        rate.setExchangeRate(new BigDecimal(value));
+        rate.setEffectiveDate(effective);
+        rate.setExpiryDate(expiry);
+        return rate;
+    }
+}
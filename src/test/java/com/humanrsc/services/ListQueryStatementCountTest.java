@@ -0,0 +1,207 @@
+package com.humanrsc.services;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.humanrsc.datamodel.abstraction.ObjectID;
+import com.humanrsc.datamodel.entities.Employee;
+import com.humanrsc.datamodel.entities.EmployeeAssignment;
+import com.humanrsc.datamodel.entities.JobPosition;
+import com.humanrsc.datamodel.entities.OrganizationalUnit;
+import com.humanrsc.datamodel.entities.PositionCategory;
+import io.quarkus.narayana.jta.QuarkusTransaction;
+import io.quarkus.test.junit.QuarkusTest;
+import jakarta.inject.Inject;
+import jakarta.persistence.EntityManager;
+import org.hibernate.SessionFactory;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.function.IntFunction;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Número de sentencias SQL de los listados principales, JSON incluido: con las asociaciones LAZY
+ * y el fetch plan de cada endpoint, una página cuesta la query más como mucho un lote de atributos
+ * extendidos, sea cual sea su tamaño.
+ *
+ * Se llaman los métodos del servicio que usan los endpoints; sin tenant vinculado (H2 no tiene RLS).
+ */
+@QuarkusTest
+class ListQueryStatementCountTest {
+
+    private static final int MAX_STATEMENTS_PER_PAGE = 2;
+    private static final String TENANT = "statement-count";
+    private static final int EMPLOYEES = 120;
+
+    @Inject
+    OrganizationService organizationService;
+
+    @Inject
+    EntityManager entityManager;
+
+    @Inject
+    SessionFactory sessionFactory;
+
+    @Inject
+    ObjectMapper objectMapper;
+
+    private static boolean seeded;
+    private static String unitId;
+    private static String positionId;
+    private static String employeeId;
+
+    @BeforeEach
+    void seed() {
+        if (seeded) {
+            return;
+        }
+        QuarkusTransaction.requiringNew().run(() -> {
+            PositionCategory category = new PositionCategory();
+            category.setObjectID(newId());
+            category.setName("Engineering");
+            entityManager.persist(category);
+
+            OrganizationalUnit unit = new OrganizationalUnit();
+            unit.setObjectID(newId());
+            unit.setName("Engineering");
+            entityManager.persist(unit);
+            unitId = unit.getObjectID().getId();
+
+            JobPosition position = new JobPosition();
+            position.setObjectID(newId());
+            position.setTitle("Developer");
+            position.setUnit(unit);
+            position.setCategory(category);
+            entityManager.persist(position);
+            positionId = position.getObjectID().getId();
+
+            for (int i = 0; i < EMPLOYEES; i++) {
+                Employee employee = newEmployee("EMP-" + i);
+                entityManager.persist(employee);
+                if (i % 5 == 0) {
+                    entityManager.persist(newAssignment(employee, position,
+                            LocalDate.now().minusYears(3), LocalDate.now().minusYears(1)));
+                }
+                entityManager.persist(newAssignment(employee, position, LocalDate.now().minusYears(1), null));
+                if (i == 0) {
+                    employeeId = employee.getObjectID().getId();
+                }
+            }
+        });
+        seeded = true;
+    }
+
+    @Test
+    void employeeListing() {
+        assertPageStatements("employees", size -> organizationService.findAllEmployees(0, size));
+    }
+
+    @Test
+    void filteredEmployeeListing() {
+        assertPageStatements("filtered employees", size -> organizationService.findEmployeesWithFilters(
+                Map.of("status", Employee.STATUS_ACTIVE), 0, size));
+    }
+
+    @Test
+    void employeesByUnit() {
+        assertPageStatements("employees by unit", size -> organizationService.findEmployeesByUnit(unitId, 0, size));
+    }
+
+    @Test
+    void positions() {
+        assertPageStatements("positions", size -> organizationService.findAllPositions(0, size));
+    }
+
+    @Test
+    void currentAssignments() {
+        assertPageStatements("current assignments", size -> organizationService.findCurrentAssignments(0, size));
+    }
+
+    @Test
+    void unitAssignments() {
+        assertPageStatements("unit assignments", size -> organizationService.findUnitAssignments(unitId, 0, size));
+    }
+
+    @Test
+    void positionAssignments() {
+        assertPageStatements("position assignments",
+                size -> organizationService.findPositionAssignments(positionId, 0, size));
+    }
+
+    @Test
+    void employeeAssignmentHistory() {
+        long statements = pageStatements("assignment history", size -> organizationService.findEmployeeAssignments(employeeId), 0);
+        assertTrue(statements <= MAX_STATEMENTS_PER_PAGE,
+                "Expected at most " + MAX_STATEMENTS_PER_PAGE + " statements, got " + statements + " for assignment history");
+    }
+
+    @Test
+    void assignmentListingsCarryTheEmployeeName() throws JsonProcessingException {
+        String json = QuarkusTransaction.requiringNew().call(() ->
+                objectMapper.writeValueAsString(organizationService.findUnitAssignments(unitId, 0, 1)));
+        assertTrue(json.contains("\"employeeName\""), json);
+
+        String history = QuarkusTransaction.requiringNew().call(() ->
+                objectMapper.writeValueAsString(organizationService.findEmployeeAssignments(employeeId)));
+        assertFalse(history.contains("\"employeeName\""), history);
+    }
+
+    // Misma cantidad de sentencias para una página de 10 que para una de 50
+    private void assertPageStatements(String listing, IntFunction<List<?>> page) {
+        long small = pageStatements(listing, page, 10);
+        long large = pageStatements(listing, page, 50);
+        assertTrue(large <= MAX_STATEMENTS_PER_PAGE,
+                "Expected at most " + MAX_STATEMENTS_PER_PAGE + " statements, got " + large + " for " + listing);
+        assertEquals(small, large, "Statement count grows with the page size for " + listing);
+    }
+
+    private long pageStatements(String listing, IntFunction<List<?>> page, int size) {
+        return QuarkusTransaction.requiringNew().call(() -> {
+            sessionFactory.getStatistics().clear();
+            List<?> rows = page.apply(size);
+            assertFalse(rows.isEmpty(), "No rows for " + listing);
+            // Como el endpoint: se serializa con la sesión abierta para que un lazy load se cuente
+            objectMapper.writeValueAsString(rows);
+            long statements = sessionFactory.getStatistics().getPrepareStatementCount();
+            assertTrue(statements > 0, "Hibernate statistics are disabled");
+            return statements;
+        });
+    }
+
+    private static Employee newEmployee(String employeeId) {
+        Employee employee = new Employee();
+        employee.setObjectID(newId());
+        employee.setEmployeeId(employeeId);
+        employee.setFirstName("First" + employeeId);
+        employee.setLastName("Last" + employeeId);
+        employee.setEmail(employeeId.toLowerCase() + "@test.example");
+        employee.setHireDate(LocalDate.now().minusYears(4));
+        employee.setDateOfBirth(LocalDate.of(1990, 1, 1));
+        employee.setCurrency("EUR");
+        employee.setCurrentSalary(new BigDecimal("45000"));
+        return employee;
+    }
+
+    private static EmployeeAssignment newAssignment(Employee employee, JobPosition position, LocalDate start, LocalDate end) {
+        EmployeeAssignment assignment = new EmployeeAssignment();
+        assignment.setObjectID(newId());
+        assignment.setEmployee(employee);
+        assignment.setPosition(position);
+        assignment.setUnit(position.getUnit());
+        assignment.setStartDate(start);
+        assignment.setEndDate(end);
+        return assignment;
+    }
+
+    private static ObjectID newId() {
+        return ObjectID.of(UUID.randomUUID().toString(), TENANT);
+    }
+}
@@ -0,0 +1,139 @@
+package com.humanrsc.services;
+
+import com.humanrsc.config.OrgTreeInvalidating.Scope;
+import com.humanrsc.config.ThreadLocalStorage;
+import io.smallrye.metrics.MetricRegistries;
+import org.eclipse.microprofile.metrics.MetricRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Supplier;
+import java.util.function.UnaryOperator;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+class OrgTreeCacheTest {
+
+    private static final String TENANT = "tenant-a";
+
+    private OrgTreeCache cache;
+    private final AtomicInteger fullLoads = new AtomicInteger();
+    private final AtomicInteger countRefreshes = new AtomicInteger();
+
+    private final Supplier<OrgTreeSnapshot> fullLoad = () -> {
+        fullLoads.incrementAndGet();
+        return OrgTreeSnapshot.of(List.of(OrgTreeSnapshotTest.unit("root", "Root", null)), List.of());
+    };
+    private final UnaryOperator<OrgTreeSnapshot> countsRefresh = snapshot -> {
+        countRefreshes.incrementAndGet();
+        return snapshot.withUnits(unit -> unit);
+    };
+
+    @BeforeEach
+    void setUp() {
+        MetricRegistries.dropAll();
+        cache = new OrgTreeCache();
+        cache.metricRegistry = MetricRegistries.get(MetricRegistry.Type.APPLICATION);
+        cache.init();
+        ThreadLocalStorage.setTenantID(TENANT);
+    }
+
+    @AfterEach
+    void tearDown() {
+        ThreadLocalStorage.clear();
+    }
+
+    @Test
+    void readsWithoutWritesShareOneLoad() {
+        OrgTreeSnapshot first = read();
+        assertSame(first, read());
+        assertEquals(1, fullLoads.get());
+        assertEquals(0, countRefreshes.get());
+    }
+
+    @Test
+    void countsScopeRefreshesOnlyTheCounts() {
+        OrgTreeSnapshot first = read();
+        cache.invalidate(TENANT, Scope.COUNTS);
+
+        OrgTreeSnapshot second = read();
+        assertEquals(1, fullLoads.get());
+        assertEquals(1, countRefreshes.get());
+        assertNotEquals(first.getEtag(), second.getEtag());
+        assertSame(second, read());
+    }
+
+    @Test
+    void structureScopeWinsOverPendingCounts() {
+        read();
+        cache.invalidate(TENANT, Scope.STRUCTURE);
+        cache.invalidate(TENANT, Scope.COUNTS);
+
+        read();
+        assertEquals(2, fullLoads.get());
+        assertEquals(0, countRefreshes.get());
+    }
+
+    @Test
+    void failedRefreshStaysPending() {
+        read();
+        cache.invalidate(TENANT, Scope.COUNTS);
+
+        assertThrows(IllegalStateException.class, () -> cache.get(fullLoad, snapshot -> {
+            throw new IllegalStateException("database down");
+        }));
+        read();
+        assertEquals(1, fullLoads.get());
+        assertEquals(1, countRefreshes.get());
+    }
+
+    @Test
+    void failedFullLoadStaysPendingAsStructure() {
+        read();
+        cache.invalidate(TENANT, Scope.STRUCTURE);
+
+        assertThrows(IllegalStateException.class, () -> cache.get(() -> {
+            throw new IllegalStateException("database down");
+        }, countsRefresh));
+        read();
+        assertEquals(2, fullLoads.get());
+        assertEquals(0, countRefreshes.get());
+    }
+
+    @Test
+    void writeBetweenReadsChangesTheEtag() {
+        String before = read().getEtag();
+        cache.invalidate(TENANT, Scope.COUNTS);
+        String after = read().getEtag();
+
+        assertNotEquals(before, after);
+        assertEquals(before.substring(0, before.lastIndexOf('-')), after.substring(0, after.lastIndexOf('-')));
+    }
+
+    @Test
+    void tenantsAtTheSameVersionHaveDifferentEtags() {
+        String first = read().getEtag();
+        ThreadLocalStorage.setTenantID("tenant-b");
+        String second = read().getEtag();
+
+        assertNotEquals(first, second);
+    }
+
+    @Test
+    void withoutTenantEveryReadLoads() {
+        ThreadLocalStorage.clear();
+        read();
+        read();
+        assertEquals(2, fullLoads.get());
+    }
+
+    private OrgTreeSnapshot read() {
+        return cache.get(fullLoad, countsRefresh);
+    }
+}
@@ -0,0 +1,87 @@
+package com.humanrsc.services;
+
+import com.humanrsc.datamodel.entities.OrganizationalUnit;
+import com.humanrsc.services.OrganizationService.UnitWithCounts;
+import org.junit.jupiter.api.Test;
+
+import java.math.BigDecimal;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class OrgTreeSnapshotTest {
+
+    // root ── B ── C
+    //      └─ A ── Z         orphan (padre borrado) ── O1
+    // En orden de carga B va antes que A, y C (hijo de B) antes que Z (hijo de A) sólo por nombre.
+    private static final List<UnitWithCounts> UNITS = List.of(
+            unit("root", "Root", null),
+            unit("b", "B", "root"),
+            unit("a", "A", "root"),
+            unit("z", "Z", "a"),
+            unit("c", "C", "b"),
+            unit("orphan", "Orphan", "deleted"),
+            unit("o1", "O1", "orphan"));
+
+    private final OrgTreeSnapshot snapshot = OrgTreeSnapshot.of(UNITS, List.of());
+
+    @Test
+    void orphanedUnitIsARoot() {
+        assertEquals(List.of("orphan"), ids(snapshot.ancestors("orphan")));
+        assertEquals(List.of("orphan", "o1"), ids(snapshot.ancestors("o1")));
+        assertEquals(List.of("orphan", "o1"), ids(snapshot.subtree("orphan", null)));
+    }
+
+    @Test
+    void maxDepthZeroIsTheUnitAlone() {
+        assertEquals(List.of("root"), ids(snapshot.subtree("root", 0)));
+        assertEquals(List.of("a"), ids(snapshot.subtree("a", 0)));
+    }
+
+    @Test
+    void maxDepthOneAddsTheDirectChildren() {
+        assertEquals(List.of("root", "a", "b"), ids(snapshot.subtree("root", 1)));
+        // Relativo a la unidad pedida, no a la raíz del árbol
+        assertEquals(List.of("a", "z"), ids(snapshot.subtree("a", 1)));
+    }
+
+    @Test
+    void levelsAreOrderedByName() {
+        assertEquals(List.of("root", "a", "b", "c", "z"), ids(snapshot.subtree("root", null)));
+    }
+
+    @Test
+    void ancestorsOfARootIsTheRootItself() {
+        assertEquals(List.of("root"), ids(snapshot.ancestors("root")));
+        assertEquals(List.of("root", "a", "z"), ids(snapshot.ancestors("z")));
+    }
+
+    @Test
+    void unknownUnitYieldsEmptyLists() {
+        assertTrue(snapshot.subtree("missing", null).isEmpty());
+        assertTrue(snapshot.ancestors("missing").isEmpty());
+    }
+
+    @Test
+    void countsRefreshKeepsTheStructure() {
+        OrgTreeSnapshot tagged = snapshot.withEtag("v1");
+        OrgTreeSnapshot refreshed = tagged.withUnits(unit -> unit.withCounts(7, 3, null, null, 7, 3, BigDecimal.TEN));
+
+        assertEquals(ids(tagged.subtree("root", null)), ids(refreshed.subtree("root", null)));
+        assertEquals(ids(tagged.ancestors("o1")), ids(refreshed.ancestors("o1")));
+        assertEquals("v1", refreshed.getEtag());
+        assertEquals(UNITS.size(), refreshed.getChart().getUnits().size());
+        assertTrue(refreshed.subtree("root", null).stream().allMatch(unit -> unit.getEmployeeCount() == 7));
+        assertTrue(tagged.subtree("root", null).stream().allMatch(unit -> unit.getEmployeeCount() == 0));
+    }
+
+    private static List<String> ids(List<UnitWithCounts> units) {
+        return units.stream().map(UnitWithCounts::getId).toList();
+    }
+
+    static UnitWithCounts unit(String id, String name, String parentId) {
+        return new UnitWithCounts(id, name, null, null, null, null, OrganizationalUnit.STATUS_ACTIVE, parentId,
+                0, 0, null, null, null, 0, 0, BigDecimal.ZERO);
+    }
+}